@@ -0,0 +1,131 @@
+/*
+ * LICENCE : CloudUnit is available under the GNU Affero General Public License : https://gnu.org/licenses/agpl.html
+ * but CloudUnit is licensed too under a standard commercial license.
+ * Please contact our sales team if you would like to discuss the specifics of our Enterprise license.
+ * If you are not sure whether the AGPL is right for you,
+ * you can always test our software under the AGPL and inspect the source code before you contact us
+ * about purchasing a commercial license.
+ *
+ * LEGAL TERMS : "CloudUnit" is a registered trademark of Treeptik and can't be used to endorse
+ * or promote products derived from this project without prior written permission from Treeptik.
+ * Products or services derived from this software may not be called "CloudUnit"
+ * nor may "Treeptik" or similar confusing terms appear in their names without prior written permission.
+ * For any questions, contact us : contact@treeptik.fr
+ */
+
+package fr.treeptik.cloudunit.dto;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import fr.treeptik.cloudunit.model.Status;
+import fr.treeptik.cloudunit.utils.NamingUtils;
+
+/**
+ * What the dashboard displays of an application, read by a projection query instead of loading the
+ * whole entity graph. The deployments, aliases and ports are read on demand from the detail endpoints.
+ */
+public class ApplicationSummary {
+
+    private Integer id;
+
+    private String name;
+
+    private String displayName;
+
+    private Status status;
+
+    private String deploymentStatus;
+
+    private String contextPath;
+
+    private String location;
+
+    private String serverDisplayName;
+
+    private String serverPrefixEnv;
+
+    private long moduleCount;
+
+    private List<String> modules = new ArrayList<>();
+
+    @JsonFormat(pattern = "YYYY-MM-dd HH:mm")
+    private Date lastDeployment;
+
+    public ApplicationSummary(Integer id, String name, String displayName, Status status,
+                              String deploymentStatus, String contextPath, String userLogin,
+                              String serverDisplayName, String serverPrefixEnv, Long moduleCount,
+                              Date lastDeployment) {
+        this.id = id;
+        this.name = name;
+        this.displayName = displayName;
+        this.status = status;
+        this.deploymentStatus = deploymentStatus;
+        this.contextPath = contextPath;
+        this.location = NamingUtils.getContainerName(name, null, userLogin)
+            + NamingUtils.getCloudUnitDomain(System.getenv("CU_DOMAIN"));
+        this.serverDisplayName = serverDisplayName;
+        this.serverPrefixEnv = serverPrefixEnv;
+        this.moduleCount = moduleCount == null ? 0 : moduleCount;
+        this.lastDeployment = lastDeployment;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getDeploymentStatus() {
+        return deploymentStatus;
+    }
+
+    public String getContextPath() {
+        return contextPath;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getServerDisplayName() {
+        return serverDisplayName;
+    }
+
+    public String getServerPrefixEnv() {
+        return serverPrefixEnv;
+    }
+
+    public long getModuleCount() {
+        return moduleCount;
+    }
+
+    /**
+     * @return display names of the images of the modules
+     */
+    public List<String> getModules() {
+        return modules;
+    }
+
+    public void setModules(List<String> modules) {
+        this.modules = modules;
+    }
+
+    public Date getLastDeployment() {
+        return lastDeployment;
+    }
+
+}
@@ -21,7 +21,8 @@ public enum RemoteExecAction {
     MODULE_POST_START("Module post start just one time", "/opt/cloudunit/hooks/module-post-start.sh"),
     CLONE_PRE_ACTION("Before restoring an application", "/opt/cloudunit/hooks/clone-pre-action.sh"),
     CLONE_POST_ACTION("After restoring an application", "/opt/cloudunit/hooks/clone-post-action.sh"),
-    GATHER_CU_ENV("Gather CU env variables", "/opt/cloudunit/scripts/env.sh");
+    GATHER_CU_ENV("Gather CU env variables", "/opt/cloudunit/scripts/env.sh"),
+    CLAIM_WARM_SERVER("Bind a warm server to its user", "/opt/cloudunit/scripts/claim.sh");
 
     private final String label;
     private String command;
@@ -44,6 +45,17 @@ public enum RemoteExecAction {
                 .reduce(getCommand(), (a, kv) -> a.replaceAll(kv.getKey(), kv.getValue()), String::concat);
     }
 
+    /**
+     * @param arguments
+     * @return the command followed by the arguments, to be run without a shell
+     */
+    public String[] getCommandArguments(String... arguments) {
+        String[] commandArguments = new String[arguments.length + 1];
+        commandArguments[0] = command;
+        System.arraycopy(arguments, 0, commandArguments, 1, arguments.length);
+        return commandArguments;
+    }
+
     public String[] getCommandBash() {
         String[] commandBash = new String[2];
         commandBash[0] = "bash";
@@ -81,6 +81,11 @@ public class Container implements Serializable {
 	
 	private String sshPort;
 
+	/**
+	 * Name of the docker host running this container, null for the default host.
+	 */
+	protected String dockerHost;
+
 	@Transient
 	@JsonIgnore
 	private String dockerState;
@@ -208,6 +213,14 @@ public class Container implements Serializable {
         this.sshPort = sshPort;
     }
 
+	public String getDockerHost() {
+		return dockerHost;
+	}
+
+	public void setDockerHost(String dockerHost) {
+		this.dockerHost = dockerHost;
+	}
+
 	public String getInternalDNSName() {
 		return internalDNSName;
 	}
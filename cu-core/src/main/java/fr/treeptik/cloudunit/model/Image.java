@@ -19,11 +19,16 @@ import fr.treeptik.cloudunit.enums.ModuleEnvironmentRole;
 import fr.treeptik.cloudunit.enums.PortType;
 
 import javax.persistence.*;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "image")
 public class Image implements Serializable {
 
     public final static boolean DISABLED = false;
@@ -61,6 +66,7 @@ public class Image implements Serializable {
 
     @ElementCollection
     @MapKeyEnumerated(EnumType.STRING)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "image.exposedPorts")
     private Map<PortType, String> exposedPorts;
 
     private Integer prefixId;
@@ -70,6 +76,7 @@ public class Image implements Serializable {
 
     @ElementCollection
     @MapKeyEnumerated(EnumType.STRING)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "image.moduleEnvironmentVariables")
     private Map<ModuleEnvironmentRole, String> moduleEnvironmentVariables;
 
     @JsonIgnore
@@ -22,13 +22,21 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 
 @Entity
+// keyset pagination of the messages of a user, and of one of its applications, by descending id
+@Table(indexes = {
+    @Index(name = "idx_message_author_instance_id", columnList = "author_id, cuInstanceName, id"),
+    @Index(name = "idx_message_author_instance_app_id",
+        columnList = "author_id, cuInstanceName, applicationName, id")
+})
 public class Message
     implements Serializable {
 
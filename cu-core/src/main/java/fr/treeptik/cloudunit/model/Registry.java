@@ -17,10 +17,15 @@ package fr.treeptik.cloudunit.model;
 
 import javax.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Created by gborg on 09/02/17.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "registry")
 public class Registry {
 
     @Id
@@ -40,6 +40,13 @@ public class Server extends Container implements Serializable {
 
 	private String managerLocation;
 
+	/**
+	 * Name of the volume mounted on /opt/cloudunit, null when it is named after the container.
+	 * The servers claimed from the warm pool keep the volume created under their warm name.
+	 */
+	@JsonIgnore
+	private String mainVolume;
+
 	@JsonIgnore
 	@OneToOne(fetch = FetchType.LAZY)
 	private Application application;
@@ -140,6 +147,14 @@ public class Server extends Container implements Serializable {
 		this.managerLocation = managerLocation;
 	}
 
+	public String getMainVolume() {
+		return mainVolume;
+	}
+
+	public void setMainVolume(String mainVolume) {
+		this.mainVolume = mainVolume;
+	}
+
 	@JsonIgnore
 	public boolean isApplicationServer() {
 		return image.getImageSubType().toString().equalsIgnoreCase("APPSERVER");
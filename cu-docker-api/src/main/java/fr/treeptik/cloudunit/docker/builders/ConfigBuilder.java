@@ -1,6 +1,7 @@
 package fr.treeptik.cloudunit.docker.builders;
 
 import fr.treeptik.cloudunit.docker.model.Config;
+import fr.treeptik.cloudunit.docker.model.Healthcheck;
 import fr.treeptik.cloudunit.docker.model.HostConfig;
 
 import java.util.List;
@@ -37,6 +38,7 @@ public class ConfigBuilder {
     private Map<String, Map<String, String>> volumes;
 
     private String workingDir;
+    private Healthcheck healthcheck;
 
     private ConfigBuilder() {
     }
@@ -175,8 +177,13 @@ public class ConfigBuilder {
         return this;
     }
 
+    public ConfigBuilder withHealthcheck(Healthcheck healthcheck) {
+        this.healthcheck = healthcheck;
+        return this;
+    }
+
     public ConfigBuilder but() {
-        return aConfig().withAttachStdin(attachStdin).withAttachStdout(attachStdout).withAttachStderr(attachStderr).withMemory(memory).withMemorySwap(memorySwap).withImage(image).withCmd(cmd).withExposedPorts(exposedPorts).withHostConfig(hostConfig).withCpuShares(cpuShares).withCpuset(cpuset).withDomainname(domainname).withEntrypoint(entrypoint).withEnv(env).withHostname(hostname).withLabels(labels).withMacAddress(macAddress).withNetworkDisabled(networkDisabled).withOnBuild(onBuild).withOpenStdin(openStdin).withPortSpecs(portSpecs).withStdinOnce(stdinOnce).withTty(tty).withUser(user).withVolumes(volumes).withWorkingDir(workingDir);
+        return aConfig().withAttachStdin(attachStdin).withAttachStdout(attachStdout).withAttachStderr(attachStderr).withMemory(memory).withMemorySwap(memorySwap).withImage(image).withCmd(cmd).withExposedPorts(exposedPorts).withHostConfig(hostConfig).withCpuShares(cpuShares).withCpuset(cpuset).withDomainname(domainname).withEntrypoint(entrypoint).withEnv(env).withHostname(hostname).withLabels(labels).withMacAddress(macAddress).withNetworkDisabled(networkDisabled).withOnBuild(onBuild).withOpenStdin(openStdin).withPortSpecs(portSpecs).withStdinOnce(stdinOnce).withTty(tty).withUser(user).withVolumes(volumes).withWorkingDir(workingDir).withHealthcheck(healthcheck);
     }
 
     public Config build() {
@@ -207,6 +214,7 @@ public class ConfigBuilder {
         config.setUser(user);
         config.setVolumes(volumes);
         config.setWorkingDir(workingDir);
+        config.setHealthcheck(healthcheck);
         return config;
     }
 }
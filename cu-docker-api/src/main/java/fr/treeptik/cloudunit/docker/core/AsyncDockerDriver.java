@@ -0,0 +1,140 @@
+package fr.treeptik.cloudunit.docker.core;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import fr.treeptik.cloudunit.docker.model.DockerContainer;
+import fr.treeptik.cloudunit.docker.model.Image;
+import fr.treeptik.cloudunit.docker.model.Volume;
+import fr.treeptik.cloudunit.dto.DockerEntityResponse;
+import fr.treeptik.cloudunit.dto.DockerResponse;
+
+/**
+ * Non-blocking facade of a {@link DockerDriver} : each request is queued and sent by a dedicated pool
+ * whose size is the maximum number of requests in flight to the daemon. Callers get a future that can
+ * be composed with other requests instead of waiting for every round trip.
+ * Failures complete the future exceptionally with the {@link fr.treeptik.cloudunit.exception.FatalDockerJSONException}
+ * raised by the driver.
+ */
+public class AsyncDockerDriver implements Closeable {
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 16;
+
+    private final DockerDriver driver;
+
+    private final ThreadPoolExecutor executor;
+
+    public AsyncDockerDriver(DockerDriver driver) {
+        this(driver, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    public AsyncDockerDriver(DockerDriver driver, int maxInFlight) {
+        this.driver = driver;
+        this.executor = new ThreadPoolExecutor(maxInFlight, maxInFlight, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new DaemonThreadFactory());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public CompletableFuture<DockerResponse> find(DockerContainer container) {
+        return submit(() -> driver.find(container));
+    }
+
+    public <T> CompletableFuture<DockerEntityResponse<T>> find(DockerContainer container, ObjectReader reader) {
+        return submit(() -> driver.<T>find(container, reader));
+    }
+
+    public <T> CompletableFuture<DockerEntityResponse<T>> findAll(ObjectReader reader) {
+        return submit(() -> driver.<T>findAll(reader));
+    }
+
+    public CompletableFuture<DockerResponse> create(DockerContainer container) {
+        return submit(() -> driver.create(container));
+    }
+
+    public CompletableFuture<DockerResponse> start(DockerContainer container) {
+        return submit(() -> driver.start(container));
+    }
+
+    public CompletableFuture<DockerResponse> stop(DockerContainer container) {
+        return submit(() -> driver.stop(container));
+    }
+
+    public CompletableFuture<DockerResponse> kill(DockerContainer container) {
+        return submit(() -> driver.kill(container));
+    }
+
+    public CompletableFuture<DockerResponse> remove(DockerContainer container) {
+        return submit(() -> driver.remove(container));
+    }
+
+    public CompletableFuture<DockerResponse> findAnImage(Image image) {
+        return submit(() -> driver.findAnImage(image));
+    }
+
+    public CompletableFuture<DockerResponse> pull(String tag, String repository) {
+        return submit(() -> driver.pull(tag, repository));
+    }
+
+    public CompletableFuture<DockerResponse> createVolume(Volume volume) {
+        return submit(() -> driver.createVolume(volume));
+    }
+
+    public CompletableFuture<DockerResponse> findVolume(Volume volume) {
+        return submit(() -> driver.findVolume(volume));
+    }
+
+    public CompletableFuture<DockerResponse> removeVolume(Volume volume) {
+        return submit(() -> driver.removeVolume(volume));
+    }
+
+    /**
+     * @return number of requests currently sent to the daemon
+     */
+    public int getInFlight() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * @return number of requests waiting for a free slot
+     */
+    public int getQueued() {
+        return executor.getQueue().size();
+    }
+
+    public int getMaxInFlight() {
+        return executor.getMaximumPoolSize();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> request) {
+        return CompletableFuture.supplyAsync(request, executor);
+    }
+
+    /**
+     * Stop accepting requests, the queued ones are still sent. The underlying driver is not closed.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "docker-async-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
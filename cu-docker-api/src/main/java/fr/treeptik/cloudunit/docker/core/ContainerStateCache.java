@@ -0,0 +1,159 @@
+package fr.treeptik.cloudunit.docker.core;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import fr.treeptik.cloudunit.docker.builders.ContainerBuilder;
+import fr.treeptik.cloudunit.docker.model.DockerContainer;
+import fr.treeptik.cloudunit.docker.model.DockerEvent;
+import fr.treeptik.cloudunit.exception.DockerJSONException;
+
+/**
+ * Read-through cache of the container summaries (id, name, state, network settings) returned by
+ * {@link DockerCloudUnitClient#findContainerSummary(DockerContainer)}.
+ * Entries are reachable by name and by id. They expire after a short time to live and are evicted
+ * as soon as a docker event or an operation of CloudUnit changes the container.
+ */
+public class ContainerStateCache implements DockerEventHandler {
+
+    private final DockerCloudUnitClient dockerCloudUnitClient;
+
+    private final long timeToLiveMillis;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Incremented on each invalidation so that a load racing with an event is not cached.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    public ContainerStateCache(DockerCloudUnitClient dockerCloudUnitClient, long timeToLiveMillis) {
+        this.dockerCloudUnitClient = dockerCloudUnitClient;
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    /**
+     * @param nameOrId
+     * @return the cached summary of the container, loaded from the daemon if absent or expired
+     * @throws DockerJSONException
+     */
+    public DockerContainer findContainer(String nameOrId) throws DockerJSONException {
+        String key = normalize(nameOrId);
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.isExpired()) {
+            hits.incrementAndGet();
+            return entry.container;
+        }
+        misses.incrementAndGet();
+        long loadVersion = version.get();
+        DockerContainer container = dockerCloudUnitClient
+                .findContainerSummary(ContainerBuilder.aContainer().withName(key).build());
+        if (loadVersion != version.get()) {
+            return container;
+        }
+        Entry loaded = new Entry(container, System.currentTimeMillis() + timeToLiveMillis);
+        entries.put(key, loaded);
+        if (container.getName() != null) {
+            entries.put(normalize(container.getName()), loaded);
+        }
+        if (container.getId() != null) {
+            entries.put(container.getId(), loaded);
+        }
+        return container;
+    }
+
+    public void invalidate(String nameOrId) {
+        if (nameOrId == null) {
+            return;
+        }
+        version.incrementAndGet();
+        Entry entry = entries.remove(normalize(nameOrId));
+        if (entry != null) {
+            evictions.incrementAndGet();
+            // drop the other keys of the same container
+            entries.values().removeIf(e -> e == entry);
+        }
+    }
+
+    public void invalidateAll() {
+        version.incrementAndGet();
+        entries.clear();
+    }
+
+    @Override
+    public void onEvent(DockerEvent event) {
+        invalidate(event.getContainerName());
+        invalidate(event.getId());
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(hits.get(), misses.get(), evictions.get(), entries.size());
+    }
+
+    private String normalize(String name) {
+        return name.startsWith("/") ? name.substring(1) : name;
+    }
+
+    private static class Entry {
+
+        private final DockerContainer container;
+
+        private final long expiresAt;
+
+        private Entry(DockerContainer container, long expiresAt) {
+            this.container = container;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+
+    public static class Statistics {
+
+        private final long hits;
+
+        private final long misses;
+
+        private final long evictions;
+
+        private final int size;
+
+        public Statistics(long hits, long misses, long evictions, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public double getHitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+}
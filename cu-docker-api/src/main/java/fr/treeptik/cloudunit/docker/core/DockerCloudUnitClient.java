@@ -4,18 +4,23 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import fr.treeptik.cloudunit.docker.model.Network;
 import fr.treeptik.cloudunit.exception.ServiceException;
+import org.apache.http.pool.PoolStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 import fr.treeptik.cloudunit.docker.model.DockerContainer;
+import fr.treeptik.cloudunit.docker.model.DockerContainerSummary;
 import fr.treeptik.cloudunit.docker.model.Image;
 import fr.treeptik.cloudunit.docker.model.Volume;
+import fr.treeptik.cloudunit.dto.DockerEntityResponse;
 import fr.treeptik.cloudunit.dto.DockerResponse;
 import fr.treeptik.cloudunit.exception.DockerJSONException;
 import fr.treeptik.cloudunit.exception.ErrorDockerJSONException;
@@ -30,10 +35,28 @@ public class DockerCloudUnitClient {
 
     private DockerDriver driver;
 
+    private AsyncDockerDriver asyncDriver;
+
+    private ImagePuller imagePuller;
+
     private String defaultHost;
 
     private ObjectMapper objectMapper = new ObjectMapper();
 
+    /**
+     * Readers are immutable and thread-safe : they are built once and reused to decode
+     * the responses directly from the http stream.
+     */
+    private final ObjectReader containerReader = objectMapper.readerFor(DockerContainer.class);
+
+    private final ObjectReader containerListReader = objectMapper
+            .readerFor(new TypeReference<List<DockerContainer>>() {
+            });
+
+    private final ObjectReader containerSummaryReader = new ObjectMapper()
+            .addMixIn(DockerContainer.class, DockerContainerSummary.class)
+            .readerFor(DockerContainer.class);
+
     /**
      * @param container
      * @param host
@@ -43,10 +66,10 @@ public class DockerCloudUnitClient {
     public DockerContainer findContainer(DockerContainer container, String host) throws DockerJSONException {
         logger.info("The client attempts to find a container...");
         try {
-            DockerResponse dockerResponse = driver.find(container);
+            DockerEntityResponse<DockerContainer> dockerResponse = driver.find(container, containerReader);
             handleDockerAPIError(dockerResponse);
-            container = objectMapper.readValue(dockerResponse.getBody(), DockerContainer.class);
-        } catch (FatalDockerJSONException | IOException e) {
+            container = dockerResponse.getEntity();
+        } catch (FatalDockerJSONException e) {
             throw new DockerJSONException(e.getMessage(), e);
         }
         return container;
@@ -60,15 +83,49 @@ public class DockerCloudUnitClient {
     public DockerContainer findContainer(DockerContainer container) throws DockerJSONException {
         logger.info("The client attempts to find a container...");
         try {
-            DockerResponse dockerResponse = driver.find(container);
+            DockerEntityResponse<DockerContainer> dockerResponse = driver.find(container, containerReader);
             handleDockerAPIError(dockerResponse);
-            container = objectMapper.readValue(dockerResponse.getBody(), DockerContainer.class);
-        } catch (FatalDockerJSONException | IOException e) {
+            container = dockerResponse.getEntity();
+        } catch (FatalDockerJSONException e) {
             throw new DockerJSONException(e.getMessage(), e);
         }
         return container;
     }
 
+    /**
+     * Lightweight inspect of a container : only its id, name, state, network settings and volumes are bound.
+     *
+     * @param container
+     * @return
+     * @throws DockerJSONException
+     */
+    public DockerContainer findContainerSummary(DockerContainer container) throws DockerJSONException {
+        if (logger.isDebugEnabled()) {
+            logger.debug("The client attempts to find a container summary...");
+        }
+        try {
+            DockerEntityResponse<DockerContainer> dockerResponse = driver.find(container, containerSummaryReader);
+            handleDockerAPIError(dockerResponse);
+            container = dockerResponse.getEntity();
+        } catch (FatalDockerJSONException e) {
+            throw new DockerJSONException(e.getMessage(), e);
+        }
+        return container;
+    }
+
+    /**
+     * Start a subscription to the container events of the daemon. The subscription must be closed by the caller.
+     *
+     * @param handler
+     * @param actions container actions to forward (start, die, oom, health_status...), all if empty
+     * @return
+     */
+    public DockerEventSubscriber subscribeEvents(DockerEventHandler handler, String... actions) {
+        DockerEventSubscriber subscriber = new DockerEventSubscriber(driver, handler, actions);
+        subscriber.start();
+        return subscriber;
+    }
+
     /**
      * @param host
      * @return
@@ -78,11 +135,10 @@ public class DockerCloudUnitClient {
         List<DockerContainer> containers = null;
         try {
             logger.info("The client attempts to list all containers...");
-            DockerResponse dockerResponse = driver.findAll();
+            DockerEntityResponse<List<DockerContainer>> dockerResponse = driver.findAll(containerListReader);
             handleDockerAPIError(dockerResponse);
-            containers = objectMapper.readValue(dockerResponse.getBody(), new TypeReference<List<DockerContainer>>() {
-            });
-        } catch (FatalDockerJSONException | IOException e) {
+            containers = dockerResponse.getEntity();
+        } catch (FatalDockerJSONException e) {
             throw new DockerJSONException(e.getMessage(), e);
         }
         return containers;
@@ -96,11 +152,10 @@ public class DockerCloudUnitClient {
         List<DockerContainer> containers = null;
         try {
             logger.info("The client attempts to list all containers...");
-            DockerResponse dockerResponse = driver.findAll();
+            DockerEntityResponse<List<DockerContainer>> dockerResponse = driver.findAll(containerListReader);
             handleDockerAPIError(dockerResponse);
-            containers = objectMapper.readValue(dockerResponse.getBody(), new TypeReference<List<DockerContainer>>() {
-            });
-        } catch (FatalDockerJSONException | IOException e) {
+            containers = dockerResponse.getEntity();
+        } catch (FatalDockerJSONException e) {
             throw new DockerJSONException(e.getMessage(), e);
         }
         return containers;
@@ -264,21 +319,24 @@ public class DockerCloudUnitClient {
         return dockerResponse;
     }
 
+    /**
+     * Start pulling an image in the background.
+     *
+     * @param tag
+     * @param repository
+     * @param listener called for every progress message, may be null
+     * @return the pull, to follow its progress, wait for it or cancel it
+     */
+    public ImagePull pullImage(String tag, String repository, PullProgressListener listener) {
+        logger.info("The client attempts to pull " + repository + ":" + tag + " in the background...");
+        return getImagePuller().pull(repository, tag, listener);
+    }
+
     public DockerResponse createVolume(String name, String label) throws DockerJSONException {
         DockerResponse dockerResponse = null;
         try {
             logger.info("The client attempts to create a volume...");
-            Volume volume = new Volume();
-            volume.setName(name);
-            Map<String, String> labels = new HashMap<String, String>() {
-                private static final long serialVersionUID = 1L;
-
-                {
-                    put("cloudunit.type", label);
-                }
-            };
-            volume.setLabels(labels);
-            dockerResponse = driver.createVolume(volume);
+            dockerResponse = driver.createVolume(newVolume(name, label));
             handleDockerAPIError(dockerResponse);
         } catch (FatalDockerJSONException e) {
             throw new DockerJSONException(e.getMessage(), e);
@@ -425,6 +483,101 @@ public class DockerCloudUnitClient {
         }
     }
 
+    /**
+     * Asynchronous inspect of a container, the future fails with a {@link DockerJSONException}
+     * or a {@link FatalDockerJSONException}.
+     *
+     * @param container
+     * @return
+     */
+    public CompletableFuture<DockerContainer> findContainerAsync(DockerContainer container) {
+        return getAsyncDriver().<DockerContainer>find(container, containerReader)
+                .thenApply(response -> checkResponse(response).getEntity());
+    }
+
+    /**
+     * @param container
+     * @return
+     * @see #findContainerSummary(DockerContainer)
+     */
+    public CompletableFuture<DockerContainer> findContainerSummaryAsync(DockerContainer container) {
+        return getAsyncDriver().<DockerContainer>find(container, containerSummaryReader)
+                .thenApply(response -> checkResponse(response).getEntity());
+    }
+
+    public CompletableFuture<DockerResponse> createContainerAsync(DockerContainer container) {
+        return getAsyncDriver().create(container).thenApply(this::checkResponse);
+    }
+
+    public CompletableFuture<DockerResponse> startContainerAsync(DockerContainer container) {
+        return getAsyncDriver().start(container).thenApply(this::checkResponse);
+    }
+
+    public CompletableFuture<DockerResponse> stopContainerAsync(DockerContainer container) {
+        return getAsyncDriver().stop(container).thenApply(this::checkResponse);
+    }
+
+    public CompletableFuture<DockerResponse> killContainerAsync(DockerContainer container) {
+        return getAsyncDriver().kill(container).thenApply(this::checkResponse);
+    }
+
+    public CompletableFuture<DockerResponse> removeContainerAsync(DockerContainer container) {
+        return getAsyncDriver().remove(container).thenApply(this::checkResponse);
+    }
+
+    public CompletableFuture<DockerResponse> createVolumeAsync(String name, String label) {
+        return getAsyncDriver().createVolume(newVolume(name, label)).thenApply(this::checkResponse);
+    }
+
+    public CompletableFuture<DockerResponse> removeVolumeAsync(String name) {
+        Volume volume = new Volume();
+        volume.setName(name);
+        return getAsyncDriver().removeVolume(volume).thenApply(this::checkResponse);
+    }
+
+    private <R extends DockerResponse> R checkResponse(R dockerResponse) {
+        handleDockerAPIError(dockerResponse);
+        return dockerResponse;
+    }
+
+    private Volume newVolume(String name, String label) {
+        Volume volume = new Volume();
+        volume.setName(name);
+        Map<String, String> labels = new HashMap<String, String>() {
+            private static final long serialVersionUID = 1L;
+
+            {
+                put("cloudunit.type", label);
+            }
+        };
+        volume.setLabels(labels);
+        return volume;
+    }
+
+    /**
+     * @return statistics of the connection pool to the Docker daemon
+     */
+    public PoolStats getPoolStats() {
+        return driver.getPoolStats();
+    }
+
+    /**
+     * Release the connections held by the driver
+     *
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        if (asyncDriver != null) {
+            asyncDriver.close();
+        }
+        if (imagePuller != null) {
+            imagePuller.close();
+        }
+        if (driver != null) {
+            driver.close();
+        }
+    }
+
     public DockerCloudUnitClient() {
     }
 
@@ -449,4 +602,32 @@ public class DockerCloudUnitClient {
         this.driver = driver;
     }
 
+    /**
+     * @return the asynchronous driver, built on top of the driver with the default in flight limit if not set
+     */
+    public synchronized AsyncDockerDriver getAsyncDriver() {
+        if (asyncDriver == null) {
+            asyncDriver = new AsyncDockerDriver(driver);
+        }
+        return asyncDriver;
+    }
+
+    public synchronized void setAsyncDriver(AsyncDockerDriver asyncDriver) {
+        this.asyncDriver = asyncDriver;
+    }
+
+    /**
+     * @return the image puller, built on top of the driver with the default concurrency if not set
+     */
+    public synchronized ImagePuller getImagePuller() {
+        if (imagePuller == null) {
+            imagePuller = new ImagePuller(driver);
+        }
+        return imagePuller;
+    }
+
+    public synchronized void setImagePuller(ImagePuller imagePuller) {
+        this.imagePuller = imagePuller;
+    }
+
 }
@@ -1,23 +1,35 @@
 package fr.treeptik.cloudunit.docker.core;
 
+import com.fasterxml.jackson.databind.ObjectReader;
 import fr.treeptik.cloudunit.docker.model.DockerContainer;
 import fr.treeptik.cloudunit.docker.model.Image;
 import fr.treeptik.cloudunit.docker.model.Network;
 import fr.treeptik.cloudunit.docker.model.Volume;
+import fr.treeptik.cloudunit.dto.DockerEntityResponse;
 import fr.treeptik.cloudunit.dto.DockerResponse;
+import fr.treeptik.cloudunit.dto.DockerStreamResponse;
 import fr.treeptik.cloudunit.exception.FatalDockerJSONException;
 
+import org.apache.http.pool.PoolStats;
+
+import java.io.Closeable;
 import java.io.IOException;
 
 /**
  * Created by nicolas on 03/08/2016.
  */
-public interface DockerDriver {
+public interface DockerDriver extends Closeable {
 
 	DockerResponse find(DockerContainer container) throws FatalDockerJSONException;
 
 	DockerResponse findAll() throws FatalDockerJSONException;
 
+	<T> DockerEntityResponse<T> find(DockerContainer container, ObjectReader reader) throws FatalDockerJSONException;
+
+	<T> DockerEntityResponse<T> findAll(ObjectReader reader) throws FatalDockerJSONException;
+
+	DockerStreamResponse events(Long since) throws FatalDockerJSONException;
+
 	DockerResponse create(DockerContainer container) throws FatalDockerJSONException;
 
 	DockerResponse start(DockerContainer container) throws FatalDockerJSONException;
@@ -34,6 +46,8 @@ public interface DockerDriver {
 
 	DockerResponse pull(String tag, String repository) throws FatalDockerJSONException;
 
+	DockerStreamResponse pullStream(String tag, String repository) throws FatalDockerJSONException;
+
 	DockerResponse removeImage(Image image) throws FatalDockerJSONException;
 
 	DockerResponse createVolume(Volume volume) throws FatalDockerJSONException;
@@ -51,4 +65,9 @@ public interface DockerDriver {
     DockerResponse connectToNetwork(Network network, String containerId) throws FatalDockerJSONException;
 
     DockerResponse removeNetwork(Network network) throws FatalDockerJSONException;
+
+    /**
+     * Statistics of the connection pool used to reach the Docker daemon
+     */
+    PoolStats getPoolStats();
 }
@@ -0,0 +1,13 @@
+package fr.treeptik.cloudunit.docker.core;
+
+import fr.treeptik.cloudunit.docker.model.DockerEvent;
+
+/**
+ * Callback of a {@link DockerEventSubscriber}, invoked on the subscriber thread for each event received.
+ */
+@FunctionalInterface
+public interface DockerEventHandler {
+
+	void onEvent(DockerEvent event);
+
+}
@@ -0,0 +1,158 @@
+package fr.treeptik.cloudunit.docker.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import fr.treeptik.cloudunit.docker.model.DockerEvent;
+import fr.treeptik.cloudunit.dto.DockerStreamResponse;
+
+/**
+ * Long-lived subscription to the Docker /events stream of the container objects.
+ * Events are decoded one by one as they arrive and handed to the handler on a dedicated thread.
+ * When the stream is broken the subscriber reconnects with a bounded backoff and asks the daemon
+ * to replay the events since the second of the last one received. The replayed events of that second
+ * already handled are skipped by their timeNano.
+ */
+public class DockerEventSubscriber implements Closeable {
+
+    private static final long MIN_BACKOFF_MILLIS = 500;
+
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private Logger logger = LoggerFactory.getLogger(DockerEventSubscriber.class);
+
+    private final ObjectReader eventReader = new ObjectMapper().readerFor(DockerEvent.class);
+
+    private final DockerDriver driver;
+
+    private final DockerEventHandler handler;
+
+    private final Set<String> actions;
+
+    private volatile boolean running;
+
+    private volatile DockerStreamResponse stream;
+
+    private volatile Long since;
+
+    private volatile Long lastTimeNano;
+
+    private Thread thread;
+
+    /**
+     * @param driver
+     * @param handler
+     * @param actions container actions to forward (start, die, oom, health_status...), all if empty
+     */
+    public DockerEventSubscriber(DockerDriver driver, DockerEventHandler handler, String... actions) {
+        this.driver = driver;
+        this.handler = handler;
+        this.actions = new HashSet<>(Arrays.asList(actions));
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::listen, "docker-events");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Subscribed to docker events : " + actions);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        long backoff = MIN_BACKOFF_MILLIS;
+        while (running) {
+            try (DockerStreamResponse response = driver.events(since)) {
+                stream = response;
+                if (response.getStatus() != 200) {
+                    throw new IOException("Docker events stream refused with status " + response.getStatus()
+                            + " : " + response.readBody());
+                }
+                backoff = MIN_BACKOFF_MILLIS;
+                MappingIterator<DockerEvent> events = eventReader.readValues(response.getContent());
+                while (running && events.hasNextValue()) {
+                    dispatch(events.nextValue());
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                logger.warn("Docker events stream interrupted, reconnecting in " + backoff + " ms : " + e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            } finally {
+                stream = null;
+            }
+        }
+    }
+
+    private void dispatch(DockerEvent event) {
+        if (event.getTimeNano() != null) {
+            if (lastTimeNano != null && event.getTimeNano() <= lastTimeNano) {
+                return;
+            }
+            lastTimeNano = event.getTimeNano();
+        }
+        if (event.getTime() != null) {
+            since = event.getTime();
+        }
+        if (!"container".equals(event.getType()) && event.getType() != null) {
+            return;
+        }
+        String action = event.getAction();
+        if (action == null) {
+            return;
+        }
+        // health events are sent as "health_status: healthy"
+        int separator = action.indexOf(':');
+        String name = separator > 0 ? action.substring(0, separator) : action;
+        if (!actions.isEmpty() && !actions.contains(name)) {
+            return;
+        }
+        try {
+            handler.onEvent(event);
+        } catch (RuntimeException e) {
+            logger.error("Error while handling " + event, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        Thread current;
+        synchronized (this) {
+            running = false;
+            current = thread;
+            thread = null;
+        }
+        DockerStreamResponse response = stream;
+        if (response != null) {
+            response.close();
+        }
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,180 @@
+package fr.treeptik.cloudunit.docker.core;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import fr.treeptik.cloudunit.docker.model.PullProgress;
+import fr.treeptik.cloudunit.dto.DockerStreamResponse;
+import fr.treeptik.cloudunit.exception.DockerJSONException;
+
+/**
+ * Progress of an image pull started by an {@link ImagePuller}.
+ * The last message of every layer is kept so that the progress can be read at any time, and the
+ * future completes when the image is pulled, fails with a {@link DockerJSONException} or is cancelled.
+ */
+public class ImagePull {
+
+    private Logger logger = LoggerFactory.getLogger(ImagePull.class);
+
+    private final String repository;
+
+    private final String tag;
+
+    private final Map<String, PullProgress> layers = new LinkedHashMap<>();
+
+    private final List<PullProgressListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    private volatile String status = "Queued";
+
+    private volatile String error;
+
+    private volatile DockerStreamResponse stream;
+
+    public ImagePull(String repository, String tag) {
+        this.repository = repository;
+        this.tag = tag;
+    }
+
+    public String getImage() {
+        return repository + ":" + tag;
+    }
+
+    public String getRepository() {
+        return repository;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * @return the last message of each layer, in the order the daemon announced them
+     */
+    public synchronized Map<String, PullProgress> getLayers() {
+        return new LinkedHashMap<>(layers);
+    }
+
+    public synchronized int getLayerCount() {
+        return layers.size();
+    }
+
+    /**
+     * @return number of layers extracted or already present on the host
+     */
+    public synchronized int getCompletedLayerCount() {
+        return (int) layers.values().stream()
+                .filter(p -> "Pull complete".equals(p.getStatus()) || "Already exists".equals(p.getStatus()))
+                .count();
+    }
+
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    public boolean isCancelled() {
+        return future.isCancelled();
+    }
+
+    @JsonIgnore
+    public CompletableFuture<Void> getFuture() {
+        return future;
+    }
+
+    public void addListener(PullProgressListener listener) {
+        if (listener != null) {
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * Stop the pull : a queued pull is never sent, a running one has its stream closed.
+     * The layers already downloaded stay on the host.
+     *
+     * @return false if the pull was already done
+     */
+    public boolean cancel() {
+        if (future.isDone() || !future.cancel(false)) {
+            return false;
+        }
+        status = "Cancelled";
+        closeStream();
+        return true;
+    }
+
+    /**
+     * @param stream
+     * @return false if the pull was cancelled meanwhile and the stream must not be read
+     */
+    boolean attach(DockerStreamResponse stream) {
+        this.stream = stream;
+        status = "Pulling";
+        return !future.isDone();
+    }
+
+    void update(PullProgress progress) {
+        synchronized (this) {
+            if (progress.isLayer()) {
+                layers.put(progress.getId(), progress);
+            } else if (progress.getStatus() != null) {
+                status = progress.getStatus();
+            }
+        }
+        for (PullProgressListener listener : listeners) {
+            try {
+                listener.onProgress(this, progress);
+            } catch (RuntimeException e) {
+                logger.warn("Pull progress listener failed for " + getImage(), e);
+            }
+        }
+    }
+
+    void complete() {
+        status = "Pulled";
+        future.complete(null);
+    }
+
+    void fail(String message, Throwable cause) {
+        if (future.isDone()) {
+            return;
+        }
+        error = message;
+        status = "Failed";
+        future.completeExceptionally(new DockerJSONException("Pull of " + getImage() + " failed : " + message, cause));
+    }
+
+    private void closeStream() {
+        DockerStreamResponse current = stream;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                logger.debug("Cannot close the pull stream of " + getImage(), e);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ImagePull{" + "image='" + getImage() + '\'' + ", status='" + status + '\'' + '}';
+    }
+
+}
@@ -0,0 +1,151 @@
+package fr.treeptik.cloudunit.docker.core;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import fr.treeptik.cloudunit.docker.model.PullProgress;
+import fr.treeptik.cloudunit.dto.DockerStreamResponse;
+
+/**
+ * Pull images in the background and report their progress.
+ * The progress stream of /images/create is decoded message by message instead of being buffered, at most
+ * maxConcurrentPulls images are downloaded at the same time and the other ones wait in the queue.
+ * A second request for an image being pulled joins the running pull.
+ */
+public class ImagePuller implements Closeable {
+
+    public static final int DEFAULT_MAX_CONCURRENT_PULLS = 2;
+
+    private static final ObjectReader PROGRESS_READER = new ObjectMapper().readerFor(PullProgress.class);
+
+    private Logger logger = LoggerFactory.getLogger(ImagePuller.class);
+
+    private final DockerDriver driver;
+
+    private final ThreadPoolExecutor executor;
+
+    private final ConcurrentMap<String, ImagePull> pulls = new ConcurrentHashMap<>();
+
+    public ImagePuller(DockerDriver driver) {
+        this(driver, DEFAULT_MAX_CONCURRENT_PULLS);
+    }
+
+    public ImagePuller(DockerDriver driver, int maxConcurrentPulls) {
+        this.driver = driver;
+        this.executor = new ThreadPoolExecutor(maxConcurrentPulls, maxConcurrentPulls, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new DaemonThreadFactory());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @param repository
+     * @param tag
+     * @param listener called for every progress message, may be null
+     * @return the pull of this image, already running or queued
+     */
+    public ImagePull pull(String repository, String tag, PullProgressListener listener) {
+        ImagePull pull = new ImagePull(repository, tag);
+        ImagePull running = pulls.putIfAbsent(pull.getImage(), pull);
+        if (running != null) {
+            running.addListener(listener);
+            return running;
+        }
+        pull.addListener(listener);
+        pull.getFuture().whenComplete((result, e) -> pulls.remove(pull.getImage(), pull));
+        try {
+            executor.execute(() -> run(pull));
+        } catch (RejectedExecutionException e) {
+            pull.fail("the puller is closed", e);
+        }
+        return pull;
+    }
+
+    /**
+     * @param image repository:tag
+     * @return the pull of this image or null if it is not queued or running
+     */
+    public ImagePull getPull(String image) {
+        return pulls.get(image);
+    }
+
+    /**
+     * @return pulls queued or running
+     */
+    public Collection<ImagePull> getPulls() {
+        return new ArrayList<>(pulls.values());
+    }
+
+    public int getMaxConcurrentPulls() {
+        return executor.getMaximumPoolSize();
+    }
+
+    private void run(ImagePull pull) {
+        if (pull.isDone()) {
+            return;
+        }
+        try (DockerStreamResponse stream = driver.pullStream(pull.getTag(), pull.getRepository())) {
+            if (!pull.attach(stream)) {
+                return;
+            }
+            if (stream.getStatus() < 200 || stream.getStatus() >= 300) {
+                pull.fail(stream.readBody(), null);
+                return;
+            }
+            try (MappingIterator<PullProgress> messages = PROGRESS_READER.readValues(stream.getContent())) {
+                while (messages.hasNextValue()) {
+                    PullProgress progress = messages.nextValue();
+                    if (progress.getError() != null) {
+                        pull.fail(progress.getError(), null);
+                        return;
+                    }
+                    pull.update(progress);
+                }
+            }
+            pull.complete();
+            logger.info(pull.getImage() + " pulled");
+        } catch (Exception e) {
+            if (!pull.isCancelled()) {
+                logger.error("Pull of " + pull.getImage() + " failed", e);
+                pull.fail(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Cancel the pulls queued or running and stop the threads. The underlying driver is not closed.
+     */
+    @Override
+    public void close() {
+        pulls.values().forEach(ImagePull::cancel);
+        executor.shutdownNow();
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "docker-pull-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
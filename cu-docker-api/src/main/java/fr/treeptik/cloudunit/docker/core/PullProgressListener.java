@@ -0,0 +1,13 @@
+package fr.treeptik.cloudunit.docker.core;
+
+import fr.treeptik.cloudunit.docker.model.PullProgress;
+
+/**
+ * Callback of an {@link ImagePull}, invoked on the pull thread for each progress message received.
+ */
+@FunctionalInterface
+public interface PullProgressListener {
+
+	void onProgress(ImagePull pull, PullProgress progress);
+
+}
@@ -24,10 +24,13 @@ import java.util.List;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import fr.treeptik.cloudunit.docker.model.Network;
 import fr.treeptik.cloudunit.utils.NamingUtils;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.pool.PoolStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,8 +39,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import fr.treeptik.cloudunit.docker.builders.ImageBuilder;
 import fr.treeptik.cloudunit.docker.model.DockerContainer;
 import fr.treeptik.cloudunit.docker.model.Image;
+import fr.treeptik.cloudunit.docker.model.PullProgress;
 import fr.treeptik.cloudunit.docker.model.Volume;
+import fr.treeptik.cloudunit.dto.DockerEntityResponse;
 import fr.treeptik.cloudunit.dto.DockerResponse;
+import fr.treeptik.cloudunit.dto.DockerStreamResponse;
 import fr.treeptik.cloudunit.exception.FatalDockerJSONException;
 import fr.treeptik.cloudunit.exception.JSONClientException;
 import fr.treeptik.cloudunit.utils.JSONClient;
@@ -46,6 +52,8 @@ public class SimpleDockerDriver implements DockerDriver {
 
     private static Logger logger = LoggerFactory.getLogger(SimpleDockerDriver.class);
 
+    private static final ObjectReader PULL_PROGRESS_READER = new ObjectMapper().readerFor(PullProgress.class);
+
     private JSONClient client;
     private ObjectMapper objectMapper;
     private Boolean isUnixSocket;
@@ -53,12 +61,20 @@ public class SimpleDockerDriver implements DockerDriver {
     private String mode;
 
     public SimpleDockerDriver(Boolean isUnixSocket, String mode, String host, String certPathDirectory) {
+        this(isUnixSocket, mode, host, certPathDirectory, JSONClient.DEFAULT_MAX_TOTAL_CONNECTIONS,
+                JSONClient.DEFAULT_MAX_CONNECTIONS_PER_ROUTE, JSONClient.DEFAULT_IDLE_TIMEOUT_SECONDS);
+    }
+
+    public SimpleDockerDriver(Boolean isUnixSocket, String mode, String host, String certPathDirectory,
+                              int maxTotalConnections, int maxConnectionsPerRoute, int idleTimeoutSeconds) {
         this.isUnixSocket = isUnixSocket;
         this.mode = mode;
         if (isUnixSocket) {
-            client = new JSONClient(isUnixSocket, "/var/run/docker.sock", null);
+            client = new JSONClient(isUnixSocket, "/var/run/docker.sock", null,
+                    maxTotalConnections, maxConnectionsPerRoute, idleTimeoutSeconds);
         } else {
-            client = new JSONClient(isUnixSocket, host, certPathDirectory);
+            client = new JSONClient(isUnixSocket, host, certPathDirectory,
+                    maxTotalConnections, maxConnectionsPerRoute, idleTimeoutSeconds);
         }
         this.host = host;
         objectMapper = new ObjectMapper();
@@ -107,6 +123,65 @@ public class SimpleDockerDriver implements DockerDriver {
         return dockerResponse;
     }
 
+    @Override
+    public <T> DockerEntityResponse<T> find(DockerContainer container, ObjectReader reader)
+            throws FatalDockerJSONException {
+        URI uri = null;
+        DockerEntityResponse<T> dockerResponse = null;
+        try {
+            uri = new URIBuilder().setScheme(NamingUtils.getProtocolSocket(isUnixSocket, mode)).setHost(host)
+                    .setPath("/containers/" + container.getName() + "/json").build();
+            dockerResponse = client.sendGet(uri, reader);
+        } catch (URISyntaxException | JSONClientException e) {
+            StringBuilder contextError = new StringBuilder(256);
+            contextError.append("uri : " + uri + " - ");
+            contextError.append("server response : " + dockerResponse);
+            logger.error(contextError.toString());
+            throw new FatalDockerJSONException(
+                    "An error has occurred for find a container request due to " + e.getMessage(), e);
+        }
+
+        return dockerResponse;
+    }
+
+    @Override
+    public <T> DockerEntityResponse<T> findAll(ObjectReader reader) throws FatalDockerJSONException {
+        URI uri = null;
+        DockerEntityResponse<T> dockerResponse = null;
+        try {
+            uri = new URIBuilder().setScheme(NamingUtils.getProtocolSocket(isUnixSocket, mode)).setHost(host).setPath("/containers/json").build();
+            dockerResponse = client.sendGet(uri, reader);
+        } catch (URISyntaxException | JSONClientException e) {
+            StringBuilder contextError = new StringBuilder(256);
+            contextError.append("uri : " + uri + " - ");
+            contextError.append("server response : " + dockerResponse);
+            logger.error(contextError.toString());
+            throw new FatalDockerJSONException(
+                    "An error has occurred for find all containers request due to " + e.getMessage(), e);
+        }
+
+        return dockerResponse;
+    }
+
+    @Override
+    public DockerStreamResponse events(Long since) throws FatalDockerJSONException {
+        URI uri = null;
+        try {
+            URIBuilder builder = new URIBuilder().setScheme(NamingUtils.getProtocolSocket(isUnixSocket, mode))
+                    .setHost(host).setPath("/events")
+                    .setParameter("filters", "{\"type\":[\"container\"]}");
+            if (since != null) {
+                builder.setParameter("since", String.valueOf(since));
+            }
+            uri = builder.build();
+            return client.sendGetStream(uri);
+        } catch (URISyntaxException | JSONClientException e) {
+            logger.error("uri : " + uri);
+            throw new FatalDockerJSONException(
+                    "An error has occurred for events request due to " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public DockerResponse create(DockerContainer container) throws FatalDockerJSONException {
         URI uri = null;
@@ -261,25 +336,44 @@ public class SimpleDockerDriver implements DockerDriver {
         return dockerResponse;
     }
 
+    /**
+     * Pull an image and wait for the end of the download. The progress messages are read one by one
+     * and only the last one is kept : the response holds the final status, or the error reported by the
+     * daemon with a 500 status since the daemon answers 200 before the download starts.
+     */
     @Override
     public DockerResponse pull(String tag, String repository) throws FatalDockerJSONException {
+        PullProgress last = null;
+        try (DockerStreamResponse stream = pullStream(tag, repository)) {
+            if (stream.getStatus() < 200 || stream.getStatus() >= 300) {
+                return new DockerResponse(stream.getStatus(), stream.readBody());
+            }
+            try (MappingIterator<PullProgress> messages = PULL_PROGRESS_READER.readValues(stream.getContent())) {
+                while (messages.hasNextValue()) {
+                    last = messages.nextValue();
+                    if (last.getError() != null) {
+                        return new DockerResponse(500, last.getError());
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("pull of " + repository + ":" + tag + " - last message : " + last);
+            throw new FatalDockerJSONException("An error has occurred for pull request due to " + e.getMessage(), e);
+        }
+        return new DockerResponse(200, last != null ? last.getStatus() : "");
+    }
+
+    @Override
+    public DockerStreamResponse pullStream(String tag, String repository) throws FatalDockerJSONException {
         URI uri = null;
-        String body = new String();
-        DockerResponse dockerResponse = null;
         try {
             uri = new URIBuilder().setScheme(NamingUtils.getProtocolSocket(isUnixSocket, mode)).setHost(host).setPath("/images/create")
                     .setParameter("fromImage", repository).setParameter("tag", tag.toLowerCase()).build();
-            dockerResponse = client.sendPostToRegistryHost(uri, "", "application/json");
-            dockerResponse = client.sendPost(uri, "", "application/json");
+            return client.sendPostToRegistryHostStream(uri, "", "application/json");
         } catch (URISyntaxException | JSONClientException e) {
-            StringBuilder contextError = new StringBuilder(256);
-            contextError.append("uri : " + uri + " - ");
-            contextError.append("request body : " + body + " - ");
-            contextError.append("server response : " + dockerResponse);
-            logger.error(contextError.toString());
+            logger.error("uri : " + uri);
             throw new FatalDockerJSONException("An error has occurred for pull request due to " + e.getMessage(), e);
         }
-        return dockerResponse;
     }
 
     @Override
@@ -474,6 +568,16 @@ public class SimpleDockerDriver implements DockerDriver {
         return dockerResponse;
     }
 
+    @Override
+    public PoolStats getPoolStats() {
+        return client.getPoolStats();
+    }
+
+    @Override
+    public void close() throws IOException {
+        client.close();
+    }
+
     public JSONClient getClient() {
         return client;
     }
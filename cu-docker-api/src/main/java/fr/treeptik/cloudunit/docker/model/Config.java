@@ -93,6 +93,9 @@ public class Config implements Serializable {
 	@JsonProperty("WorkingDir")
 	private String workingDir;
 
+	@JsonProperty("Healthcheck")
+	private Healthcheck healthcheck;
+
 	public Boolean getAttachStdin() {
 		return attachStdin;
 	}
@@ -300,4 +303,12 @@ public class Config implements Serializable {
 	public void setWorkingDir(String workingDir) {
 		this.workingDir = workingDir;
 	}
+
+	public Healthcheck getHealthcheck() {
+		return healthcheck;
+	}
+
+	public void setHealthcheck(Healthcheck healthcheck) {
+		this.healthcheck = healthcheck;
+	}
 }
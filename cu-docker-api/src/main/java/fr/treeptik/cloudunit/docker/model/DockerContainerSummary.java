@@ -0,0 +1,16 @@
+package fr.treeptik.cloudunit.docker.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Jackson mix-in used as a projection of {@link DockerContainer} : only the fields read by CloudUnit
+ * (Id, Name, State, NetworkSettings, Volumes) are bound, every other subtree of the inspect
+ * response is skipped by the parser without being materialized.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true, value = { "Config", "HostConfig", "AppArmorProfile", "Args", "Created",
+		"Driver", "ExecDriver", "ExecIDs", "HostnamePath", "HostsPath", "LogPath", "Image", "ImageID", "MountLabel",
+		"Path", "ProcessLabel", "ResolvConfPath", "RestartCount", "VolumesRW", "Command", "Labels", "Ports",
+		"Status", "GraphDriver", "Mounts" })
+public abstract class DockerContainerSummary {
+
+}
@@ -0,0 +1,43 @@
+package fr.treeptik.cloudunit.docker.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+
+/**
+ * Result of the healthcheck of a container, the log of the last runs is not read.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Health implements Serializable {
+
+	public static final String STARTING = "starting";
+
+	public static final String HEALTHY = "healthy";
+
+	public static final String UNHEALTHY = "unhealthy";
+
+	private static final long serialVersionUID = 1L;
+
+	@JsonProperty("Status")
+	private String status;
+
+	@JsonProperty("FailingStreak")
+	private Integer failingStreak;
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public Integer getFailingStreak() {
+		return failingStreak;
+	}
+
+	public void setFailingStreak(Integer failingStreak) {
+		this.failingStreak = failingStreak;
+	}
+}
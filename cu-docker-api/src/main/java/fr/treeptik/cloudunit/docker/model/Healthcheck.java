@@ -0,0 +1,61 @@
+package fr.treeptik.cloudunit.docker.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Healthcheck of a container : the daemon runs the test itself and reports the result in State.Health
+ * and in the health_status events. Durations are in nanoseconds.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Healthcheck implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@JsonProperty("Test")
+	private List<String> test;
+
+	@JsonProperty("Interval")
+	private Long interval;
+
+	@JsonProperty("Timeout")
+	private Long timeout;
+
+	@JsonProperty("Retries")
+	private Integer retries;
+
+	public List<String> getTest() {
+		return test;
+	}
+
+	public void setTest(List<String> test) {
+		this.test = test;
+	}
+
+	public Long getInterval() {
+		return interval;
+	}
+
+	public void setInterval(Long interval) {
+		this.interval = interval;
+	}
+
+	public Long getTimeout() {
+		return timeout;
+	}
+
+	public void setTimeout(Long timeout) {
+		this.timeout = timeout;
+	}
+
+	public Integer getRetries() {
+		return retries;
+	}
+
+	public void setRetries(Integer retries) {
+		this.retries = retries;
+	}
+}
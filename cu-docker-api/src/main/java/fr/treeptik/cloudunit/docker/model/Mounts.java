@@ -48,6 +48,14 @@ public class Mounts implements Serializable {
 				+ '\'' + ", readWrite=" + readWrite + '}';
 	}
 
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
 	public String getSource() {
 		return source;
 	}
@@ -0,0 +1,121 @@
+package fr.treeptik.cloudunit.docker.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+
+/**
+ * One message of the Docker /images/create progress stream.
+ * Layer messages carry the layer id, the image level messages (Pulling from, Digest, Status) do not.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PullProgress implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@JsonProperty("id")
+	private String id;
+
+	@JsonProperty("status")
+	private String status;
+
+	@JsonProperty("progress")
+	private String progress;
+
+	@JsonProperty("progressDetail")
+	private ProgressDetail progressDetail;
+
+	@JsonProperty("error")
+	private String error;
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public String getProgress() {
+		return progress;
+	}
+
+	public void setProgress(String progress) {
+		this.progress = progress;
+	}
+
+	public ProgressDetail getProgressDetail() {
+		return progressDetail;
+	}
+
+	public void setProgressDetail(ProgressDetail progressDetail) {
+		this.progressDetail = progressDetail;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public void setError(String error) {
+		this.error = error;
+	}
+
+	/**
+	 * @return true if the message is about a layer rather than the whole image
+	 */
+	public boolean isLayer() {
+		return id != null && status != null && !status.startsWith("Pulling from");
+	}
+
+	public long getCurrent() {
+		return progressDetail != null && progressDetail.getCurrent() != null ? progressDetail.getCurrent() : 0;
+	}
+
+	public long getTotal() {
+		return progressDetail != null && progressDetail.getTotal() != null ? progressDetail.getTotal() : 0;
+	}
+
+	@Override
+	public String toString() {
+		return "PullProgress{" + "id='" + id + '\'' + ", status='" + status + '\'' + ", progress='" + progress + '\''
+				+ ", error='" + error + '\'' + '}';
+	}
+
+	@JsonIgnoreProperties(ignoreUnknown = true)
+	public static class ProgressDetail implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		@JsonProperty("current")
+		private Long current;
+
+		@JsonProperty("total")
+		private Long total;
+
+		public Long getCurrent() {
+			return current;
+		}
+
+		public void setCurrent(Long current) {
+			this.current = current;
+		}
+
+		public Long getTotal() {
+			return total;
+		}
+
+		public void setTotal(Long total) {
+			this.total = total;
+		}
+	}
+
+}
@@ -46,6 +46,9 @@ public class State implements Serializable {
 	@JsonProperty("Status")
 	private String status;
 
+	@JsonProperty("Health")
+	private Health health;
+
 	public String getError() {
 		return error;
 	}
@@ -125,4 +128,23 @@ public class State implements Serializable {
 	public void setDead(Boolean dead) {
 		this.dead = dead;
 	}
-}
\ No newline at end of file
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	/**
+	 * @return the healthcheck result, null if the container has no healthcheck
+	 */
+	public Health getHealth() {
+		return health;
+	}
+
+	public void setHealth(Health health) {
+		this.health = health;
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2015
+ *
+ * LICENCE : CloudUnit is available under the GNU Affero General Public License : https://gnu.org/licenses/agpl.html
+ * but CloudUnit is licensed too under a standard commercial license.
+ * Please contact our sales team if you would like to discuss the specifics of our Enterprise license.
+ * If you are not sure whether the AGPL is right for you,
+ * you can always test our software under the AGPL and inspect the source code before you contact us
+ * about purchasing a commercial license.
+ *
+ * LEGAL TERMS : CloudUnit is a registered trademark of Treeptik and cannot be used to endorse
+ * or promote products derived from this project without prior written permission from Treeptik.
+ * Products or services derived from this software may not be called "CloudUnit"
+ * nor may "Treeptik" or similar confusing terms appear in their names without prior written permission.
+ * For any questions, contact us : contact@treeptik.fr
+ */
+
+package fr.treeptik.cloudunit.dto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * Open http response of a long-lived Docker endpoint (events, logs, pull progress...).
+ * The caller reads the content as it arrives and must close the stream when done :
+ * closing aborts the request so that a blocked reader is released immediately.
+ */
+public class DockerStreamResponse implements Closeable {
+
+	private final int status;
+
+	private final HttpRequestBase request;
+
+	private final CloseableHttpResponse response;
+
+	public DockerStreamResponse(int status, HttpRequestBase request, CloseableHttpResponse response) {
+		this.status = status;
+		this.request = request;
+		this.response = response;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public InputStream getContent() throws IOException {
+		HttpEntity entity = response.getEntity();
+		return entity != null ? entity.getContent() : null;
+	}
+
+	/**
+	 * Read the whole content as text, used to report the message of an error response.
+	 *
+	 * @return
+	 * @throws IOException
+	 */
+	public String readBody() throws IOException {
+		HttpEntity entity = response.getEntity();
+		return entity != null ? EntityUtils.toString(entity, "UTF-8") : "";
+	}
+
+	@Override
+	public void close() throws IOException {
+		request.abort();
+		response.close();
+	}
+
+}
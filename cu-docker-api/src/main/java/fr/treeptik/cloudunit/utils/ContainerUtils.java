@@ -4,12 +4,14 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import fr.treeptik.cloudunit.docker.builders.ConfigBuilder;
 import fr.treeptik.cloudunit.docker.builders.ContainerBuilder;
 import fr.treeptik.cloudunit.docker.builders.HostConfigBuilder;
 import fr.treeptik.cloudunit.docker.model.Config;
 import fr.treeptik.cloudunit.docker.model.DockerContainer;
+import fr.treeptik.cloudunit.docker.model.Healthcheck;
 import fr.treeptik.cloudunit.docker.model.HostConfig;
 
 /**
@@ -17,6 +19,23 @@ import fr.treeptik.cloudunit.docker.model.HostConfig;
  */
 public class ContainerUtils {
 
+    /**
+     * Script of every CloudUnit image printing 0 when its service is up
+     */
+    public static final String CHECK_RUNNING_SCRIPT = "/opt/cloudunit/scripts/check-running.sh";
+
+    private static final long HEALTHCHECK_INTERVAL = TimeUnit.SECONDS.toNanos(5);
+
+    private static final long HEALTHCHECK_TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * Failures tolerated before unhealthy : 1 minute for the modules and the web servers, 3 minutes for
+     * the application servers and the standalone runtimes
+     */
+    private static final int HEALTHCHECK_RETRIES = 12;
+
+    private static final int HEALTHCHECK_RETRIES_SLOW_START = 36;
+
     public static DockerContainer newCreateInstance(String name, String imagePath, String imageSubType
             , List<String> volumesFrom, List<String> args, List<String> rawVolumes
             , List<String> envs
@@ -28,7 +47,7 @@ public class ContainerUtils {
         Config config = ConfigBuilder.aConfig().withAttachStdin(Boolean.FALSE).withAttachStdout(Boolean.TRUE)
                 .withHostname(name)
                 .withAttachStderr(Boolean.TRUE).withCmd(args).withImage(imagePath).withHostConfig(hostConfig).withMemory(0L)
-                .withMemorySwap(0L).withEnv(envs).build();
+                .withMemorySwap(0L).withEnv(envs).withHealthcheck(newHealthcheck(imageSubType, args)).build();
         Map<String, String> labels = new HashMap<>();
         if ("webserver".equalsIgnoreCase(imageSubType)) {
             labels.put("traefik.port", "80");
@@ -42,6 +61,35 @@ public class ContainerUtils {
         return container;
     }
 
+    /**
+     * Healthcheck running the check-running script of the image in the container, so that the daemon
+     * reports the readiness in State.Health without any exec from the manager.
+     *
+     * @param imageSubType null for the modules
+     * @param args command of the server : run, user and password, given to the script
+     * @return
+     */
+    public static Healthcheck newHealthcheck(String imageSubType, List<String> args) {
+        StringBuilder command = new StringBuilder(CHECK_RUNNING_SCRIPT);
+        if (args != null && args.size() >= 3 && "run".equals(args.get(0))) {
+            command.append(' ').append(shellQuote(args.get(1))).append(' ').append(shellQuote(args.get(2)));
+        }
+        Healthcheck healthcheck = new Healthcheck();
+        healthcheck.setTest(Arrays.asList("CMD-SHELL", "[ \"$(" + command + ")\" = 0 ]"));
+        healthcheck.setInterval(HEALTHCHECK_INTERVAL);
+        healthcheck.setTimeout(HEALTHCHECK_TIMEOUT);
+        if ("appserver".equalsIgnoreCase(imageSubType) || "standalone".equalsIgnoreCase(imageSubType)) {
+            healthcheck.setRetries(HEALTHCHECK_RETRIES_SLOW_START);
+        } else {
+            healthcheck.setRetries(HEALTHCHECK_RETRIES);
+        }
+        return healthcheck;
+    }
+
+    private static String shellQuote(String value) {
+        return "'" + value.replace("'", "'\\''") + "'";
+    }
+
     public static DockerContainer newStartInstance(String name, List<String> volumesFrom, List<String> volumes,
             Boolean publishAllPorts) {
         HostConfig hostConfig = HostConfigBuilder.aHostConfig().withBinds(volumes).withPrivileged(Boolean.FALSE)
@@ -17,15 +17,17 @@
 
 package fr.treeptik.cloudunit.utils;
 
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.spotify.docker.client.ApacheUnixSocket;
+import fr.treeptik.cloudunit.dto.DockerEntityResponse;
 import fr.treeptik.cloudunit.dto.DockerResponse;
+import fr.treeptik.cloudunit.dto.DockerStreamResponse;
 import fr.treeptik.cloudunit.exception.JSONClientException;
 import jnr.unixsocket.UnixSocketAddress;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.LineIterator;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpHost;
-import org.apache.http.HttpResponse;
-import org.apache.http.client.HttpClient;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpDelete;
@@ -34,9 +36,8 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
 import org.apache.http.conn.ConnectTimeoutException;
-import org.apache.http.conn.HttpClientConnectionManager;
-import org.apache.http.conn.scheme.SchemeSocketFactory;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLContexts;
 import org.apache.http.entity.StringEntity;
@@ -44,19 +45,28 @@ import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
 import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.net.ssl.SSLContext;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringWriter;
 import java.net.*;
 import java.security.GeneralSecurityException;
 import java.security.KeyStore;
+import java.util.concurrent.TimeUnit;
 
-public class JSONClient  {
+public class JSONClient implements Closeable {
+
+    public static final int DEFAULT_MAX_TOTAL_CONNECTIONS = 100;
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 100;
+    public static final int DEFAULT_IDLE_TIMEOUT_SECONDS = 30;
 
     private Logger logger = LoggerFactory.getLogger(JSONClient.class);
 
@@ -64,9 +74,29 @@ public class JSONClient  {
     private String certPathDirectory;
     private File socketFile;
 
+    private int maxTotalConnections;
+    private int maxConnectionsPerRoute;
+    private int idleTimeoutSeconds;
+
+    /**
+     * Long-lived pool shared by every request sent to this Docker endpoint.
+     * Built lazily on first use so that TLS material is loaded only once.
+     */
+    private volatile PoolingHttpClientConnectionManager connectionManager;
+    private volatile CloseableHttpClient httpClient;
+
     public JSONClient(Boolean isUnixSocket, String location, String certPathDirectory) {
+        this(isUnixSocket, location, certPathDirectory, DEFAULT_MAX_TOTAL_CONNECTIONS,
+                DEFAULT_MAX_CONNECTIONS_PER_ROUTE, DEFAULT_IDLE_TIMEOUT_SECONDS);
+    }
+
+    public JSONClient(Boolean isUnixSocket, String location, String certPathDirectory,
+                      int maxTotalConnections, int maxConnectionsPerRoute, int idleTimeoutSeconds) {
         this.certPathDirectory = certPathDirectory;
         this.isUnixSocket = isUnixSocket;
+        this.maxTotalConnections = maxTotalConnections;
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        this.idleTimeoutSeconds = idleTimeoutSeconds;
         if(isUnixSocket && location !=null) {
             try {
                 URI uri = new URI(location);
@@ -87,27 +117,93 @@ public class JSONClient  {
         }
         StringBuilder builder = new StringBuilder();
 
-
         HttpGet httpGet = new HttpGet(uri);
-        HttpResponse response = null;
-        try {
-            CloseableHttpClient httpclient = buildSecureHttpClient();
-            response = httpclient.execute(httpGet);
-            LineIterator iterator = IOUtils.lineIterator(response.getEntity()
-                    .getContent(), "UTF-8");
-            while (iterator.hasNext()) {
-                builder.append(iterator.nextLine());
+        int statusCode;
+        try (CloseableHttpResponse response = buildSecureHttpClient().execute(httpGet)) {
+            statusCode = response.getStatusLine().getStatusCode();
+            if (response.getEntity() != null) {
+                LineIterator iterator = IOUtils.lineIterator(response.getEntity()
+                        .getContent(), "UTF-8");
+                while (iterator.hasNext()) {
+                    builder.append(iterator.nextLine());
+                }
             }
         } catch (IOException e) {
             throw new JSONClientException("Error in sendGet method due to : " + e.getMessage(), e);
         }
         if (logger.isDebugEnabled()) {
-            logger.debug("Status code : " + response.getStatusLine().getStatusCode());
+            logger.debug("Status code : " + statusCode);
             logger.debug("Server response : " + builder.toString());
         }
 
-        return new DockerResponse(response.getStatusLine().getStatusCode(), builder.toString());
+        return new DockerResponse(statusCode, builder.toString());
+
+    }
+
+    /**
+     * Send a get request and decode a successful response directly from the entity stream,
+     * without buffering the whole body as a String. Error responses are still read as text
+     * so that the caller can report the message sent back by the daemon.
+     *
+     * @param uri
+     * @param reader
+     * @return
+     * @throws JSONClientException
+     */
+    public <T> DockerEntityResponse<T> sendGet(URI uri, ObjectReader reader) throws JSONClientException {
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Send a get request to : " + uri);
+        }
+
+        HttpGet httpGet = new HttpGet(uri);
+        int statusCode;
+        T entity = null;
+        String body = "";
+        try (CloseableHttpResponse response = buildSecureHttpClient().execute(httpGet)) {
+            statusCode = response.getStatusLine().getStatusCode();
+            HttpEntity httpEntity = response.getEntity();
+            if (httpEntity != null) {
+                if (statusCode >= 200 && statusCode < 300) {
+                    try (InputStream content = httpEntity.getContent()) {
+                        entity = reader.readValue(content);
+                    }
+                } else {
+                    body = EntityUtils.toString(httpEntity, "UTF-8");
+                }
+            }
+        } catch (IOException e) {
+            throw new JSONClientException("Error in sendGet method due to : " + e.getMessage(), e);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Status code : " + statusCode);
+            logger.debug("Server response : " + body);
+        }
 
+        return new DockerEntityResponse<>(statusCode, body, entity);
+    }
+
+    /**
+     * Open a get request on a streaming endpoint. The connection stays leased until the
+     * returned stream is closed by the caller.
+     *
+     * @param uri
+     * @return
+     * @throws JSONClientException
+     */
+    public DockerStreamResponse sendGetStream(URI uri) throws JSONClientException {
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Open a stream to : " + uri);
+        }
+
+        HttpGet httpGet = new HttpGet(uri);
+        try {
+            CloseableHttpResponse response = buildSecureHttpClient().execute(httpGet);
+            return new DockerStreamResponse(response.getStatusLine().getStatusCode(), httpGet, response);
+        } catch (IOException e) {
+            throw new JSONClientException("Error in sendGetStream method due to : " + e.getMessage(), e);
+        }
     }
 
     public DockerResponse sendPost(URI uri, String body, String contentType) throws JSONClientException {
@@ -118,28 +214,28 @@ public class JSONClient  {
             logger.debug("Content type : " + contentType);
         }
 
-
         HttpPost httpPost = new HttpPost(uri);
         httpPost.addHeader("content-type", contentType);
-        HttpResponse response = null;
+        int statusCode;
         StringWriter writer = new StringWriter();
         try {
-            CloseableHttpClient httpclient = buildSecureHttpClient();
             httpPost.setEntity(new StringEntity(body));
-            response = httpclient.execute(httpPost);
-            if (response.getEntity() != null) {
-                IOUtils.copy(response.getEntity().getContent(), writer, "UTF-8");
+            try (CloseableHttpResponse response = buildSecureHttpClient().execute(httpPost)) {
+                statusCode = response.getStatusLine().getStatusCode();
+                if (response.getEntity() != null) {
+                    IOUtils.copy(response.getEntity().getContent(), writer, "UTF-8");
+                }
             }
         } catch (IOException e) {
             throw new JSONClientException("Error in sendPost method due to : " + e.getMessage(), e);
         }
 
         if (logger.isDebugEnabled()) {
-            logger.debug("Status code : " + response.getStatusLine().getStatusCode());
+            logger.debug("Status code : " + statusCode);
             logger.debug("Server response : " + writer.toString());
         }
 
-        return new DockerResponse(response.getStatusLine().getStatusCode(), writer.toString());
+        return new DockerResponse(statusCode, writer.toString());
     }
 
     public DockerResponse sendPostToRegistryHost(URI uri, String body, String contentType) throws JSONClientException {
@@ -150,7 +246,6 @@ public class JSONClient  {
             logger.debug("Content type : " + contentType);
         }
 
-
         RequestConfig config = RequestConfig.custom()
                 .setSocketTimeout(1000 * 60 * 50)
                 .setConnectTimeout(1000 * 60 * 50).build();
@@ -158,23 +253,56 @@ public class JSONClient  {
         httpPost.setConfig(config);
         httpPost.addHeader("content-type", contentType);
         httpPost.addHeader("X-Registry-Auth", "123");
-        HttpResponse response = null;
+        int statusCode;
         StringWriter writer = new StringWriter();
         try {
-            CloseableHttpClient httpclient = buildSecureHttpClient();
             httpPost.setEntity(new StringEntity(body));
-            response = httpclient.execute(httpPost);
-            IOUtils.copy(response.getEntity().getContent(), writer, "UTF-8");
+            try (CloseableHttpResponse response = buildSecureHttpClient().execute(httpPost)) {
+                statusCode = response.getStatusLine().getStatusCode();
+                if (response.getEntity() != null) {
+                    IOUtils.copy(response.getEntity().getContent(), writer, "UTF-8");
+                }
+            }
         } catch (IOException e) {
             throw new JSONClientException("Error in sendPostToRegistryHost method due to : " + e.getMessage(), e);
         }
 
         if (logger.isDebugEnabled()) {
-            logger.debug("Status code : " + response.getStatusLine().getStatusCode());
+            logger.debug("Status code : " + statusCode);
             logger.debug("Server response : " + writer.toString());
         }
 
-        return new DockerResponse(response.getStatusLine().getStatusCode(), writer.toString());
+        return new DockerResponse(statusCode, writer.toString());
+    }
+
+    /**
+     * Send a post request to a registry endpoint of the daemon (image pull...) and return the response
+     * without reading it, so that the progress messages can be consumed as they arrive.
+     * The caller must close the stream.
+     *
+     * @param uri
+     * @param body
+     * @param contentType
+     * @return
+     * @throws JSONClientException
+     */
+    public DockerStreamResponse sendPostToRegistryHostStream(URI uri, String body, String contentType)
+            throws JSONClientException {
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Open a post stream to : " + uri);
+        }
+
+        HttpPost httpPost = new HttpPost(uri);
+        httpPost.addHeader("content-type", contentType);
+        httpPost.addHeader("X-Registry-Auth", "123");
+        try {
+            httpPost.setEntity(new StringEntity(body));
+            CloseableHttpResponse response = buildSecureHttpClient().execute(httpPost);
+            return new DockerStreamResponse(response.getStatusLine().getStatusCode(), httpPost, response);
+        } catch (IOException e) {
+            throw new JSONClientException("Error in sendPostToRegistryHostStream method due to : " + e.getMessage(), e);
+        }
     }
 
     public DockerResponse sendDelete(URI uri, Boolean httpRequired) throws JSONClientException {
@@ -182,42 +310,85 @@ public class JSONClient  {
         if (logger.isDebugEnabled()) {
             logger.debug("Send a delete request to : " + uri);
         }
-        CloseableHttpResponse response = null;
-        try {
-            CloseableHttpClient httpClient = buildSecureHttpClient();
-            HttpDelete httpDelete = new HttpDelete(uri);
-            response = httpClient.execute(httpDelete);
+        int statusCode;
+        HttpDelete httpDelete = new HttpDelete(uri);
+        try (CloseableHttpResponse response = buildSecureHttpClient().execute(httpDelete)) {
+            statusCode = response.getStatusLine().getStatusCode();
+            // Release the connection to the pool
+            EntityUtils.consume(response.getEntity());
         } catch (IOException e) {
             throw new JSONClientException("Error in sendDelete method due to : " + e.getMessage(), e);
         }
 
         if (logger.isDebugEnabled()) {
-            logger.debug("Status code : " + response.getStatusLine().getStatusCode());
+            logger.debug("Status code : " + statusCode);
         }
 
-        return new DockerResponse(response.getStatusLine().getStatusCode(), "");
+        return new DockerResponse(statusCode, "");
     }
 
+    /**
+     * Return the shared http client for this Docker endpoint.
+     * The client must not be closed by callers : it is released with {@link #close()}.
+     *
+     * @return
+     * @throws IOException
+     */
     public CloseableHttpClient buildSecureHttpClient() throws IOException {
-        if(isUnixSocket){
-            HttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(getUnixSocketFactoryRegistry());
-            HttpClientBuilder builder = HttpClients.custom();
-            builder.setConnectionManager(manager);
-            return builder.build();
-        } else if (certPathDirectory != null && !certPathDirectory.isEmpty()) {
-            org.apache.http.impl.client.HttpClientBuilder builder = HttpClients.custom();
-            HttpClientConnectionManager manager = getConnectionFactory(this.certPathDirectory, 10);
-            builder.setConnectionManager(manager);
-            return builder.build();
-        } else {
-            return HttpClients.createDefault();
+        CloseableHttpClient client = httpClient;
+        if (client == null) {
+            synchronized (this) {
+                client = httpClient;
+                if (client == null) {
+                    connectionManager = new PoolingHttpClientConnectionManager(getSocketFactoryRegistry());
+                    connectionManager.setMaxTotal(maxTotalConnections);
+                    connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+                    HttpClientBuilder builder = HttpClients.custom()
+                            .setConnectionManager(connectionManager)
+                            .evictExpiredConnections()
+                            .evictIdleConnections(idleTimeoutSeconds, TimeUnit.SECONDS);
+                    client = builder.build();
+                    httpClient = client;
+                    logger.info("Docker connection pool created : maxTotal=" + maxTotalConnections
+                            + ", maxPerRoute=" + maxConnectionsPerRoute + ", idleTimeout=" + idleTimeoutSeconds + "s");
+                }
+            }
         }
+        return client;
     }
 
-    private static HttpClientConnectionManager getConnectionFactory(String certPath, int maxConnections) throws IOException {
-        PoolingHttpClientConnectionManager ret = new PoolingHttpClientConnectionManager(getSslFactoryRegistry(certPath));
-        ret.setDefaultMaxPerRoute(maxConnections);
-        return ret;
+    /**
+     * Statistics of the connection pool (leased, pending, available, max).
+     *
+     * @return
+     */
+    public PoolStats getPoolStats() {
+        PoolingHttpClientConnectionManager manager = connectionManager;
+        if (manager == null) {
+            return new PoolStats(0, 0, 0, maxTotalConnections);
+        }
+        return manager.getTotalStats();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+            httpClient = null;
+            connectionManager = null;
+        }
+    }
+
+    private Registry<ConnectionSocketFactory> getSocketFactoryRegistry() throws IOException {
+        if (isUnixSocket) {
+            return getUnixSocketFactoryRegistry();
+        } else if (certPathDirectory != null && !certPathDirectory.isEmpty()) {
+            return getSslFactoryRegistry(certPathDirectory);
+        } else {
+            return RegistryBuilder.<ConnectionSocketFactory>create()
+                    .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                    .register("https", SSLConnectionSocketFactory.getSocketFactory()).build();
+        }
     }
 
     private Registry<ConnectionSocketFactory> getUnixSocketFactoryRegistry() throws IOException {
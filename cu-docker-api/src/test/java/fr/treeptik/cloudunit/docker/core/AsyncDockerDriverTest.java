@@ -0,0 +1,94 @@
+package fr.treeptik.cloudunit.docker.core;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import fr.treeptik.cloudunit.docker.builders.ContainerBuilder;
+import fr.treeptik.cloudunit.docker.model.DockerContainer;
+import fr.treeptik.cloudunit.exception.ErrorDockerJSONException;
+
+/**
+ * Check that asynchronous requests run in parallel within the in flight limit.
+ */
+public class AsyncDockerDriverTest {
+
+    private HttpServer server;
+
+    private DockerCloudUnitClient dockerCloudUnitClient;
+
+    private AtomicInteger running = new AtomicInteger();
+
+    private AtomicInteger maxRunning = new AtomicInteger();
+
+    @Before
+    public void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/containers/", exchange -> {
+            int current = running.incrementAndGet();
+            maxRunning.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            boolean unknown = exchange.getRequestURI().getPath().contains("unknown");
+            byte[] body = (unknown ? "no such container" : "{\"Id\":\"0123456789abcdef\",\"Name\":\"/c\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(unknown ? 404 : 200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+        dockerCloudUnitClient = new DockerCloudUnitClient();
+        dockerCloudUnitClient.setDriver(
+                new SimpleDockerDriver(false, "http", "localhost:" + server.getAddress().getPort(), null));
+        dockerCloudUnitClient.setAsyncDriver(new AsyncDockerDriver(dockerCloudUnitClient.getDriver(), 2));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        dockerCloudUnitClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void test_requestsAreBoundedAndComposable() throws Exception {
+        List<CompletableFuture<DockerContainer>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            futures.add(dockerCloudUnitClient
+                    .findContainerSummaryAsync(ContainerBuilder.aContainer().withName("c" + i).build()));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        futures.forEach(f -> Assert.assertEquals("0123456789abcdef", f.join().getId()));
+        Assert.assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    public void test_apiErrorCompletesExceptionally() throws Exception {
+        CompletableFuture<DockerContainer> future = dockerCloudUnitClient
+                .findContainerAsync(ContainerBuilder.aContainer().withName("unknown").build());
+        try {
+            future.join();
+            Assert.fail();
+        } catch (CompletionException e) {
+            Assert.assertTrue(e.getCause() instanceof ErrorDockerJSONException);
+        }
+    }
+}
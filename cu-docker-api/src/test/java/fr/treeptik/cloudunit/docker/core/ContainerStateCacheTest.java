@@ -0,0 +1,91 @@
+package fr.treeptik.cloudunit.docker.core;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import fr.treeptik.cloudunit.docker.model.DockerContainer;
+import fr.treeptik.cloudunit.docker.model.DockerEvent;
+
+/**
+ * Check the read-through, eviction and expiration of the container state cache.
+ */
+public class ContainerStateCacheTest {
+
+    private HttpServer server;
+
+    private DockerCloudUnitClient dockerCloudUnitClient;
+
+    private AtomicInteger inspections = new AtomicInteger();
+
+    @Before
+    public void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/containers/", exchange -> {
+            inspections.incrementAndGet();
+            byte[] body = ("{\"Id\":\"0123456789abcdef\",\"Name\":\"/myContainer\","
+                    + "\"State\":{\"Running\":true,\"Status\":\"running\"}}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+        dockerCloudUnitClient = new DockerCloudUnitClient();
+        dockerCloudUnitClient.setDriver(
+                new SimpleDockerDriver(false, "http", "localhost:" + server.getAddress().getPort(), null));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        dockerCloudUnitClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void test_readThroughByNameAndId() throws Exception {
+        ContainerStateCache cache = new ContainerStateCache(dockerCloudUnitClient, 60000);
+        DockerContainer container = cache.findContainer("myContainer");
+        Assert.assertTrue(container.getState().getRunning());
+        Assert.assertSame(container, cache.findContainer("/myContainer"));
+        Assert.assertSame(container, cache.findContainer("0123456789abcdef"));
+        Assert.assertEquals(1, inspections.get());
+        Assert.assertEquals(2, cache.getStatistics().getHits());
+        Assert.assertEquals(1, cache.getStatistics().getMisses());
+    }
+
+    @Test
+    public void test_eventEvictsEveryKey() throws Exception {
+        ContainerStateCache cache = new ContainerStateCache(dockerCloudUnitClient, 60000);
+        cache.findContainer("myContainer");
+        DockerEvent.Actor actor = new DockerEvent.Actor();
+        actor.setId("0123456789abcdef");
+        actor.setAttributes(Collections.singletonMap("name", "myContainer"));
+        DockerEvent event = new DockerEvent();
+        event.setAction("die");
+        event.setActor(actor);
+        cache.onEvent(event);
+        Assert.assertEquals(0, cache.getStatistics().getSize());
+        cache.findContainer("0123456789abcdef");
+        Assert.assertEquals(2, inspections.get());
+    }
+
+    @Test
+    public void test_expiredEntryIsReloaded() throws Exception {
+        ContainerStateCache cache = new ContainerStateCache(dockerCloudUnitClient, 0);
+        cache.findContainer("myContainer");
+        Thread.sleep(5);
+        cache.findContainer("myContainer");
+        Assert.assertEquals(2, inspections.get());
+        Assert.assertEquals(2, cache.getStatistics().getMisses());
+    }
+}
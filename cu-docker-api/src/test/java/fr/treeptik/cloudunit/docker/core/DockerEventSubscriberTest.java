@@ -0,0 +1,104 @@
+package fr.treeptik.cloudunit.docker.core;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import fr.treeptik.cloudunit.docker.model.DockerEvent;
+
+/**
+ * Check the decoding, filtering and reconnection of the docker events subscription.
+ */
+public class DockerEventSubscriberTest {
+
+    private static final String EVENTS = "{\"Type\":\"container\",\"Action\":\"create\",\"Actor\":{\"ID\":\"a1\",\"Attributes\":{\"name\":\"c1\"}},\"time\":100}\n"
+            + "{\"Type\":\"container\",\"Action\":\"start\",\"Actor\":{\"ID\":\"a1\",\"Attributes\":{\"name\":\"c1\"}},\"time\":101}\n"
+            + "{\"Type\":\"network\",\"Action\":\"connect\",\"Actor\":{\"ID\":\"n1\",\"Attributes\":{\"name\":\"skynet\"}},\"time\":102}\n"
+            + "{\"Type\":\"container\",\"Action\":\"health_status: healthy\",\"Actor\":{\"ID\":\"a1\",\"Attributes\":{\"name\":\"c1\"}},\"time\":103}\n";
+
+    private static final String START = "{\"Type\":\"container\",\"Action\":\"start\",\"Actor\":{\"ID\":\"a1\",\"Attributes\":{\"name\":\"c1\"}},\"time\":101,\"timeNano\":101000000001}\n";
+
+    private static final String DIE = "{\"Type\":\"container\",\"Action\":\"die\",\"Actor\":{\"ID\":\"a1\",\"Attributes\":{\"name\":\"c1\"}},\"time\":101,\"timeNano\":101000000002}\n";
+
+    private HttpServer server;
+
+    private volatile String events = EVENTS;
+
+    private volatile String replayedEvents = EVENTS;
+
+    private SimpleDockerDriver driver;
+
+    private List<String> queries = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/events", exchange -> {
+            queries.add(exchange.getRequestURI().getRawQuery());
+            byte[] body = (queries.size() == 1 ? events : replayedEvents).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+        driver = new SimpleDockerDriver(false, "http", "localhost:" + server.getAddress().getPort(), null);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        driver.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void test_onlySubscribedContainerActionsAreDispatched() throws Exception {
+        List<DockerEvent> events = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(4);
+        try (DockerEventSubscriber subscriber = new DockerEventSubscriber(driver, e -> {
+            events.add(e);
+            latch.countDown();
+        }, "start", "die", "health_status")) {
+            subscriber.start();
+            Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        }
+        Assert.assertEquals("start", events.get(0).getAction());
+        Assert.assertEquals("c1", events.get(0).getContainerName());
+        Assert.assertEquals("a1", events.get(0).getId());
+        Assert.assertEquals("health_status: healthy", events.get(1).getAction());
+        // the stream has been reopened from the last event received
+        Assert.assertTrue(queries.size() >= 2);
+        Assert.assertFalse(queries.get(0).contains("since"));
+        Assert.assertTrue(queries.get(1).contains("since=103"));
+    }
+
+    @Test
+    public void test_replayedEventsOfTheLastSecondAreSkipped() throws Exception {
+        events = START;
+        // the daemon replays the whole second of the last event
+        replayedEvents = START + DIE;
+        List<DockerEvent> received = new CopyOnWriteArrayList<>();
+        try (DockerEventSubscriber subscriber = new DockerEventSubscriber(driver, received::add, "start", "die")) {
+            subscriber.start();
+            long deadline = System.currentTimeMillis() + 10000;
+            while (queries.size() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+        }
+        Assert.assertTrue(queries.size() >= 3);
+        Assert.assertEquals(2, received.size());
+        Assert.assertEquals("start", received.get(0).getAction());
+        Assert.assertEquals("die", received.get(1).getAction());
+    }
+}
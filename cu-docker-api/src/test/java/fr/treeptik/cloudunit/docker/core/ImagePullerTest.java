@@ -0,0 +1,155 @@
+package fr.treeptik.cloudunit.docker.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import fr.treeptik.cloudunit.docker.model.PullProgress;
+import fr.treeptik.cloudunit.dto.DockerResponse;
+import fr.treeptik.cloudunit.exception.DockerJSONException;
+
+/**
+ * Check that the pull progress is decoded as it arrives, that pulls are bounded and can be cancelled.
+ */
+public class ImagePullerTest {
+
+    private HttpServer server;
+
+    private DockerCloudUnitClient dockerCloudUnitClient;
+
+    private AtomicInteger running = new AtomicInteger();
+
+    private AtomicInteger maxRunning = new AtomicInteger();
+
+    private CountDownLatch endless = new CountDownLatch(1);
+
+    @Before
+    public void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/images/create", exchange -> {
+            int current = running.incrementAndGet();
+            maxRunning.accumulateAndGet(current, Math::max);
+            String image = exchange.getRequestURI().getQuery();
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                write(os, "{\"status\":\"Pulling from cloudunit/tomcat-8\",\"id\":\"latest\"}");
+                write(os, "{\"status\":\"Pulling fs layer\",\"progressDetail\":{},\"id\":\"a1\"}");
+                write(os, "{\"status\":\"Already exists\",\"progressDetail\":{},\"id\":\"b2\"}");
+                write(os, "{\"status\":\"Downloading\",\"progressDetail\":{\"current\":512,\"total\":1024},"
+                        + "\"progress\":\"[=====>     ]\",\"id\":\"a1\"}");
+                if (image.contains("endless")) {
+                    endless.await(10, TimeUnit.SECONDS);
+                } else if (image.contains("broken")) {
+                    write(os, "{\"errorDetail\":{\"message\":\"unexpected EOF\"},\"error\":\"unexpected EOF\"}");
+                } else {
+                    Thread.sleep(50);
+                    write(os, "{\"status\":\"Pull complete\",\"progressDetail\":{},\"id\":\"a1\"}");
+                    write(os, "{\"status\":\"Status: Downloaded newer image for cloudunit/tomcat-8:latest\"}");
+                }
+            } catch (InterruptedException | IOException e) {
+                // client went away
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+        server.start();
+        dockerCloudUnitClient = new DockerCloudUnitClient();
+        dockerCloudUnitClient.setDriver(
+                new SimpleDockerDriver(false, "http", "localhost:" + server.getAddress().getPort(), null));
+        dockerCloudUnitClient.setImagePuller(new ImagePuller(dockerCloudUnitClient.getDriver(), 1));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        endless.countDown();
+        dockerCloudUnitClient.close();
+        server.stop(0);
+    }
+
+    private static void write(OutputStream os, String message) throws IOException {
+        os.write((message + "\r\n").getBytes(StandardCharsets.UTF_8));
+        os.flush();
+    }
+
+    @Test
+    public void test_progressIsReportedPerLayer() throws Exception {
+        List<PullProgress> received = new CopyOnWriteArrayList<>();
+        ImagePull pull = dockerCloudUnitClient.pullImage("latest", "cloudunit/tomcat-8",
+                (p, progress) -> received.add(progress));
+        pull.getFuture().get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(6, received.size());
+        Assert.assertEquals(512, received.get(3).getCurrent());
+        Assert.assertEquals(1024, received.get(3).getTotal());
+        Assert.assertEquals("Pulled", pull.getStatus());
+        Assert.assertEquals(2, pull.getLayerCount());
+        Assert.assertEquals(2, pull.getCompletedLayerCount());
+        Assert.assertNull(dockerCloudUnitClient.getImagePuller().getPull("cloudunit/tomcat-8:latest"));
+    }
+
+    @Test
+    public void test_errorMessageFailsThePull() throws Exception {
+        ImagePull pull = dockerCloudUnitClient.pullImage("latest", "cloudunit/broken", null);
+        try {
+            pull.getFuture().join();
+            Assert.fail("the pull should fail");
+        } catch (CompletionException e) {
+            Assert.assertTrue(e.getCause() instanceof DockerJSONException);
+        }
+        Assert.assertEquals("unexpected EOF", pull.getError());
+    }
+
+    @Test
+    public void test_blockingPullReportsTheError() throws Exception {
+        DockerResponse response = dockerCloudUnitClient.getDriver().pull("latest", "cloudunit/broken");
+        Assert.assertEquals(500, response.getStatus());
+        Assert.assertEquals("unexpected EOF", response.getBody());
+    }
+
+    @Test
+    public void test_pullsAreBoundedAndCoalesced() throws Exception {
+        ImagePull first = dockerCloudUnitClient.pullImage("latest", "cloudunit/tomcat-8", null);
+        ImagePull same = dockerCloudUnitClient.pullImage("latest", "cloudunit/tomcat-8", null);
+        ImagePull second = dockerCloudUnitClient.pullImage("latest", "cloudunit/tomcat-7", null);
+        Assert.assertSame(first, same);
+        first.getFuture().get(5, TimeUnit.SECONDS);
+        second.getFuture().get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    public void test_cancelReleasesARunningPull() throws Exception {
+        List<PullProgress> received = new CopyOnWriteArrayList<>();
+        CountDownLatch started = new CountDownLatch(1);
+        ImagePull pull = dockerCloudUnitClient.pullImage("latest", "cloudunit/endless", (p, progress) -> {
+            received.add(progress);
+            started.countDown();
+        });
+        ImagePull queued = dockerCloudUnitClient.pullImage("latest", "cloudunit/tomcat-8", null);
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Assert.assertTrue(pull.cancel());
+        Assert.assertTrue(pull.isCancelled());
+        Assert.assertEquals("Cancelled", pull.getStatus());
+        // the slot is released for the queued pull long before the endless one would end
+        queued.getFuture().get(5, TimeUnit.SECONDS);
+        Assert.assertFalse(pull.cancel());
+    }
+
+}
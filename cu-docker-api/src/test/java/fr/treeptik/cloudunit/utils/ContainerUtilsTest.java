@@ -0,0 +1,50 @@
+package fr.treeptik.cloudunit.utils;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.treeptik.cloudunit.docker.model.DockerContainer;
+import fr.treeptik.cloudunit.docker.model.Healthcheck;
+import fr.treeptik.cloudunit.docker.model.State;
+
+/**
+ * Check the healthcheck attached to the containers and the reading of its result.
+ */
+public class ContainerUtilsTest {
+
+    @Test
+    public void test_serverHealthcheckGetsTheCredentials() throws Exception {
+        DockerContainer container = ContainerUtils.newCreateInstance("johndoe-app-tomcat-8", "cloudunit/tomcat-8",
+                "APPSERVER", null, Arrays.asList("run", "johndoe", "it's"), null, null, null, "skynet", ".cloudunit.dev");
+        Healthcheck healthcheck = container.getConfig().getHealthcheck();
+
+        Assert.assertEquals(Arrays.asList("CMD-SHELL",
+                "[ \"$(/opt/cloudunit/scripts/check-running.sh 'johndoe' 'it'\\''s')\" = 0 ]"), healthcheck.getTest());
+        Assert.assertEquals(Long.valueOf(5_000_000_000L), healthcheck.getInterval());
+        Assert.assertEquals(Integer.valueOf(36), healthcheck.getRetries());
+    }
+
+    @Test
+    public void test_moduleHealthcheck() throws Exception {
+        DockerContainer container = ContainerUtils.newCreateInstance("johndoe-app-mysql-5-7", "cloudunit/mysql-5-7",
+                null, null, null, null, null, null, "skynet", ".cloudunit.dev");
+        Healthcheck healthcheck = container.getConfig().getHealthcheck();
+
+        Assert.assertEquals(Arrays.asList("CMD-SHELL", "[ \"$(/opt/cloudunit/scripts/check-running.sh)\" = 0 ]"),
+                healthcheck.getTest());
+        Assert.assertEquals(Integer.valueOf(12), healthcheck.getRetries());
+    }
+
+    @Test
+    public void test_healthIsReadFromTheState() throws Exception {
+        State state = new ObjectMapper().readValue("{\"Running\":true,\"Health\":{\"Status\":\"healthy\","
+                + "\"FailingStreak\":0,\"Log\":[{\"ExitCode\":0,\"Output\":\"\"}]}}", State.class);
+        Assert.assertEquals("healthy", state.getHealth().getStatus());
+        Assert.assertNull(new ObjectMapper().readValue("{\"Running\":true}", State.class).getHealth());
+    }
+
+}
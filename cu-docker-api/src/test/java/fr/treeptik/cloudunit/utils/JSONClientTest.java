@@ -0,0 +1,112 @@
+package fr.treeptik.cloudunit.utils;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.http.pool.PoolStats;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sun.net.httpserver.HttpServer;
+
+import fr.treeptik.cloudunit.docker.model.DockerContainer;
+import fr.treeptik.cloudunit.docker.model.DockerContainerSummary;
+import fr.treeptik.cloudunit.dto.DockerEntityResponse;
+import fr.treeptik.cloudunit.dto.DockerResponse;
+
+/**
+ * Check that the connections to the Docker endpoint are pooled and reused.
+ */
+public class JSONClientTest {
+
+    private HttpServer server;
+    private JSONClient client;
+
+    @Before
+    public void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/containers/json", exchange -> {
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.createContext("/containers/myContainer/json", exchange -> {
+            byte[] body = ("{\"Id\":\"0123456789abcdef\",\"Name\":\"/myContainer\","
+                    + "\"State\":{\"Running\":true},\"Config\":{\"Image\":\"busybox\"},"
+                    + "\"NetworkSettings\":{\"IPAddress\":\"172.17.0.2\"}}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.createContext("/containers/unknown/json", exchange -> {
+            byte[] body = "no such container".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(404, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+        client = new JSONClient(false, null, null, 10, 5, 30);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void test_connectionsAreReleasedAndReused() throws Exception {
+        URI uri = new URI("http://localhost:" + server.getAddress().getPort() + "/containers/json");
+        for (int i = 0; i < 20; i++) {
+            DockerResponse response = client.sendGet(uri);
+            Assert.assertEquals(200, response.getStatus());
+            Assert.assertEquals("[]", response.getBody());
+        }
+        PoolStats stats = client.getPoolStats();
+        Assert.assertEquals(0, stats.getLeased());
+        Assert.assertEquals(1, stats.getAvailable());
+        Assert.assertEquals(10, stats.getMax());
+    }
+
+    @Test
+    public void test_sameClientIsShared() throws Exception {
+        Assert.assertSame(client.buildSecureHttpClient(), client.buildSecureHttpClient());
+    }
+
+    @Test
+    public void test_streamingDecodeWithProjection() throws Exception {
+        ObjectReader reader = new ObjectMapper()
+                .addMixIn(DockerContainer.class, DockerContainerSummary.class)
+                .readerFor(DockerContainer.class);
+        URI uri = new URI("http://localhost:" + server.getAddress().getPort() + "/containers/myContainer/json");
+        DockerEntityResponse<DockerContainer> response = client.sendGet(uri, reader);
+        Assert.assertEquals(200, response.getStatus());
+        DockerContainer container = response.getEntity();
+        Assert.assertEquals("0123456789abcdef", container.getId());
+        Assert.assertEquals("/myContainer", container.getName());
+        Assert.assertTrue(container.getState().getRunning());
+        Assert.assertEquals("172.17.0.2", container.getNetworkSettings().getIPAddress());
+        Assert.assertNull(container.getConfig());
+        Assert.assertEquals(0, client.getPoolStats().getLeased());
+    }
+
+    @Test
+    public void test_streamingDecodeKeepsErrorBody() throws Exception {
+        URI uri = new URI("http://localhost:" + server.getAddress().getPort() + "/containers/unknown/json");
+        DockerEntityResponse<DockerContainer> response = client.sendGet(uri,
+                new ObjectMapper().readerFor(DockerContainer.class));
+        Assert.assertEquals(404, response.getStatus());
+        Assert.assertNull(response.getEntity());
+        Assert.assertEquals("no such container", response.getBody());
+    }
+}
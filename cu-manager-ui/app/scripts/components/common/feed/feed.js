@@ -43,7 +43,7 @@
     currentApp = $stateParams.name;
     vm = this;
 
-    vm.messages = {};
+    vm.messages = [];
 
 
     init();
@@ -63,14 +63,25 @@
       vm.context === 'dashboard' ? updateMessages() : updateMessagesForCurrentApplication();
     }
 
+    // Seuls les messages plus récents que le dernier affiché sont lus
+    function lastId() {
+      return vm.messages.length ? vm.messages[0].id : undefined;
+    }
+
+    function prepend(messages) {
+      if (messages.length) {
+        vm.messages = messages.concat(vm.messages).slice(0, 10);
+      }
+      return vm.messages;
+    }
+
     function updateMessages() {
-      FeedService.listMessages()
+      FeedService.listMessages(lastId())
         .then(success)
         .catch(error);
 
       function success(messages) {
-        vm.messages = messages;
-        return vm.messages;
+        return prepend(messages);
       }
 
       function error(response) {
@@ -85,13 +96,12 @@
       if(!currentApp){
         return;
       }
-      FeedService.listMessagesForCurrentApplication(currentApp)
+      FeedService.listMessagesForCurrentApplication(currentApp, lastId())
         .then(success)
         .catch(error);
 
       function success(messages) {
-        vm.messages = messages;
-        return vm.messages;
+        return prepend(messages);
       }
 
       function error(response) {
@@ -31,9 +31,10 @@
     };
 
 
-    function listMessages() {
-      var logs = $resource('messages/rows/10');
-      return logs.query().$promise;
+    // Les messages plus récents que since, les 10 derniers sans since
+    function listMessages(since) {
+      var logs = $resource('messages/feed');
+      return logs.query({since: since, rows: 10}).$promise;
     }
 
     function listMessagesFirstRows() {
@@ -41,10 +42,10 @@
         return logs.query().$promise;
      }
 
-    // Liste de toutes les images qui sont activés quelque soit leur type
-    function listMessagesForCurrentApplication(application) {
-      var logs = $resource('messages/application/' + application + '/rows/10');
-      return logs.query().$promise;
+    // Les messages de l'application plus récents que since, les 10 derniers sans since
+    function listMessagesForCurrentApplication(application, since) {
+      var logs = $resource('messages/application/' + application + '/feed');
+      return logs.query({since: since, rows: 10}).$promise;
     }
   }
 })();
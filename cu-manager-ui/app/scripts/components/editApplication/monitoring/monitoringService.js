@@ -23,12 +23,14 @@
   MonitoringService.$inject = [
     '$http',
     '$interval',
-    '$q'
+    '$q',
+    '$rootScope'
   ];
 
-  function MonitoringService ( $http, $interval, $q ) {
+  function MonitoringService ( $http, $interval, $q, $rootScope ) {
 
     var oneMegabyte = 1024 * 1024;
+    var maxStats = 60;
 
     return {
       stats: {},
@@ -60,6 +62,12 @@
       var self = this;
       self.containerName = containerName;
       return getMachineInfo.call(self).then ( function ( machineInfo ) {
+        if ( window.EventSource ) {
+          if ( !self.source ) {
+            self.source = streamStats.call ( self, machineInfo );
+          }
+          return;
+        }
         updateStats.call (self, machineInfo );
         if ( !self.timer ) {
           self.timer = pollStats.call ( self, machineInfo );
@@ -72,16 +80,54 @@
     function updateStats ( machineInfo ) {
       var self = this;
       return getStats.call (self).then ( function ( stats ) {
-        self.stats.cpuTotalUsage = getCpuTotalUsage( stats );
-        self.stats.cpuUsageBreakdown = getCpuUsageBreakdown ( stats );
-        self.stats.cpuPerCoreUsage  = getCpuPerCoreUsage( machineInfo, stats );
-        self.stats.memoryUsage = getMemoryUsage( stats );
-        self.stats.networkUsage = getNetworkUsage( stats );
-        self.stats.networkErrors = getNetworkErrors ( stats );
-        self.stats.cpuLoad = getCpuLoad( stats, machineInfo );
+        renderStats.call ( self, machineInfo, stats );
       } );
     }
 
+    function renderStats ( machineInfo, stats ) {
+      var self = this;
+      self.stats.cpuTotalUsage = getCpuTotalUsage( stats );
+      self.stats.cpuUsageBreakdown = getCpuUsageBreakdown ( stats );
+      self.stats.cpuPerCoreUsage  = getCpuPerCoreUsage( machineInfo, stats );
+      self.stats.memoryUsage = getMemoryUsage( stats );
+      self.stats.networkUsage = getNetworkUsage( stats );
+      self.stats.networkErrors = getNetworkErrors ( stats );
+      self.stats.cpuLoad = getCpuLoad( stats, machineInfo );
+    }
+
+    // Les nouvelles stats sont poussées par le serveur : l'historique de cAdvisor puis les stats suivantes
+    function streamStats ( machineInfo ) {
+      var self = this;
+      var history;
+      var source = new EventSource ( 'monitoring/stream/containers/docker/' + self.containerName );
+
+      source.addEventListener ( 'init', function ( event ) {
+        history = JSON.parse ( event.data );
+        $rootScope.$applyAsync ( function () {
+          renderStats.call ( self, machineInfo, history );
+        } );
+      } );
+
+      source.addEventListener ( 'stats', function ( event ) {
+        if ( !history ) {
+          return;
+        }
+        var last = history.stats.length ? new Date ( history.stats[history.stats.length - 1].timestamp ) : null;
+        JSON.parse ( event.data ).stats.forEach ( function ( stat ) {
+          if ( !last || new Date ( stat.timestamp ) > last ) {
+            history.stats.push ( stat );
+          }
+        } );
+        // autant de stats que l'historique de cAdvisor
+        history.stats.splice ( 0, Math.max ( 0, history.stats.length - maxStats ) );
+        $rootScope.$applyAsync ( function () {
+          renderStats.call ( self, machineInfo, history );
+        } );
+      } );
+
+      return source;
+    }
+
     function pollStats ( machineInfo ) {
       var self = this;
       return $interval ( function () {
@@ -94,6 +140,10 @@
         $interval.cancel(this.timer);
         this.timer = null;
       }
+      if(this.source){
+        this.source.close();
+        this.source = null;
+      }
     }
 
     function getInterval ( current, previous ) {
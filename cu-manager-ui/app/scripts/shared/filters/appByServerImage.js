@@ -29,10 +29,8 @@ angular.module('webuiApp')
             if(serverImageName) {
                 var res = [];
                 input.forEach(function(element, index) {
-                    if(element.servers) {
-                        if(element.server.image.prefixEnv === serverImageName) {
-                            res.push(element);
-                        }
+                    if(element.serverPrefixEnv === serverImageName) {
+                        res.push(element);
                     }
                 });
                 return res;
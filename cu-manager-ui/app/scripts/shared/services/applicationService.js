@@ -86,9 +86,9 @@ function about () {
     } )
 }
 
-// Liste des applications
+// Liste des applications (résumé affiché par le dashboard)
 function list () {
-    return $http.get ( 'application' ).then ( function ( response ) {
+    return $http.get ( 'application/summary' ).then ( function ( response ) {
         return angular.copy ( response.data );
     } )
 }
@@ -21,7 +21,7 @@ import fr.treeptik.cloudunit.exception.ServiceException;
 import fr.treeptik.cloudunit.model.Application;
 import fr.treeptik.cloudunit.model.User;
 import fr.treeptik.cloudunit.service.ApplicationService;
-import fr.treeptik.cloudunit.service.UserService;
+import fr.treeptik.cloudunit.utils.AuthentificationUtils;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
@@ -44,7 +44,7 @@ public class SecurityAnnotationAspect {
     private final Logger logger = LoggerFactory.getLogger(SecurityAnnotationAspect.class);
 
     @Inject
-    private UserService userService;
+    private AuthentificationUtils authentificationUtils;
 
     @Inject
     private ApplicationService applicationService;
@@ -56,7 +56,7 @@ public class SecurityAnnotationAspect {
         JsonInput jsonInput = null;
         try {
             principal = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-            User user = userService.findByLogin(principal.getUsername());
+            User user = authentificationUtils.getAuthentificatedUser();
 
             if (joinPoint.getArgs() == null) {
                 logger.error("Error on annotation aspect : " + joinPoint.getStaticPart().getSignature());
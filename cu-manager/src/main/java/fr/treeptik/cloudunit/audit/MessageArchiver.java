@@ -0,0 +1,299 @@
+package fr.treeptik.cloudunit.audit;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.treeptik.cloudunit.dao.MessageDAO;
+import fr.treeptik.cloudunit.model.Message;
+import fr.treeptik.cloudunit.service.MessageService;
+
+/**
+ * Retention of the audit messages : the messages older than the retention are moved, in batches, from the Message
+ * table to one compressed archive file per month, so the table only holds the recent history.
+ *
+ * A batch is appended to its archive file before being deleted : a failure between the two leaves the messages
+ * in both places, it never loses them. The messages archived again by the next run are skipped by the search.
+ */
+@Component
+public class MessageArchiver {
+
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final Logger logger = LoggerFactory.getLogger(MessageArchiver.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Inject
+    private MessageDAO messageDAO;
+
+    @Inject
+    private MessageService messageService;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${cloudunit.instance.name}")
+    private String cuInstanceName;
+
+    @Value("${audit.retention.days:90}")
+    private int retentionDays;
+
+    @Value("${audit.archive.batch.size:1000}")
+    private int batchSize;
+
+    @Value("${audit.archive.directory:/var/log/cloudunit/archive}")
+    private String directory;
+
+    private volatile Statistics statistics = new Statistics(0, 0, null, 0, 0);
+
+    /**
+     * Highest id written to the archive files by this run of the manager
+     */
+    private int lastArchivedId;
+
+    /**
+     * The archive directory is checked at startup rather than at the first run, hours later.
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        if (retentionDays <= 0) {
+            return;
+        }
+        Path path = Files.createDirectories(Paths.get(directory));
+        if (!Files.isWritable(path)) {
+            throw new IllegalStateException("The archive directory " + path + " is not writable, "
+                    + "check audit.archive.directory");
+        }
+    }
+
+    /**
+     * Move the messages older than the retention to the archive files.
+     *
+     * @return number of messages archived
+     */
+    public synchronized int archive() {
+        if (retentionDays <= 0) {
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        Date before = Date.from(Instant.now().minusSeconds(retentionDays * 86400L));
+        int archived = 0;
+        try {
+            Files.createDirectories(Paths.get(directory));
+            List<Message> batch;
+            do {
+                batch = messageDAO.listOlderThan(cuInstanceName, before, new PageRequest(0, batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                // the messages of a batch whose delete failed are already archived
+                append(batch.stream().filter(m -> m.getId() > lastArchivedId).collect(Collectors.toList()));
+                lastArchivedId = Math.max(lastArchivedId, batch.get(batch.size() - 1).getId());
+                List<Integer> ids = batch.stream().map(Message::getId).collect(Collectors.toList());
+                new TransactionTemplate(transactionManager).execute(status -> {
+                    messageDAO.deleteByIds(ids);
+                    return null;
+                });
+                archived += batch.size();
+            } while (batch.size() == batchSize);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Archive of the audit messages stopped after " + archived + " messages", e);
+        }
+        if (archived > 0) {
+            messageService.evictAllCaches();
+            logger.info(archived + " audit messages older than " + before + " archived to " + directory);
+        }
+        Statistics last = statistics;
+        statistics = new Statistics(last.getRuns() + 1, last.getArchived() + archived, new Date(start),
+                archived, System.currentTimeMillis() - start);
+        return archived;
+    }
+
+    /**
+     * Archived messages of a user saved between two days included, the most recent first.
+     *
+     * @param applicationName null for the messages of all the applications
+     */
+    public List<ArchivedMessage> search(String login, String applicationName, LocalDate from, LocalDate to,
+            int rows) throws IOException {
+        long fromMillis = from.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long toMillis = to.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        List<ArchivedMessage> found = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(to); !month.isBefore(YearMonth.from(from))
+                && found.size() < rows; month = month.minusMonths(1)) {
+            Path path = archiveFile(month);
+            if (!Files.exists(path)) {
+                continue;
+            }
+            // keep the last matches of the month, its file is in chronological order
+            Deque<ArchivedMessage> matches = new ArrayDeque<>();
+            Set<Integer> ids = new HashSet<>();
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(path)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    ArchivedMessage message = objectMapper.readValue(line, ArchivedMessage.class);
+                    if (message.matches(login, applicationName, fromMillis, toMillis) && ids.add(message.id)) {
+                        matches.addLast(message);
+                        if (matches.size() > rows - found.size()) {
+                            matches.removeFirst();
+                        }
+                    }
+                }
+            }
+            for (Iterator<ArchivedMessage> it = matches.descendingIterator(); it.hasNext();) {
+                found.add(it.next());
+            }
+        }
+        return found;
+    }
+
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    private void append(List<Message> messages) throws IOException {
+        Map<YearMonth, List<Message>> byMonth = new LinkedHashMap<>();
+        for (Message message : messages) {
+            YearMonth month = YearMonth.from(message.getDate().toInstant().atZone(ZoneId.systemDefault()));
+            byMonth.computeIfAbsent(month, m -> new ArrayList<>()).add(message);
+        }
+        for (Map.Entry<YearMonth, List<Message>> entry : byMonth.entrySet()) {
+            // each batch is a gzip member of its own, appended to the file of the month
+            try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(archiveFile(entry.getKey()),
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND)), StandardCharsets.UTF_8))) {
+                for (Message message : entry.getValue()) {
+                    out.write(objectMapper.writeValueAsString(new ArchivedMessage(message)));
+                    out.newLine();
+                }
+            }
+        }
+    }
+
+    private Path archiveFile(YearMonth month) {
+        return Paths.get(directory, "messages-" + cuInstanceName + "-" + MONTH.format(month) + ".json.gz");
+    }
+
+    /**
+     * A message in an archive file, its author is referenced by login.
+     */
+    public static class ArchivedMessage {
+
+        public Integer id;
+
+        public long date;
+
+        public String login;
+
+        public String type;
+
+        public String cuInstanceName;
+
+        public String applicationName;
+
+        public String event;
+
+        public String action;
+
+        public ArchivedMessage() {
+        }
+
+        private ArchivedMessage(Message message) {
+            this.id = message.getId();
+            this.date = message.getDate().getTime();
+            this.login = message.getAuthor().getLogin();
+            this.type = message.getType();
+            this.cuInstanceName = message.getCuInstanceName();
+            this.applicationName = message.getApplicationName();
+            this.event = message.getEvent();
+            this.action = message.getAction();
+        }
+
+        private boolean matches(String login, String applicationName, long fromMillis, long toMillis) {
+            return login.equals(this.login) && date >= fromMillis && date < toMillis
+                    && (applicationName == null || applicationName.equals(this.applicationName));
+        }
+    }
+
+    public static class Statistics {
+
+        private final long runs;
+
+        private final long archived;
+
+        private final Date lastRun;
+
+        private final int lastArchived;
+
+        private final long lastDurationMillis;
+
+        public Statistics(long runs, long archived, Date lastRun, int lastArchived, long lastDurationMillis) {
+            this.runs = runs;
+            this.archived = archived;
+            this.lastRun = lastRun;
+            this.lastArchived = lastArchived;
+            this.lastDurationMillis = lastDurationMillis;
+        }
+
+        public long getRuns() {
+            return runs;
+        }
+
+        public long getArchived() {
+            return archived;
+        }
+
+        public Date getLastRun() {
+            return lastRun;
+        }
+
+        public int getLastArchived() {
+            return lastArchived;
+        }
+
+        public long getLastDurationMillis() {
+            return lastDurationMillis;
+        }
+    }
+
+}
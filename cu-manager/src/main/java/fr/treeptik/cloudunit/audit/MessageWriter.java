@@ -0,0 +1,316 @@
+package fr.treeptik.cloudunit.audit;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.treeptik.cloudunit.dao.MessageDAO;
+import fr.treeptik.cloudunit.model.Message;
+import fr.treeptik.cloudunit.model.User;
+import fr.treeptik.cloudunit.service.MessageService;
+
+/**
+ * Write-behind of the audit messages : they are queued and saved in batches by a background thread, in their own
+ * transaction, instead of opening a second transaction inside the business one.
+ *
+ * When the queue is full, the caller waits for a while then saves its message itself. The messages which could
+ * not be saved, at shutdown or after a database error, are appended to a fallback file and saved at the next
+ * startup.
+ */
+@Component
+public class MessageWriter {
+
+    private final Logger logger = LoggerFactory.getLogger(MessageWriter.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Inject
+    private MessageDAO messageDAO;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Inject
+    @Lazy
+    private MessageService messageService;
+
+    @Value("${audit.queue.capacity:10000}")
+    private int capacity;
+
+    @Value("${audit.batch.size:50}")
+    private int batchSize;
+
+    @Value("${audit.flush.interval:1000}")
+    private long flushInterval;
+
+    @Value("${audit.offer.timeout:200}")
+    private long offerTimeout;
+
+    @Value("${audit.fallback.file:/var/log/cloudunit/audit.log}")
+    private String fallbackFile;
+
+    private BlockingQueue<Message> queue;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    private final AtomicLong written = new AtomicLong();
+
+    private final AtomicLong batches = new AtomicLong();
+
+    private final AtomicLong writtenByCaller = new AtomicLong();
+
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    /**
+     * The directory of the fallback file is checked at startup rather than when the database fails.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        Path directory = Files.createDirectories(Paths.get(fallbackFile).toAbsolutePath().getParent());
+        if (!Files.isWritable(directory)) {
+            throw new IllegalStateException("The audit fallback directory " + directory + " is not writable, "
+                    + "check audit.fallback.file");
+        }
+        queue = new ArrayBlockingQueue<>(capacity);
+        running = true;
+        writer = new Thread(this::run, "cloudunit-MessageWriter");
+        writer.setDaemon(true);
+        writer.start();
+        replayFallback();
+    }
+
+    /**
+     * Queue a message, or save it in the calling thread when the queue stays full.
+     */
+    public void write(Message message) {
+        try {
+            if (running && queue.offer(message, offerTimeout, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writtenByCaller.incrementAndGet();
+        flush(Collections.singletonList(message));
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        try {
+            writer.join(flushInterval * 5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Message> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            logger.warn(remaining.size() + " audit messages left at shutdown");
+            flush(remaining);
+        }
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(queue.size(), written.get(), batches.get(), writtenByCaller.get(), fallbacks.get());
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Message first = queue.poll(flushInterval, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<Message> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void flush(List<Message> messages) {
+        try {
+            new TransactionTemplate(transactionManager).execute(status -> messageDAO.save(messages));
+            written.addAndGet(messages.size());
+            batches.incrementAndGet();
+        } catch (RuntimeException e) {
+            logger.error("Audit messages not saved, written to " + fallbackFile, e);
+            appendToFallback(messages);
+            return;
+        }
+        for (Message message : messages) {
+            try {
+                messageService.evictCache(message);
+            } catch (RuntimeException e) {
+                logger.warn("Message cache not evicted for " + message.getAuthor().getLogin(), e);
+            }
+        }
+    }
+
+    private synchronized void appendToFallback(List<Message> messages) {
+        try (BufferedWriter out = Files.newBufferedWriter(Paths.get(fallbackFile), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Message message : messages) {
+                out.write(objectMapper.writeValueAsString(new FallbackRecord(message)));
+                out.newLine();
+            }
+            fallbacks.addAndGet(messages.size());
+        } catch (IOException e) {
+            logger.error("Audit messages lost : " + messages, e);
+        }
+    }
+
+    private synchronized void replayFallback() {
+        Path path = Paths.get(fallbackFile);
+        if (!Files.exists(path)) {
+            return;
+        }
+        Path replayed = Paths.get(fallbackFile + ".replay");
+        List<Message> messages = new ArrayList<>();
+        try {
+            Files.move(path, replayed);
+            try (BufferedReader in = Files.newBufferedReader(replayed, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        messages.add(objectMapper.readValue(line, FallbackRecord.class).toMessage());
+                    }
+                }
+            }
+            Files.delete(replayed);
+        } catch (IOException e) {
+            logger.error("Audit messages of " + replayed + " not replayed", e);
+            return;
+        }
+        logger.info("Replay of " + messages.size() + " audit messages from " + path);
+        messages.forEach(this::write);
+    }
+
+    /**
+     * A message in the fallback file, its author is only referenced by id.
+     */
+    public static class FallbackRecord {
+
+        public long date;
+
+        public Integer authorId;
+
+        public String type;
+
+        public String cuInstanceName;
+
+        public String applicationName;
+
+        public String event;
+
+        public String action;
+
+        public FallbackRecord() {
+        }
+
+        private FallbackRecord(Message message) {
+            this.date = message.getDate().getTime();
+            this.authorId = message.getAuthor().getId();
+            this.type = message.getType();
+            this.cuInstanceName = message.getCuInstanceName();
+            this.applicationName = message.getApplicationName();
+            this.event = message.getEvent();
+            this.action = message.getAction();
+        }
+
+        private Message toMessage() {
+            User author = new User();
+            author.setId(authorId);
+            Message message = new Message();
+            message.setDate(new Date(date));
+            message.setAuthor(author);
+            message.setType(type);
+            message.setCuInstanceName(cuInstanceName);
+            message.setApplicationName(applicationName);
+            message.setEvent(event);
+            message.setAction(action);
+            return message;
+        }
+    }
+
+    public static class Statistics {
+
+        private final int queued;
+
+        private final long written;
+
+        private final long batches;
+
+        private final long writtenByCaller;
+
+        private final long fallbacks;
+
+        public Statistics(int queued, long written, long batches, long writtenByCaller, long fallbacks) {
+            this.queued = queued;
+            this.written = written;
+            this.batches = batches;
+            this.writtenByCaller = writtenByCaller;
+            this.fallbacks = fallbacks;
+        }
+
+        public int getQueued() {
+            return queued;
+        }
+
+        public long getWritten() {
+            return written;
+        }
+
+        public long getBatches() {
+            return batches;
+        }
+
+        /**
+         * @return messages saved by the calling thread because the queue was full
+         */
+        public long getWrittenByCaller() {
+            return writtenByCaller;
+        }
+
+        /**
+         * @return messages written to the fallback file
+         */
+        public long getFallbacks() {
+            return fallbacks;
+        }
+    }
+
+}
@@ -18,12 +18,14 @@ package fr.treeptik.cloudunit.config;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 import java.util.concurrent.Executor;
 
@@ -36,6 +38,12 @@ public class AsyncConfiguration
     private final Logger log = LoggerFactory
         .getLogger(AsyncConfiguration.class);
 
+    @Value("${docker.lifecycle.max.parallel:8}")
+    private int lifecycleMaxParallel;
+
+    @Value("${scheduler.pool.size:4}")
+    private int schedulerPoolSize;
+
     @Override
     @Bean
     public Executor getAsyncExecutor() {
@@ -52,6 +60,36 @@ public class AsyncConfiguration
         return executor;
     }
 
+    /**
+     * Executor of the start and stop of the containers of an application.
+     * The caller waits for the result so the queue is unbounded.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor lifecycleExecutor() {
+        log.debug("Creating Lifecycle Task Executor");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(lifecycleMaxParallel);
+        executor.setMaxPoolSize(lifecycleMaxParallel);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setThreadNamePrefix("cloudunit-Lifecycle-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Scheduler of the @Scheduled tasks. Without it they all share a single thread and a long run of one of
+     * them, the audit archive or the health check, delays the others.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        log.debug("Creating Task Scheduler");
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(schedulerPoolSize);
+        scheduler.setThreadNamePrefix("cloudunit-Scheduler-");
+        return scheduler;
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return null;
@@ -0,0 +1,43 @@
+package fr.treeptik.cloudunit.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import fr.treeptik.cloudunit.dao.UserDAO;
+import fr.treeptik.cloudunit.model.User;
+
+/**
+ * Load the credentials and the role of a user for its authentication. The users whose email is not confirmed
+ * cannot log in.
+ */
+@Component
+public class CloudUnitUserDetailsService implements UserDetailsService {
+
+    @Inject
+    private UserDAO userDAO;
+
+    private final AtomicLong lookups = new AtomicLong();
+
+    @Override
+    public UserDetails loadUserByUsername(String login) throws UsernameNotFoundException {
+        lookups.incrementAndGet();
+        User user = userDAO.findByLogin(login);
+        if (user == null || User.STATUS_MAIL_NOT_CONFIRMED.equals(user.getStatus())) {
+            throw new UsernameNotFoundException(login);
+        }
+        return new org.springframework.security.core.userdetails.User(user.getLogin(), user.getPassword(),
+                AuthorityUtils.createAuthorityList(user.getRole().getDescription()));
+    }
+
+    public long getLookups() {
+        return lookups.get();
+    }
+
+}
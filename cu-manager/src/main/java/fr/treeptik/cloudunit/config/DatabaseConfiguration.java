@@ -78,6 +78,9 @@ public class DatabaseConfiguration {
     @Value("classpath:/${database.script}")
     private Resource dataScript;
 
+    @Value("${database.cache.statistics:true}")
+    private boolean cacheStatistics;
+
     @Bean
     public DataSource dataSource() {
         logger.debug("Configuring Datasource");
@@ -129,7 +132,16 @@ public class DatabaseConfiguration {
         lcemfb.setJpaVendorAdapter(jpaVendorAdapter());
         lcemfb.setSharedCacheMode(SharedCacheMode.ENABLE_SELECTIVE);
         Properties jpaProperties = new Properties();
-        jpaProperties.put("hibernate.generate_statistics", false);
+        jpaProperties.put("hibernate.generate_statistics", cacheStatistics);
+        // second-level and query cache for the read-mostly entities, regions in ehcache.xml
+        jpaProperties.put("hibernate.cache.use_second_level_cache", true);
+        jpaProperties.put("hibernate.cache.use_query_cache", true);
+        jpaProperties.put("hibernate.cache.region.factory_class",
+            "org.hibernate.cache.ehcache.SingletonEhCacheRegionFactory");
+        jpaProperties.put("net.sf.ehcache.configurationResourceName", "/ehcache.xml");
+        // batches of inserts of the audit messages
+        jpaProperties.put("hibernate.jdbc.batch_size", 50);
+        jpaProperties.put("hibernate.order_inserts", true);
         jpaProperties.put("hibernate.show_sql", Boolean.parseBoolean(databaseShowSQL));
         lcemfb.setJpaProperties(jpaProperties);
         lcemfb.setPackagesToScan("fr.treeptik.cloudunit.model");
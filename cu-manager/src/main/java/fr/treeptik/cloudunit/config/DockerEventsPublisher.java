@@ -0,0 +1,106 @@
+package fr.treeptik.cloudunit.config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import fr.treeptik.cloudunit.config.events.ContainerDiedEvent;
+import fr.treeptik.cloudunit.config.events.ContainerHealthStatusEvent;
+import fr.treeptik.cloudunit.config.events.ContainerLifecycleEvent;
+import fr.treeptik.cloudunit.config.events.ContainerOomEvent;
+import fr.treeptik.cloudunit.config.events.ContainerStartedEvent;
+import fr.treeptik.cloudunit.docker.DockerHost;
+import fr.treeptik.cloudunit.docker.DockerHostPool;
+import fr.treeptik.cloudunit.docker.core.ContainerStateCache;
+import fr.treeptik.cloudunit.docker.core.DockerEventSubscriber;
+import fr.treeptik.cloudunit.docker.model.DockerEvent;
+
+/**
+ * Subscribe to the events of every docker host and publish the container lifecycle transitions
+ * (start, die, oom, health_status) as application events.
+ * Every container event also evicts the container from the {@link ContainerStateCache} of its host, a destroyed
+ * container is released from the {@link DockerHostPool}.
+ * Listeners are called on the subscription thread and must not block.
+ */
+@Component
+public class DockerEventsPublisher {
+
+    private Logger logger = LoggerFactory.getLogger(DockerEventsPublisher.class);
+
+    @Inject
+    private DockerHostPool dockerHostPool;
+
+    @Inject
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Value("${docker.events.enabled:true}")
+    private boolean enabled;
+
+    private final List<DockerEventSubscriber> subscribers = new ArrayList<>();
+
+    @PostConstruct
+    public void subscribe() {
+        if (!enabled) {
+            logger.info("Docker events subscription is disabled");
+            return;
+        }
+        for (DockerHost host : dockerHostPool.getHosts()) {
+            ContainerStateCache cache = host.getContainerStateCache();
+            subscribers.add(host.getDockerCloudUnitClient().subscribeEvents(event -> publish(cache, event),
+                    "start", "die", "oom", "health_status",
+                    "stop", "kill", "pause", "unpause", "restart", "rename", "destroy"));
+        }
+    }
+
+    @PreDestroy
+    public void unsubscribe() throws IOException {
+        for (DockerEventSubscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+        subscribers.clear();
+    }
+
+    public boolean isSubscribed() {
+        return !subscribers.isEmpty() && subscribers.stream().allMatch(DockerEventSubscriber::isRunning);
+    }
+
+    private void publish(ContainerStateCache containerStateCache, DockerEvent event) {
+        // evict before the listeners wake up and read the state again
+        containerStateCache.onEvent(event);
+        if ("destroy".equals(event.getAction())) {
+            dockerHostPool.release(event.getContainerName());
+            dockerHostPool.release(event.getId());
+        }
+        if (event.getContainerName() == null) {
+            return;
+        }
+        ContainerLifecycleEvent lifecycleEvent;
+        String action = event.getAction();
+        if (action.startsWith("health_status")) {
+            lifecycleEvent = new ContainerHealthStatusEvent(event);
+        } else if ("die".equals(action)) {
+            lifecycleEvent = new ContainerDiedEvent(event);
+        } else if ("oom".equals(action)) {
+            lifecycleEvent = new ContainerOomEvent(event);
+        } else if ("start".equals(action)) {
+            lifecycleEvent = new ContainerStartedEvent(event);
+        } else {
+            return;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Docker event : " + event);
+        }
+        applicationEventPublisher.publishEvent(lifecycleEvent);
+    }
+
+}
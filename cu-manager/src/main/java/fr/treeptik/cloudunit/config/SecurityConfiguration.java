@@ -21,6 +21,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.cache.ehcache.EhCacheManagerFactoryBean;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
@@ -28,6 +30,8 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.cache.EhCacheBasedUserCache;
 import org.springframework.security.web.csrf.CsrfFilter;
 import org.springframework.security.web.csrf.CsrfToken;
 import org.springframework.security.web.csrf.CsrfTokenRepository;
@@ -42,7 +46,6 @@ import javax.servlet.ServletException;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.sql.DataSource;
 import java.io.IOException;
 
 /**
@@ -56,7 +59,7 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 	private Logger logger = LoggerFactory.getLogger(SecurityConfiguration.class);
 
 	@Inject
-	private DataSource dataSource;
+	private CloudUnitUserDetailsService userDetailsService;
 
 	@Inject
 	private UserAjaxAuthenticationSuccessHandler ajaxAuthenticationSuccessHandler;
@@ -86,10 +89,7 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 
 	@Override
 	public void configure(AuthenticationManagerBuilder auth) throws Exception {
-		auth.jdbcAuthentication().passwordEncoder(passwordEncoder()).dataSource(dataSource)
-				.usersByUsernameQuery("Select login, password, 'true' as enabled from User where login=? and status!=0")
-				.authoritiesByUsernameQuery(
-						"Select u.login, r.description From Role r join User u on u.role_id=r.id where u.login=?");
+		auth.authenticationProvider(authenticationProvider());
 
 		// auth.inMemoryAuthentication().withUser("john").password("doe").roles("ADMIN,
 		// USER");
@@ -181,6 +181,37 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 		return repository;
 	}
 
+	/**
+	 * Authentication against the users in database, whose details are cached
+	 * between two logins
+	 *
+	 * @return
+	 */
+	@Bean
+	public TimedAuthenticationProvider authenticationProvider() throws Exception {
+		TimedAuthenticationProvider provider = new TimedAuthenticationProvider(userDetailsService::getLookups);
+		provider.setUserDetailsService(userDetailsService);
+		provider.setPasswordEncoder(passwordEncoder());
+		provider.setUserCache(userCache());
+		return provider;
+	}
+
+	@Bean
+	public EhCacheManagerFactoryBean ehCacheManager() {
+		EhCacheManagerFactoryBean factory = new EhCacheManagerFactoryBean();
+		factory.setConfigLocation(new ClassPathResource("ehcache.xml"));
+		// the same cache manager as the hibernate second-level cache
+		factory.setShared(true);
+		return factory;
+	}
+
+	@Bean
+	public UserCache userCache() throws Exception {
+		EhCacheBasedUserCache userCache = new EhCacheBasedUserCache();
+		userCache.setCache(ehCacheManager().getObject().getCache("userDetails"));
+		return userCache;
+	}
+
 	/**
 	 * Bijectiv Custome encoder
 	 *
@@ -0,0 +1,104 @@
+package fr.treeptik.cloudunit.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Authentication against the user details service, with the number of logins, of failures and of database
+ * lookups (the others are served by the user cache) and the time spent to authenticate.
+ */
+public class TimedAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final AtomicLong authentications = new AtomicLong();
+
+    private final AtomicLong failures = new AtomicLong();
+
+    private final LongSupplier lookups;
+
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * @param lookups number of users loaded by the user details service
+     */
+    public TimedAuthenticationProvider(LongSupplier lookups) {
+        this.lookups = lookups;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        long start = System.nanoTime();
+        try {
+            return super.authenticate(authentication);
+        } catch (AuthenticationException e) {
+            failures.incrementAndGet();
+            throw e;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            authentications.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    public Statistics getStatistics() {
+        long count = authentications.get();
+        double averageMillis = count == 0 ? 0 : totalNanos.get() / 1_000_000d / count;
+        return new Statistics(count, failures.get(), lookups.getAsLong(), averageMillis, maxNanos.get() / 1_000_000d);
+    }
+
+    public static class Statistics {
+
+        private final long authentications;
+
+        private final long failures;
+
+        private final long lookups;
+
+        private final double averageMillis;
+
+        private final double maxMillis;
+
+        public Statistics(long authentications, long failures, long lookups, double averageMillis,
+                double maxMillis) {
+            this.authentications = authentications;
+            this.failures = failures;
+            this.lookups = lookups;
+            this.averageMillis = averageMillis;
+            this.maxMillis = maxMillis;
+        }
+
+        public long getAuthentications() {
+            return authentications;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        /**
+         * @return authentications which loaded the user from the database
+         */
+        public long getLookups() {
+            return lookups;
+        }
+
+        public double getAverageMillis() {
+            return averageMillis;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+
+        public double getCacheHitRatio() {
+            return authentications == 0 ? 0 : Math.max(0, (double) (authentications - lookups) / authentications);
+        }
+    }
+
+}
@@ -0,0 +1,18 @@
+package fr.treeptik.cloudunit.config.events;
+
+import fr.treeptik.cloudunit.docker.model.DockerEvent;
+
+public class ContainerDiedEvent extends ContainerLifecycleEvent {
+
+	private static final long serialVersionUID = 1L;
+
+	public ContainerDiedEvent(DockerEvent source) {
+		super(source);
+	}
+
+	public Integer getExitCode() {
+		String exitCode = getDockerEvent().getAttribute("exitCode");
+		return exitCode != null ? Integer.valueOf(exitCode) : null;
+	}
+
+}
@@ -0,0 +1,26 @@
+package fr.treeptik.cloudunit.config.events;
+
+import fr.treeptik.cloudunit.docker.model.DockerEvent;
+
+public class ContainerHealthStatusEvent extends ContainerLifecycleEvent {
+
+	private static final long serialVersionUID = 1L;
+
+	public ContainerHealthStatusEvent(DockerEvent source) {
+		super(source);
+	}
+
+	/**
+	 * @return starting, healthy or unhealthy
+	 */
+	public String getHealthStatus() {
+		String action = getDockerEvent().getAction();
+		int separator = action.indexOf(':');
+		return separator > 0 ? action.substring(separator + 1).trim() : null;
+	}
+
+	public boolean isHealthy() {
+		return "healthy".equals(getHealthStatus());
+	}
+
+}
@@ -0,0 +1,29 @@
+package fr.treeptik.cloudunit.config.events;
+
+import fr.treeptik.cloudunit.docker.model.DockerEvent;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Container lifecycle event received from the docker daemon event stream.
+ */
+public abstract class ContainerLifecycleEvent extends ApplicationEvent {
+
+	private static final long serialVersionUID = 1L;
+
+	public ContainerLifecycleEvent(DockerEvent source) {
+		super(source);
+	}
+
+	public DockerEvent getDockerEvent() {
+		return (DockerEvent) getSource();
+	}
+
+	public String getContainerName() {
+		return getDockerEvent().getContainerName();
+	}
+
+	public String getContainerId() {
+		return getDockerEvent().getId();
+	}
+
+}
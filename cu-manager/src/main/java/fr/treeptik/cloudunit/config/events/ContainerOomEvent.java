@@ -0,0 +1,13 @@
+package fr.treeptik.cloudunit.config.events;
+
+import fr.treeptik.cloudunit.docker.model.DockerEvent;
+
+public class ContainerOomEvent extends ContainerLifecycleEvent {
+
+	private static final long serialVersionUID = 1L;
+
+	public ContainerOomEvent(DockerEvent source) {
+		super(source);
+	}
+
+}
@@ -1,7 +1,12 @@
 package fr.treeptik.cloudunit.config.events;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.context.ApplicationEvent;
 
+import fr.treeptik.cloudunit.enums.RemoteExecAction;
 import fr.treeptik.cloudunit.model.Module;
 
 /**
@@ -11,8 +16,28 @@ public class ModuleStartEvent extends ApplicationEvent {
 
 	private static final long serialVersionUID = 1L;
 
-	public ModuleStartEvent(Module source) {
+	private final List<RemoteExecAction> hooks;
+
+	private final transient CompletableFuture<Boolean> ready = new CompletableFuture<>();
+
+	/**
+	 * @param source
+	 * @param hooks called once the module is ready
+	 */
+	public ModuleStartEvent(Module source, RemoteExecAction... hooks) {
 		super(source);
+		this.hooks = Arrays.asList(hooks);
+	}
+
+	public List<RemoteExecAction> getHooks() {
+		return hooks;
+	}
+
+	/**
+	 * @return completed once the module is ready and its hooks are called, false if it did not start
+	 */
+	public CompletableFuture<Boolean> getReady() {
+		return ready;
 	}
 
 }
@@ -1,7 +1,11 @@
 package fr.treeptik.cloudunit.config.listener;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.inject.Inject;
 
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.event.EventListener;
@@ -15,6 +19,7 @@ import fr.treeptik.cloudunit.config.events.ApplicationStopEvent;
 import fr.treeptik.cloudunit.exception.ServiceException;
 import fr.treeptik.cloudunit.model.Application;
 import fr.treeptik.cloudunit.model.Status;
+import fr.treeptik.cloudunit.schedule.readiness.ReadinessScheduler;
 import fr.treeptik.cloudunit.service.ApplicationService;
 
 /**
@@ -28,47 +33,36 @@ public class ApplicationListener {
 	@Inject
 	private ApplicationService applicationService;
 
+	@Inject
+	private ReadinessScheduler readinessScheduler;
+
 	@EventListener
 	public void onApplicationStart(ApplicationStartEvent applicationStartEvent) {
 		Application application = (Application) applicationStartEvent.getSource();
-		try {
-			int counter = 0;
-			boolean started = false;
-			do {
-				started = applicationService.isStarted(application.getName());
-				Thread.sleep(1000);
-			} while (counter++ < 30 && !started);
-			if (counter <= 30) {
-				application.setStatus(Status.START);
-			} else {
-				application.setStatus(Status.FAIL);
-			}
-			logger.info("Application status : " + application.getStatus());
-			applicationService.saveInDB(application);
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+		// checked again as soon as one of its containers changes
+		readinessScheduler.schedule(getContainerNames(application),
+				() -> applicationService.isStarted(application.getName()), e -> false)
+				.thenAccept(started -> updateStatus(application, started ? Status.START : Status.FAIL));
 	}
 
 	@EventListener
 	public void onApplicationStop(ApplicationStopEvent applicationStopEvent) {
 		Application application = (Application) applicationStopEvent.getSource();
+		readinessScheduler.schedule(getContainerNames(application),
+				() -> applicationService.isStopped(application.getName()), e -> false)
+				.thenAccept(stopped -> updateStatus(application, stopped ? Status.STOP : Status.FAIL));
+	}
+
+	/**
+	 * Called once the readiness is known : the application is read again by id and only its status is saved,
+	 * the entity of the event may be stale by now.
+	 */
+	private void updateStatus(Application application, Status status) {
 		try {
-			int counter = 0;
-			boolean started = false;
-			do {
-				started = applicationService.isStopped(application.getName());
-				Thread.sleep(1000);
-			} while (counter++ < 30 && !started);
-			if (counter <= 30) {
-				application.setStatus(Status.STOP);
-			} else {
-				application.setStatus(Status.FAIL);
-			}
-			logger.info("Application status : " + application.getStatus());
-			applicationService.saveInDB(application);
+			applicationService.setStatus(application, status);
+			logger.info("Application status : " + status);
 		} catch (Exception e) {
-			e.printStackTrace();
+			logger.error(application.getName(), e);
 		}
 	}
 
@@ -96,4 +90,15 @@ public class ApplicationListener {
         }
     }
 
+    private List<String> getContainerNames(Application application) {
+        List<String> names = new ArrayList<>();
+        if (application.getServer() != null && Hibernate.isInitialized(application.getServer())) {
+            names.add(application.getServer().getName());
+        }
+        if (application.getModules() != null && Hibernate.isInitialized(application.getModules())) {
+            application.getModules().forEach(m -> names.add(m.getName()));
+        }
+        return names;
+    }
+
 }
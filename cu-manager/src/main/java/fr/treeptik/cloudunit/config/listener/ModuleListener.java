@@ -4,15 +4,21 @@ import javax.inject.Inject;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+import fr.treeptik.cloudunit.config.events.ContainerDiedEvent;
+import fr.treeptik.cloudunit.config.events.ContainerHealthStatusEvent;
+import fr.treeptik.cloudunit.config.events.HookEvent;
 import fr.treeptik.cloudunit.config.events.ModuleStartEvent;
 import fr.treeptik.cloudunit.config.events.ModuleStopEvent;
+import fr.treeptik.cloudunit.dto.Hook;
 import fr.treeptik.cloudunit.enums.RemoteExecAction;
 import fr.treeptik.cloudunit.model.Module;
 import fr.treeptik.cloudunit.model.Status;
+import fr.treeptik.cloudunit.schedule.readiness.ReadinessProbes;
+import fr.treeptik.cloudunit.schedule.readiness.ReadinessScheduler;
 import fr.treeptik.cloudunit.service.DockerService;
 import fr.treeptik.cloudunit.service.ModuleService;
 
@@ -30,57 +36,66 @@ public class ModuleListener {
 	@Inject
 	ModuleService moduleService;
 
+	@Inject
+	ReadinessScheduler readinessScheduler;
+
+	@Inject
+	ReadinessProbes readinessProbes;
+
+	@Inject
+	ApplicationEventPublisher applicationEventPublisher;
+
 	@EventListener
 	public void onModuleStart(ModuleStartEvent moduleStartEvent) {
 		Module module = (Module) moduleStartEvent.getSource();
-		try {
-			String containerName = module.getName();
-			int counter = 0;
-			boolean started = false;
-			do {
-				String command = RemoteExecAction.CHECK_RUNNING.getCommand();
-				String exec = dockerService.execCommand(containerName, command);
-				exec = exec.replaceAll(System.getProperty("line.separator"), "");
-				if ("0".equalsIgnoreCase(exec.trim())) {
-					started = true;
-					break;
-				}
-				Thread.sleep(1000);
-			} while (counter++ < 30 && !started);
-			if (counter <= 30) {
-				module.setStatus(Status.START);
-			} else {
-				module.setStatus(Status.FAIL);
-			}
-			logger.info("Module status : " + module.getStatus());
-			moduleService.update(module);
-		} catch (Exception e) {
-			logger.error(module.toString(), e);
-			e.printStackTrace();
-		}
+		// a death of the container or an unhealthy report ends the wait
+		readinessScheduler.schedule(module.getName(), readinessProbes.forModule(module),
+				e -> e instanceof ContainerDiedEvent || (e instanceof ContainerHealthStatusEvent
+						&& "unhealthy".equals(((ContainerHealthStatusEvent) e).getHealthStatus())))
+				.thenAccept(started -> {
+					if (started) {
+						callHooks(module, moduleStartEvent);
+					}
+					updateStatus(module, started ? Status.START : Status.FAIL);
+					moduleStartEvent.getReady().complete(started);
+				});
 	}
 
 	@EventListener
-	@Async
 	public void onModuleStop(ModuleStopEvent moduleStopEvent) {
 		Module module = (Module) moduleStopEvent.getSource();
+		readinessScheduler.schedule(module.getName(), () -> dockerService.isStoppedGracefully(module.getName()),
+				e -> false)
+				.thenAccept(stopped -> updateStatus(module, stopped ? Status.STOP : Status.FAIL));
+	}
+
+	private void callHooks(Module module, ModuleStartEvent moduleStartEvent) {
+		for (RemoteExecAction hook : moduleStartEvent.getHooks()) {
+			try {
+				applicationEventPublisher.publishEvent(new HookEvent(new Hook(module.getName(), hook)));
+			} catch (Exception e) {
+				logger.error(module.getName() + " : " + hook, e);
+			}
+		}
+	}
+
+	/**
+	 * The module of the event may still be used by the thread which started it : the status is saved on a
+	 * copy read again from the database.
+	 */
+	private void updateStatus(Module module, Status status) {
 		try {
-			int counter = 0;
-			boolean isStopped = false;
-			do {
-				isStopped = dockerService.isStoppedGracefully(module.getName());
-				Thread.sleep(1000);
-			} while (counter++ < 30 && !isStopped);
-			if (counter <= 30) {
-				module.setStatus(Status.STOP);
-			} else {
-				module.setStatus(Status.FAIL);
+			Module current = moduleService.findById(module.getId());
+			if (current == null) {
+				logger.warn("Module " + module.getName() + " removed while waiting for " + status);
+				return;
 			}
-			logger.info("Server status : " + module.getStatus());
-			moduleService.update(module);
+			current.setStatus(status);
+			logger.info("Module status : " + current.getStatus());
+			moduleService.update(current);
+			readinessScheduler.wake(module.getName());
 		} catch (Exception e) {
 			logger.error(module.getName(), e);
-			e.printStackTrace();
 		}
 	}
 
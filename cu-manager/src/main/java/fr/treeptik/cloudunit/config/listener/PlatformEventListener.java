@@ -1,5 +1,6 @@
 package fr.treeptik.cloudunit.config.listener;
 
+import fr.treeptik.cloudunit.config.events.ContainerOomEvent;
 import fr.treeptik.cloudunit.config.events.DatabaseConnectionFailEvent;
 import fr.treeptik.cloudunit.config.events.UnexpectedContainerStatusEvent;
 import fr.treeptik.cloudunit.service.EmailService;
@@ -48,6 +49,16 @@ public class PlatformEventListener {
         sendEmailToAdmin(subject, message);
     }
 
+    @EventListener
+    @Async
+    public void onContainerOutOfMemory(ContainerOomEvent containerOomEvent){
+        String subject = "A container has run out of memory";
+        String message = String.format("The container %s has been killed by the OOM killer",
+                containerOomEvent.getContainerName());
+        logger.error("A platform error has occured : " + message);
+        sendEmailToAdmin(subject, message);
+    }
+
     private void sendEmailToAdmin(String subject, String message) {
             try {
                 EmailService emailService = appContext.getBean(EmailService.class);
@@ -1,8 +1,5 @@
 package fr.treeptik.cloudunit.config.listener;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import javax.inject.Inject;
 
 import org.slf4j.Logger;
@@ -10,11 +7,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import fr.treeptik.cloudunit.config.events.ContainerDiedEvent;
+import fr.treeptik.cloudunit.config.events.ContainerHealthStatusEvent;
 import fr.treeptik.cloudunit.config.events.ServerStartEvent;
 import fr.treeptik.cloudunit.config.events.ServerStopEvent;
-import fr.treeptik.cloudunit.enums.RemoteExecAction;
 import fr.treeptik.cloudunit.model.Server;
 import fr.treeptik.cloudunit.model.Status;
+import fr.treeptik.cloudunit.schedule.readiness.ReadinessProbes;
+import fr.treeptik.cloudunit.schedule.readiness.ReadinessScheduler;
 import fr.treeptik.cloudunit.service.DockerService;
 import fr.treeptik.cloudunit.service.ServerService;
 
@@ -24,7 +24,7 @@ import fr.treeptik.cloudunit.service.ServerService;
 @Component
 public class ServerListener {
 
-	private Logger logger = LoggerFactory.getLogger(ApplicationListener.class);
+	private Logger logger = LoggerFactory.getLogger(ServerListener.class);
 
 	@Inject
 	DockerService dockerService;
@@ -32,69 +32,47 @@ public class ServerListener {
 	@Inject
 	ServerService serverService;
 
+	@Inject
+	ReadinessScheduler readinessScheduler;
+
+	@Inject
+	ReadinessProbes readinessProbes;
+
 	@EventListener
 	public void onServerStart(ServerStartEvent serverStartEvent) {
 		Server server = (Server) serverStartEvent.getSource();
-		try {
-			String containerName = server.getName();
-			int counter = 0;
-			boolean started = false;
-			do {
-				Map<String, String> kvStore = new HashMap<String, String>() {
-					private static final long serialVersionUID = 1L;
-					{
-						put("CU_USER", server.getApplication().getUser().getLogin());
-						put("CU_PASSWORD", server.getApplication().getUser().getPassword());
-					}
-				};
-				String command = RemoteExecAction.CHECK_RUNNING.getCommand(kvStore);
-				try {
-					String exec = dockerService.execCommand(containerName, command);
-					exec = exec.replaceAll(System.getProperty("line.separator"), "");
-					if ("0".equalsIgnoreCase(exec.trim())) {
-						started = true;
-						break;
-					} else {
-						logger.warn(exec);
-					}
-					Thread.sleep(1000);
-				} catch (Exception e) {
-					logger.error(e.getMessage());
-				}
-			} while (counter++ < 30 && !started);
-			if (counter <= 30) {
-				server.setStatus(Status.START);
-			} else {
-				server.setStatus(Status.FAIL);
-			}
-			logger.info("Server status : " + server.getStatus());
-			serverService.update(server);
-		} catch (Exception e) {
-			logger.error(server.toString(), e);
-			e.printStackTrace();
-		}
+		// a death of the container or an unhealthy report ends the wait
+		readinessScheduler.schedule(server.getName(), readinessProbes.forServer(server),
+				e -> e instanceof ContainerDiedEvent || (e instanceof ContainerHealthStatusEvent
+						&& "unhealthy".equals(((ContainerHealthStatusEvent) e).getHealthStatus())))
+				.thenAccept(started -> updateStatus(server, started ? Status.START : Status.FAIL));
 	}
 
 	@EventListener
 	public void onServerStop(ServerStopEvent serverStopEvent) {
 		Server server = (Server) serverStopEvent.getSource();
+		readinessScheduler.schedule(server.getName(), () -> dockerService.isStoppedGracefully(server.getName()),
+				e -> false)
+				.thenAccept(stopped -> updateStatus(server, stopped ? Status.STOP : Status.FAIL));
+	}
+
+	/**
+	 * The server of the event may still be used by the thread which started it : the status is saved on a
+	 * copy read again from the database.
+	 */
+	private void updateStatus(Server server, Status status) {
 		try {
-			int counter = 0;
-			boolean isStopped = false;
-			do {
-				isStopped = dockerService.isStoppedGracefully(server.getName());
-				Thread.sleep(1000);
-			} while (counter++ < 30 && !isStopped);
-			if (counter <= 30) {
-				server.setStatus(Status.STOP);
-			} else {
-				server.setStatus(Status.FAIL);
+			Server current = serverService.findById(server.getId());
+			if (current == null) {
+				logger.warn("Server " + server.getName() + " removed while waiting for " + status);
+				return;
 			}
-			logger.info("Server status : " + server.getStatus());
-			serverService.update(server);
+			current.setStatus(status);
+			logger.info("Server status : " + current.getStatus());
+			serverService.update(current);
+			readinessScheduler.wake(server.getName());
 		} catch (Exception e) {
 			logger.error(server.getName(), e);
-			e.printStackTrace();
 		}
 	}
 
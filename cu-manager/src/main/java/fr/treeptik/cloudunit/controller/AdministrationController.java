@@ -15,29 +15,47 @@
 
 package fr.treeptik.cloudunit.controller;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
 
+import org.apache.http.pool.PoolStats;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import fr.treeptik.cloudunit.audit.MessageArchiver;
+import fr.treeptik.cloudunit.audit.MessageWriter;
+import fr.treeptik.cloudunit.config.TimedAuthenticationProvider;
+import fr.treeptik.cloudunit.dao.ReferenceEntityCache;
+import fr.treeptik.cloudunit.docker.DockerRequestCoalescer;
+import fr.treeptik.cloudunit.docker.ReconciliationReport;
+import fr.treeptik.cloudunit.docker.core.ContainerStateCache;
+import fr.treeptik.cloudunit.docker.core.DockerCloudUnitClient;
 import fr.treeptik.cloudunit.dto.HttpOk;
 import fr.treeptik.cloudunit.dto.JsonInputForAdmin;
 import fr.treeptik.cloudunit.dto.JsonResponse;
 import fr.treeptik.cloudunit.exception.CheckException;
 import fr.treeptik.cloudunit.exception.ServiceException;
+import fr.treeptik.cloudunit.metrics.CAdvisorClient;
+import fr.treeptik.cloudunit.metrics.ContainerStatsBroadcaster;
 import fr.treeptik.cloudunit.model.Image;
 import fr.treeptik.cloudunit.model.Message;
 import fr.treeptik.cloudunit.model.User;
+import fr.treeptik.cloudunit.service.HealthCheckService;
 import fr.treeptik.cloudunit.service.ImageService;
 import fr.treeptik.cloudunit.service.MessageService;
 import fr.treeptik.cloudunit.service.UserService;
+import fr.treeptik.cloudunit.service.WarmPoolService;
 import fr.treeptik.cloudunit.utils.AuthentificationUtils;
 
 /**
@@ -62,6 +80,39 @@ public class AdministrationController implements Serializable {
 	@Inject
 	private AuthentificationUtils authentificationUtils;
 
+	@Inject
+	private DockerCloudUnitClient dockerCloudUnitClient;
+
+	@Inject
+	private ContainerStateCache containerStateCache;
+
+	@Inject
+	private DockerRequestCoalescer dockerRequestCoalescer;
+
+	@Inject
+	private WarmPoolService warmPoolService;
+
+	@Inject
+	private HealthCheckService healthCheckService;
+
+	@Inject
+	private ReferenceEntityCache referenceEntityCache;
+
+	@Inject
+	private TimedAuthenticationProvider authenticationProvider;
+
+	@Inject
+	private MessageWriter messageWriter;
+
+	@Inject
+	private MessageArchiver messageArchiver;
+
+	@Inject
+	private CAdvisorClient cAdvisorClient;
+
+	@Inject
+	private ContainerStatsBroadcaster containerStatsBroadcaster;
+
 	/**
 	 * Create a new user
 	 *
@@ -196,4 +247,167 @@ public class AdministrationController implements Serializable {
 		return messageService.listByUser(userService.findByLogin(login), Integer.parseInt(rows));
 	}
 
+	/**
+	 * Archived messages of a user, the most recent first
+	 *
+	 * @param login
+	 * @param applicationName
+	 *            : all the applications when missing
+	 * @param from
+	 *            : yyyy-MM-dd, a year before to when missing
+	 * @param to
+	 *            : yyyy-MM-dd, today when missing
+	 * @param rows
+	 * @return
+	 * @throws ServiceException
+	 */
+	@ResponseBody
+	@RequestMapping(value = "/messages/archive/login/{login}", method = RequestMethod.GET)
+	public List<MessageArchiver.ArchivedMessage> listArchivedMessages(@PathVariable String login,
+			@RequestParam(required = false) String applicationName,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(defaultValue = "100") int rows) throws ServiceException {
+		LocalDate last = to == null ? LocalDate.now() : to;
+		LocalDate first = from == null ? last.minusYears(1) : from;
+		try {
+			return messageArchiver.search(login, applicationName, first, last, Math.max(rows, 1));
+		} catch (IOException e) {
+			throw new ServiceException("Archived messages of " + login + " not read", e);
+		}
+	}
+
+	/**
+	 * Archive the messages older than the retention now
+	 *
+	 * @return
+	 */
+	@ResponseBody
+	@RequestMapping(value = "/messages/archive", method = RequestMethod.POST)
+	public MessageArchiver.Statistics archiveMessages() {
+		messageArchiver.archive();
+		return messageArchiver.getStatistics();
+	}
+
+	/**
+	 * Statistics of the connection pool to the Docker daemon
+	 *
+	 * @return
+	 */
+	@ResponseBody
+	@RequestMapping(value = "/statistics/docker/pool", method = RequestMethod.GET)
+	public PoolStats dockerPoolStatistics() {
+		return dockerCloudUnitClient.getPoolStats();
+	}
+
+	/**
+	 * Hits, misses and evictions of the container state cache
+	 *
+	 * @return
+	 */
+	@ResponseBody
+	@RequestMapping(value = "/statistics/docker/containers", method = RequestMethod.GET)
+	public ContainerStateCache.Statistics containerStateCacheStatistics() {
+		return containerStateCache.getStatistics();
+	}
+
+	/**
+	 * Read-only docker requests sent and calls served by an identical request in flight
+	 *
+	 * @return
+	 */
+	@ResponseBody
+	@RequestMapping(value = "/statistics/docker/coalescing", method = RequestMethod.GET)
+	public DockerRequestCoalescer.Statistics dockerRequestCoalescingStatistics() {
+		return dockerRequestCoalescer.getStatistics();
+	}
+
+	/**
+	 * Idle warm server containers by image
+	 *
+	 * @return
+	 */
+	@ResponseBody
+	@RequestMapping(value = "/statistics/docker/warmpool", method = RequestMethod.GET)
+	public Map<String, Integer> warmPoolStatistics() {
+		return warmPoolService.getIdleCounts();
+	}
+
+	/**
+	 * Duration and drift counts of the last reconciliation of the containers
+	 *
+	 * @return
+	 */
+	@ResponseBody
+	@RequestMapping(value = "/statistics/docker/reconciliation", method = RequestMethod.GET)
+	public ReconciliationReport reconciliationStatistics() {
+		return healthCheckService.getLastReport();
+	}
+
+	/**
+	 * Hits, misses and hit ratio of each region of the second-level cache
+	 *
+	 * @return
+	 */
+	@ResponseBody
+	@RequestMapping(value = "/statistics/database/cache", method = RequestMethod.GET)
+	public Map<String, ReferenceEntityCache.RegionStatistics> databaseCacheStatistics() {
+		return referenceEntityCache.getStatistics();
+	}
+
+	/**
+	 * Logins, failures, database lookups and latency of the authentications
+	 *
+	 * @return
+	 */
+	@ResponseBody
+	@RequestMapping(value = "/statistics/authentication", method = RequestMethod.GET)
+	public TimedAuthenticationProvider.Statistics authenticationStatistics() {
+		return authenticationProvider.getStatistics();
+	}
+
+	/**
+	 * Queued, saved and fallback audit messages
+	 *
+	 * @return
+	 */
+	@ResponseBody
+	@RequestMapping(value = "/statistics/audit", method = RequestMethod.GET)
+	public MessageWriter.Statistics auditStatistics() {
+		return messageWriter.getStatistics();
+	}
+
+	/**
+	 * Runs and messages moved to the archive files
+	 *
+	 * @return
+	 */
+	@ResponseBody
+	@RequestMapping(value = "/statistics/audit/retention", method = RequestMethod.GET)
+	public MessageArchiver.Statistics auditRetentionStatistics() {
+		return messageArchiver.getStatistics();
+	}
+
+	/**
+	 * Requests of the dashboards and of the sampler, and requests sent to cAdvisor
+	 *
+	 * @return
+	 */
+	@ResponseBody
+	@RequestMapping(value = "/statistics/monitoring/cadvisor", method = RequestMethod.GET)
+	public CAdvisorClient.Statistics cAdvisorStatistics() {
+		return cAdvisorClient.getStatistics();
+	}
+
+	/**
+	 * Containers watched live, viewers, and events pushed to them
+	 *
+	 * @return
+	 */
+	@ResponseBody
+	@RequestMapping(value = "/statistics/monitoring/stream", method = RequestMethod.GET)
+	public ContainerStatsBroadcaster.Statistics monitoringStreamStatistics() {
+		return containerStatsBroadcaster.getStatistics();
+	}
+
 }
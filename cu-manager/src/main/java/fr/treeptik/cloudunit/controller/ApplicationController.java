@@ -52,6 +52,7 @@ import fr.treeptik.cloudunit.exception.FatalDockerJSONException;
 import fr.treeptik.cloudunit.exception.ServiceException;
 import fr.treeptik.cloudunit.factory.EnvUnitFactory;
 import fr.treeptik.cloudunit.model.Application;
+import fr.treeptik.cloudunit.model.Deployment;
 import fr.treeptik.cloudunit.model.Status;
 import fr.treeptik.cloudunit.model.User;
 import fr.treeptik.cloudunit.service.ApplicationService;
@@ -331,6 +332,53 @@ public class ApplicationController implements Serializable {
 		return applications;
 	}
 
+	/**
+	 * Return the summary of the applications of an User, as displayed by the
+	 * dashboard. The full entities are still returned by the list above for
+	 * the CLI.
+	 *
+	 * @return
+	 * @throws ServiceException
+	 */
+	@ResponseBody
+	@RequestMapping(value = "/summary", method = RequestMethod.GET)
+	public List<ApplicationSummary> findSummariesByUser() throws ServiceException {
+		User user = this.authentificationUtils.getAuthentificatedUser();
+		return applicationService.findSummariesByUser(user);
+	}
+
+	/**
+	 * Return the deployments of an application
+	 *
+	 * @param applicationName
+	 * @return
+	 * @throws ServiceException
+	 * @throws CheckException
+	 */
+	@ResponseBody
+	@RequestMapping(value = "/{applicationName}/deployments", method = RequestMethod.GET)
+	public List<Deployment> listDeployments(@PathVariable String applicationName)
+			throws ServiceException, CheckException {
+		User user = this.authentificationUtils.getAuthentificatedUser();
+		return applicationService.findDeployments(user, applicationName);
+	}
+
+	/**
+	 * Return the aliases of an application
+	 *
+	 * @param applicationName
+	 * @return
+	 * @throws ServiceException
+	 * @throws CheckException
+	 */
+	@ResponseBody
+	@RequestMapping(value = "/{applicationName}/aliases", method = RequestMethod.GET)
+	public List<String> listAliases(@PathVariable String applicationName)
+			throws ServiceException, CheckException {
+		User user = this.authentificationUtils.getAuthentificatedUser();
+		return applicationService.findAliases(user, applicationName);
+	}
+
 	/**
 	 * Deploy a web application
 	 *
@@ -409,7 +457,7 @@ public class ApplicationController implements Serializable {
 		List<EnvUnit> envUnits = null;
 		try {
 			User user = this.authentificationUtils.getAuthentificatedUser();
-			String content = dockerService.execCommand(containerName,
+			String content = dockerService.execReadOnlyCommand(containerName,
 					RemoteExecAction.GATHER_CU_ENV.getCommand() + " " + user.getLogin());
 			logger.debug(content);
 			envUnits = EnvUnitFactory.fromOutput(content);
@@ -1,8 +1,12 @@
 package fr.treeptik.cloudunit.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import javax.inject.Inject;
+import javax.servlet.http.HttpServletResponse;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,6 +17,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import fr.treeptik.cloudunit.docker.ExecResult;
 import fr.treeptik.cloudunit.dto.Command;
 import fr.treeptik.cloudunit.dto.HttpOk;
 import fr.treeptik.cloudunit.dto.JsonResponse;
@@ -63,4 +68,30 @@ public class CommandController {
         }
         return new HttpOk();
     }
+
+    /**
+     * Execute the command and send its output to the client as it is produced. The stream ends with a status
+     * line "[exit N]" holding the exit code of the command, "[exit ?]" when docker did not report it, so that a
+     * failed script can be told from a successful one.
+     */
+    @RequestMapping(value = "/{applicationName}/container/{containerName}/command/{filename}/exec/stream",
+        method = RequestMethod.POST, consumes = "application/json")
+    public void execCommandStream(@PathVariable String applicationName, @PathVariable String containerName,
+                                  @PathVariable String filename, @RequestBody Command command,
+                                  HttpServletResponse response) throws ServiceException, IOException {
+        logger.info("Execute by filename with streamed output");
+        User user = authentificationUtils.getAuthentificatedUser();
+        Application application = applicationService.findByNameAndUser(user, applicationName);
+        response.setContentType("text/plain;charset=UTF-8");
+        try (OutputStream output = response.getOutputStream()) {
+            applicationService.setStatus(application, Status.PENDING);
+            ExecResult result = commandService.execCommand(command, containerName, applicationName, output);
+            logger.debug(result.toString());
+            // on its own line, whatever the end of the output
+            String exitCode = result.getExitCode() != null ? result.getExitCode().toString() : "?";
+            output.write(("\n[exit " + exitCode + "]\n").getBytes(StandardCharsets.UTF_8));
+        } finally {
+            applicationService.setStatus(application, Status.START);
+        }
+    }
 }
@@ -15,6 +15,7 @@
 
 package fr.treeptik.cloudunit.controller;
 
+import fr.treeptik.cloudunit.docker.core.ImagePull;
 import fr.treeptik.cloudunit.exception.ServiceException;
 import fr.treeptik.cloudunit.model.Image;
 import fr.treeptik.cloudunit.model.User;
@@ -22,11 +23,14 @@ import fr.treeptik.cloudunit.service.ImageService;
 import fr.treeptik.cloudunit.utils.AuthentificationUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 
 import javax.inject.Inject;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 @Controller
 @RequestMapping("/image")
@@ -104,4 +108,32 @@ public class ImageController {
 
     }
 
+    /**
+     * Start the pull in the background, the progress is read with GET /image/pull
+     */
+    @RequestMapping(value = "/pull/async", method = RequestMethod.POST)
+    @ResponseStatus(value = HttpStatus.ACCEPTED)
+    public
+    @ResponseBody
+    Map<String, ImagePull> startPullImage(@RequestBody Image image) {
+        return imageService.startPull(image.getPath());
+    }
+
+    /**
+     * Progress of the pulls queued or running, layer by layer, on every docker host
+     */
+    @RequestMapping(value = "/pull", method = RequestMethod.GET)
+    public
+    @ResponseBody
+    Map<String, Collection<ImagePull>> listPulls() {
+        return imageService.findPulls();
+    }
+
+    @RequestMapping(value = "/pull", method = RequestMethod.DELETE)
+    public ResponseEntity<Void> cancelPull(@RequestParam String path) {
+        return imageService.cancelPull(path)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
 }
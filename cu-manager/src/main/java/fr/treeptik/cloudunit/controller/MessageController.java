@@ -27,10 +27,13 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
 import javax.inject.Inject;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Created by nicolas on 28/08/2014.
@@ -136,4 +139,52 @@ public class MessageController {
 		return messageService.listByUserNoLimitRows(authentificationUtils.getAuthentificatedUser());
 	}
 
+	/**
+	 * Messages of the user with an id between since and before excluded, the
+	 * most recent first : since to poll the new ones, before to read the
+	 * previous page
+	 *
+	 * @return
+	 * @throws ServiceException
+	 * @throws CheckException
+	 */
+	@RequestMapping(value = "/feed", method = RequestMethod.GET)
+	public @ResponseBody List<Message> listMessagesFeed(@RequestParam(required = false) Integer since,
+			@RequestParam(required = false) Integer before, @RequestParam(defaultValue = "10") int rows)
+			throws ServiceException, CheckException {
+		User user = authentificationUtils.getAuthentificatedUser();
+		return messageService.listByUser(user, since, before, Math.min(Math.max(rows, 1), 500));
+	}
+
+	/**
+	 * Messages of an application with an id between since and before
+	 * excluded, the most recent first
+	 *
+	 * @param applicationName
+	 * @return
+	 * @throws ServiceException
+	 * @throws CheckException
+	 */
+	@RequestMapping(value = "/application/{applicationName}/feed", method = RequestMethod.GET)
+	public @ResponseBody List<Message> listMessagesFeedForApplication(@PathVariable final String applicationName,
+			@RequestParam(required = false) Integer since, @RequestParam(required = false) Integer before,
+			@RequestParam(defaultValue = "10") int rows) throws ServiceException, CheckException {
+		User user = authentificationUtils.getAuthentificatedUser();
+		return messageService.listByApp(user, applicationName, since, before, Math.min(Math.max(rows, 1), 500));
+	}
+
+	/**
+	 * Number of messages of the user with an id greater than since
+	 *
+	 * @return
+	 * @throws ServiceException
+	 * @throws CheckException
+	 */
+	@RequestMapping(value = "/count", method = RequestMethod.GET)
+	public @ResponseBody Map<String, Long> countMessages(@RequestParam(required = false) Integer since)
+			throws ServiceException, CheckException {
+		User user = authentificationUtils.getAuthentificatedUser();
+		return Collections.singletonMap("count", messageService.countByUser(user, since));
+	}
+
 }
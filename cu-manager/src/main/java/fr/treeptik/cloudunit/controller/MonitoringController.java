@@ -15,6 +15,7 @@
 
 package fr.treeptik.cloudunit.controller;
 
+import java.io.IOException;
 import java.util.List;
 
 import javax.inject.Inject;
@@ -24,14 +25,21 @@ import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import fr.treeptik.cloudunit.exception.CheckException;
 import fr.treeptik.cloudunit.exception.ServiceException;
+import fr.treeptik.cloudunit.metrics.CAdvisorResponse;
+import fr.treeptik.cloudunit.metrics.ContainerStatsBroadcaster;
+import fr.treeptik.cloudunit.metrics.MetricSeries;
+import fr.treeptik.cloudunit.metrics.MetricStore;
 import fr.treeptik.cloudunit.model.Metric;
 import fr.treeptik.cloudunit.service.DockerService;
 import fr.treeptik.cloudunit.service.MonitoringService;
@@ -51,6 +59,12 @@ public class MonitoringController {
 	@Inject
 	private DockerService dockerService;
 
+	@Inject
+	private MetricStore metricStore;
+
+	@Inject
+	private ContainerStatsBroadcaster containerStatsBroadcaster;
+
 	/**
 	 * Is a wrapper to cAdvisor API
 	 *
@@ -60,15 +74,8 @@ public class MonitoringController {
 	 */
 	@RequestMapping(value = "/api/machine", method = RequestMethod.GET)
 	public void infoMachine(HttpServletRequest request, HttpServletResponse response)
-			throws ServiceException, CheckException {
-		String responseFromCAdvisor = monitoringService.getJsonMachineFromCAdvisor();
-		try {
-			response.getWriter().write(responseFromCAdvisor);
-			response.flushBuffer();
-		} catch (Exception e) {
-			logger.error("error during write and flush response", responseFromCAdvisor);
-		}
-
+			throws ServiceException, CheckException, IOException {
+		write(monitoringService.getJsonMachineFromCAdvisor(), request, response);
 	}
 
 	/**
@@ -80,21 +87,28 @@ public class MonitoringController {
 	 */
 	@RequestMapping(value = "/api/containers/docker/{containerName}", method = RequestMethod.GET)
 	public void infoContainer(HttpServletRequest request, HttpServletResponse response,
-			@PathVariable String containerName) throws ServiceException, CheckException {
-		try {
-			String containerId = dockerService.getContainerId(containerName);
-			String responseFromCAdvisor = monitoringService.getJsonFromCAdvisor(containerId);
-
-			if (logger.isDebugEnabled()) {
-				logger.debug("containerId=" + containerId);
-				logger.debug("responseFromCAdvisor=" + responseFromCAdvisor);
-			}
-
-			response.getWriter().write(responseFromCAdvisor);
-			response.flushBuffer();
-		} catch (Exception e) {
-			logger.error("error during write and flush response", containerName);
+			@PathVariable String containerName) throws ServiceException, CheckException, IOException {
+		String containerId = dockerService.getContainerId(containerName);
+		if (logger.isDebugEnabled()) {
+			logger.debug("containerId=" + containerId);
 		}
+		write(monitoringService.getJsonFromCAdvisor(containerName, containerId), request, response);
+	}
+
+	/**
+	 * Live stats of a container, pushed as server-sent events : an "init"
+	 * event with the response of cAdvisor, then "stats" events with the new
+	 * stats
+	 *
+	 * @param containerName
+	 * @return
+	 * @throws ServiceException
+	 * @throws CheckException
+	 */
+	@RequestMapping(value = "/stream/containers/docker/{containerName}", method = RequestMethod.GET,
+			produces = "text/event-stream")
+	public SseEmitter streamContainer(@PathVariable String containerName) throws ServiceException, CheckException {
+		return containerStatsBroadcaster.subscribe(containerName, dockerService.getContainerId(containerName));
 	}
 
 	@RequestMapping(value = "/metrics/{serverName}")
@@ -102,6 +116,56 @@ public class MonitoringController {
 		return monitoringService.findByServer(serverName);
 	}
 
+	/**
+	 * Metrics of a container sampled by the manager
+	 *
+	 * @param serverName
+	 *            : name of the container
+	 * @param resolution
+	 *            : 1m, 5m, 1h or auto for the finest one holding the range
+	 * @param from
+	 *            : ms, an hour before to when missing
+	 * @param to
+	 *            : ms, now when missing
+	 * @return
+	 * @throws CheckException
+	 */
+	@RequestMapping(value = "/metrics/{serverName}", params = "resolution")
+	public MetricSeries.Points findMetrics(@PathVariable("serverName") String serverName,
+			@RequestParam String resolution, @RequestParam(required = false) Long from,
+			@RequestParam(required = false) Long to) throws CheckException {
+		long now = System.currentTimeMillis();
+		long last = to == null ? now : to;
+		long first = from == null ? last - 3_600_000L : from;
+		MetricSeries.Resolution tier = "auto".equals(resolution) ? MetricSeries.Resolution.covering(first, now)
+				: MetricSeries.Resolution.of(resolution);
+		if (tier == null) {
+			throw new CheckException("Unknown resolution " + resolution + ", expected 1m, 5m, 1h or auto");
+		}
+		MetricSeries.Points points = metricStore.query(serverName, tier, first, last);
+		if (points == null) {
+			throw new CheckException("No metrics for " + serverName);
+		}
+		return points;
+	}
+
+	/**
+	 * Copy the body of cAdvisor to the response, gzipped if the client accepts it
+	 */
+	private void write(CAdvisorResponse cAdvisorResponse, HttpServletRequest request, HttpServletResponse response)
+			throws IOException {
+		String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		boolean gzip = cAdvisorResponse.isGzip() && acceptEncoding != null && acceptEncoding.contains("gzip");
+		response.setStatus(cAdvisorResponse.getStatus());
+		response.setContentType(cAdvisorResponse.getContentType());
+		response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (gzip) {
+			response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+		cAdvisorResponse.writeTo(response.getOutputStream(), gzip);
+		response.flushBuffer();
+	}
+
 	/**
 	 * Return the position into the architecture of the service
 	 * @return
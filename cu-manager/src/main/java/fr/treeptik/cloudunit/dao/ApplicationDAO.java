@@ -15,6 +15,7 @@
 
 package fr.treeptik.cloudunit.dao;
 
+import fr.treeptik.cloudunit.dto.ApplicationSummary;
 import fr.treeptik.cloudunit.model.Application;
 import fr.treeptik.cloudunit.model.Status;
 import org.springframework.dao.DataAccessException;
@@ -40,11 +41,46 @@ public interface ApplicationDAO extends JpaRepository<Application, Integer> {
 	public List<Application> findAllByUser(@Param("userId") Integer userId,
 			@Param("cuInstanceName") String cuInstanceName) throws DataAccessException;
 
+	/**
+	 * Summary of the applications of a user, without loading their collections.
+	 */
+	@Query("Select new fr.treeptik.cloudunit.dto.ApplicationSummary(a.id, a.name, a.displayName, a.status, "
+			+ "a.deploymentStatus, a.contextPath, u.login, i.displayName, i.prefixEnv, "
+			+ "(select count(m) from Module m where m.application = a), "
+			+ "(select max(d.date) from Deployment d where d.application = a)) "
+			+ "from Application a join a.user u left join a.server s left join s.image i "
+			+ "where u.id=:userId and a.cuInstanceName=:cuInstanceName order by a.id")
+	List<ApplicationSummary> findSummariesByUser(@Param("userId") Integer userId,
+			@Param("cuInstanceName") String cuInstanceName) throws DataAccessException;
+
+	/**
+	 * Pairs of application id and display name of the images of its modules, for all the applications of a
+	 * user.
+	 */
+	@Query("select m.application.id, i.displayName from Module m join m.image i "
+			+ "where m.application.user.id=:userId and m.application.cuInstanceName=:cuInstanceName "
+			+ "and i.imageType='module' order by m.id")
+	List<Object[]> findModuleImagesByUser(@Param("userId") Integer userId,
+			@Param("cuInstanceName") String cuInstanceName) throws DataAccessException;
+
+	/**
+	 * All the applications with their user, server, modules and images, loaded in a single query.
+	 */
+	@Query("Select distinct a from Application a " + "left join fetch a.user u left join fetch u.role "
+			+ "left join fetch a.server s left join fetch s.image "
+			+ "left join fetch a.modules m left join fetch m.image")
+	List<Application> findAllWithContainers() throws DataAccessException;
+
 	@Query("select al from Application a left join a.aliases al where a.name=:name "
 			+ "and a.cuInstanceName=:cuInstanceName")
 	public List<String> findAllAliases(@Param("name") String applicationName,
 			@Param("cuInstanceName") String cuInstanceName) throws DataAccessException;
 
+	@Query("select al from Application a left join a.aliases al where a.name=:name and a.user.login=:login "
+			+ "and a.cuInstanceName=:cuInstanceName")
+	List<String> findAllAliasesByUserLogin(@Param("login") String userLogin, @Param("name") String applicationName,
+			@Param("cuInstanceName") String cuInstanceName) throws DataAccessException;
+
 	@Query("select al from Application a left join a.aliases al")
 	public List<String> findAliasesForAllApps() throws DataAccessException;
 
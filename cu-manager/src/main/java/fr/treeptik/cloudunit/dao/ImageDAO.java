@@ -16,9 +16,13 @@
 package fr.treeptik.cloudunit.dao;
 
 import fr.treeptik.cloudunit.model.Image;
+
+import javax.persistence.QueryHint;
+
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
@@ -26,14 +30,20 @@ import java.util.List;
 public interface ImageDAO
     extends JpaRepository<Image, Integer> {
 
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = "imageQueries")})
     @Query("Select i from Image i where i.name=:name")
     Image findByName(@Param("name") String name)
         throws DataAccessException;
 
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = "imageQueries")})
     @Query("select i from Image i where i.isEnable is TRUE")
     List<Image> findAllEnabledImages()
         throws DataAccessException;
 
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = "imageQueries")})
     @Query("select i from Image i where i.imageType=:imageType and i.isEnable is TRUE")
     List<Image> findAllEnabledImagesByType(@Param("imageType") String imageType)
         throws DataAccessException;
@@ -25,25 +25,64 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Date;
+import java.util.List;
+
 public interface MessageDAO
     extends JpaRepository<Message, Integer> {
 
+    /**
+     * Messages of a user with an id between since and before excluded, the most recent first.
+     */
     @Query("Select m from Message m where m.author=:user " +
             "and m.cuInstanceName=:cuInstanceName " +
+            "and m.id > :since and m.id < :before " +
             "order by m.id DESC")
-    Page<Message> listByUserAndCuInstance(@Param("user") User user,
-                                          @Param("cuInstanceName") String cuInstanceName,
-                                          Pageable pageable)
+    List<Message> listByUserBetween(@Param("user") User user,
+                                    @Param("cuInstanceName") String cuInstanceName,
+                                    @Param("since") Integer since,
+                                    @Param("before") Integer before,
+                                    Pageable pageable)
         throws DataAccessException;
 
-    @Query("Select m from Message m where m.applicationName=:applicationName " +
-            "and m.author=:user " +
+    /**
+     * Messages of an application with an id between since and before excluded, the most recent first.
+     */
+    @Query("Select m from Message m where m.author=:user " +
             "and m.cuInstanceName=:cuInstanceName " +
+            "and m.applicationName=:applicationName " +
+            "and m.id > :since and m.id < :before " +
             "order by m.id DESC")
-    Page<Message> listByApp(@Param("user") User user,
-                            @Param("applicationName") String applicationName,
-                            @Param("cuInstanceName") String cuInstanceName,
-                            Pageable pageable)
+    List<Message> listByAppBetween(@Param("user") User user,
+                                   @Param("applicationName") String applicationName,
+                                   @Param("cuInstanceName") String cuInstanceName,
+                                   @Param("since") Integer since,
+                                   @Param("before") Integer before,
+                                   Pageable pageable)
+        throws DataAccessException;
+
+    @Query("Select count(m) from Message m where m.author=:user " +
+            "and m.cuInstanceName=:cuInstanceName and m.id > :since")
+    Long countByUserSince(@Param("user") User user,
+                          @Param("cuInstanceName") String cuInstanceName,
+                          @Param("since") Integer since)
+        throws DataAccessException;
+
+    /**
+     * Oldest messages of an instance saved before a date. The messages are saved in the order of their ids so the
+     * scan of the primary key stops at the first recent ones.
+     */
+    @Query("Select m from Message m join fetch m.author " +
+            "where m.cuInstanceName=:cuInstanceName and m.date < :before " +
+            "order by m.id ASC")
+    List<Message> listOlderThan(@Param("cuInstanceName") String cuInstanceName,
+                                @Param("before") Date before,
+                                Pageable pageable)
+        throws DataAccessException;
+
+    @Modifying
+    @Query("delete from Message m where m.id in :ids")
+    void deleteByIds(@Param("ids") List<Integer> ids)
         throws DataAccessException;
 
     @Query("Select m from Message m  order by m.id DESC")
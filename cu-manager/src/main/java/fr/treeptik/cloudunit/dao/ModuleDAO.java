@@ -57,4 +57,13 @@ public interface ModuleDAO extends JpaRepository<Module, Integer> {
             + "where a.id=:applicationId " + "and i.prefixEnv=:imagePrefixEnv")
     Long countModuleNameByApplication(@Param("imagePrefixEnv") String imagePrefixEnv,
             @Param("applicationId") Integer applicationId);
+
+    @Query("select m.dockerHost from Module m where m.name=:name or m.containerID=:name")
+    List<String> findDockerHostByNameOrContainerID(@Param("name") String name) throws DataAccessException;
+
+    @Query("select m.dockerHost, count(m) from Module m group by m.dockerHost")
+    List<Object[]> countByDockerHost() throws DataAccessException;
+
+    @Query("select m.name, m.containerID, m.dockerHost, m.status from Module m")
+    List<Object[]> findContainers() throws DataAccessException;
 }
@@ -0,0 +1,103 @@
+package fr.treeptik.cloudunit.dao;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import fr.treeptik.cloudunit.model.Image;
+
+/**
+ * Second-level cache of the read-mostly entities (image, role, registry, user), whose regions are declared in
+ * ehcache.xml.
+ */
+@Component
+public class ReferenceEntityCache {
+
+    public static final String IMAGE_QUERIES = "imageQueries";
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Drop the cached images and the results of the queries on them, after an administrator changed one.
+     */
+    public void evictImages() {
+        org.hibernate.Cache cache = sessionFactory().getCache();
+        cache.evictEntityRegion(Image.class);
+        cache.evictCollectionRegion(Image.class.getName() + ".exposedPorts");
+        cache.evictCollectionRegion(Image.class.getName() + ".moduleEnvironmentVariables");
+        cache.evictQueryRegion(IMAGE_QUERIES);
+    }
+
+    /**
+     * @return hits, misses and size of each region, empty when the statistics are disabled
+     */
+    public Map<String, RegionStatistics> getStatistics() {
+        Statistics statistics = sessionFactory().getStatistics();
+        Map<String, RegionStatistics> regions = new TreeMap<>();
+        if (!statistics.isStatisticsEnabled()) {
+            return regions;
+        }
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            SecondLevelCacheStatistics regionStatistics = statistics.getSecondLevelCacheStatistics(region);
+            if (regionStatistics != null) {
+                regions.put(region, new RegionStatistics(regionStatistics.getHitCount(),
+                        regionStatistics.getMissCount(), regionStatistics.getPutCount(),
+                        regionStatistics.getElementCountInMemory()));
+            }
+        }
+        return regions;
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public static class RegionStatistics {
+
+        private final long hits;
+
+        private final long misses;
+
+        private final long puts;
+
+        private final long elements;
+
+        public RegionStatistics(long hits, long misses, long puts, long elements) {
+            this.hits = hits;
+            this.misses = misses;
+            this.puts = puts;
+            this.elements = elements;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getPuts() {
+            return puts;
+        }
+
+        public long getElements() {
+            return elements;
+        }
+
+        public double getHitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+    }
+
+}
@@ -15,6 +15,8 @@
 
 package fr.treeptik.cloudunit.dao;
 
+import java.util.List;
+
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -33,4 +35,12 @@ public interface ServerDAO extends JpaRepository<Server, Integer> {
 	@Query("Select distinct s " + "from Server s " + "left join fetch s.image " + "where s.containerID=:id")
 	Server findByContainerID(@Param("id") String id) throws DataAccessException;
 
+	@Query("select s.dockerHost from Server s where s.name=:name or s.containerID=:name")
+	List<String> findDockerHostByNameOrContainerID(@Param("name") String name) throws DataAccessException;
+
+	@Query("select s.dockerHost, count(s) from Server s group by s.dockerHost")
+	List<Object[]> countByDockerHost() throws DataAccessException;
+
+	@Query("select s.name, s.containerID, s.dockerHost, s.status from Server s")
+	List<Object[]> findContainers() throws DataAccessException;
 }
@@ -16,9 +16,13 @@
 package fr.treeptik.cloudunit.dao;
 
 import fr.treeptik.cloudunit.model.User;
+
+import javax.persistence.QueryHint;
+
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
@@ -30,6 +34,8 @@ public interface UserDAO
     List<User> findByEmail(@Param("email") String email)
         throws DataAccessException;
 
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = "userQueries")})
     @Query("Select u from User u where u.login=:login")
     User findByLogin(@Param("login") String login)
         throws DataAccessException;
@@ -0,0 +1,63 @@
+package fr.treeptik.cloudunit.docker;
+
+import com.spotify.docker.client.DockerClient;
+
+import fr.treeptik.cloudunit.docker.core.ContainerStateCache;
+import fr.treeptik.cloudunit.docker.core.DockerCloudUnitClient;
+
+/**
+ * A docker engine able to run the containers of the applications, with the clients used to reach it.
+ */
+public class DockerHost {
+
+    private final String name;
+
+    private final String location;
+
+    private final String cAdvisorURL;
+
+    private final DockerCloudUnitClient dockerCloudUnitClient;
+
+    private final DockerClient dockerClient;
+
+    private final ContainerStateCache containerStateCache;
+
+    public DockerHost(String name, String location, String cAdvisorURL, DockerCloudUnitClient dockerCloudUnitClient,
+                      DockerClient dockerClient, ContainerStateCache containerStateCache) {
+        this.name = name;
+        this.location = location;
+        this.cAdvisorURL = cAdvisorURL;
+        this.dockerCloudUnitClient = dockerCloudUnitClient;
+        this.dockerClient = dockerClient;
+        this.containerStateCache = containerStateCache;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getCAdvisorURL() {
+        return cAdvisorURL;
+    }
+
+    public DockerCloudUnitClient getDockerCloudUnitClient() {
+        return dockerCloudUnitClient;
+    }
+
+    public DockerClient getDockerClient() {
+        return dockerClient;
+    }
+
+    public ContainerStateCache getContainerStateCache() {
+        return containerStateCache;
+    }
+
+    @Override
+    public String toString() {
+        return "DockerHost{" + "name='" + name + '\'' + ", location='" + location + '\'' + '}';
+    }
+}
@@ -0,0 +1,232 @@
+package fr.treeptik.cloudunit.docker;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.spotify.docker.client.DefaultDockerClient;
+import com.spotify.docker.client.DockerCertificates;
+import com.spotify.docker.client.DockerClient;
+
+import fr.treeptik.cloudunit.dao.ModuleDAO;
+import fr.treeptik.cloudunit.dao.ServerDAO;
+import fr.treeptik.cloudunit.docker.core.AsyncDockerDriver;
+import fr.treeptik.cloudunit.docker.core.ContainerStateCache;
+import fr.treeptik.cloudunit.docker.core.DockerCloudUnitClient;
+import fr.treeptik.cloudunit.docker.core.ImagePuller;
+import fr.treeptik.cloudunit.docker.core.SimpleDockerDriver;
+
+/**
+ * Docker engines available to run the containers.
+ * The default host is the one configured by docker.socket.location. Additional hosts are listed in
+ * docker.hosts and described by docker.host.{name}.endpoint, docker.host.{name}.mode,
+ * docker.host.{name}.certs and docker.host.{name}.cadvisor.
+ * Every operation on an existing container is routed to the host recorded on it.
+ */
+@Component
+public class DockerHostPool {
+
+    private static final int FULL_ID_LENGTH = 64;
+
+    private static final int SHORT_ID_LENGTH = 12;
+
+    private Logger logger = LoggerFactory.getLogger(DockerHostPool.class);
+
+    @Inject
+    private Environment environment;
+
+    @Inject
+    private DockerCloudUnitClient dockerCloudUnitClient;
+
+    @Inject
+    private DockerClient dockerClient;
+
+    @Inject
+    private ContainerStateCache containerStateCache;
+
+    @Inject
+    private ServerDAO serverDAO;
+
+    @Inject
+    private ModuleDAO moduleDAO;
+
+    @Value("${docker.default.host.name:default}")
+    private String defaultHostName;
+
+    @Value("${docker.socket.location}")
+    private String defaultLocation;
+
+    @Value("${cadvisor.url:}")
+    private String defaultCAdvisorURL;
+
+    @Value("${docker.hosts:}")
+    private String hostNames;
+
+    @Value("${docker.state.cache.ttl:5000}")
+    private long stateCacheTimeToLive;
+
+    private final Map<String, DockerHost> hosts = new LinkedHashMap<>();
+
+    private final ConcurrentMap<String, String> containerHosts = new ConcurrentHashMap<>();
+
+    private DockerHost defaultHost;
+
+    @PostConstruct
+    public void init() {
+        defaultHost = new DockerHost(defaultHostName, defaultLocation, defaultCAdvisorURL, dockerCloudUnitClient,
+                dockerClient, containerStateCache);
+        hosts.put(defaultHostName, defaultHost);
+        for (String name : hostNames.split(",")) {
+            name = name.trim();
+            if (name.isEmpty() || hosts.containsKey(name)) {
+                continue;
+            }
+            try {
+                hosts.put(name, newHost(name));
+            } catch (Exception e) {
+                logger.error("Cannot register the docker host " + name, e);
+            }
+        }
+        logger.info("Docker hosts : " + hosts.values());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        hosts.values().stream().filter(h -> h != defaultHost).forEach(h -> {
+            try {
+                h.getDockerCloudUnitClient().close();
+            } catch (IOException e) {
+                logger.warn("Cannot close the client of " + h.getName(), e);
+            }
+            h.getDockerClient().close();
+        });
+    }
+
+    public DockerHost getDefaultHost() {
+        return defaultHost;
+    }
+
+    public Collection<DockerHost> getHosts() {
+        return Collections.unmodifiableCollection(hosts.values());
+    }
+
+    public boolean isMultiHost() {
+        return hosts.size() > 1;
+    }
+
+    /**
+     * @param name
+     * @return the host with this name, the default host if the name is null or unknown
+     */
+    public DockerHost getHost(String name) {
+        if (name == null) {
+            return defaultHost;
+        }
+        DockerHost host = hosts.get(name);
+        if (host == null) {
+            logger.warn("Unknown docker host " + name + ", the default host is used");
+            return defaultHost;
+        }
+        return host;
+    }
+
+    /**
+     * @param containerNameOrId name, short or full id of the container
+     * @return the host running this container, the default host if it is not recorded yet
+     */
+    public DockerHost forContainer(String containerNameOrId) {
+        if (!isMultiHost() || containerNameOrId == null) {
+            return defaultHost;
+        }
+        String key = key(containerNameOrId);
+        String hostName = containerHosts.get(key);
+        if (hostName == null) {
+            List<String> candidates = new ArrayList<>(serverDAO.findDockerHostByNameOrContainerID(key));
+            candidates.addAll(moduleDAO.findDockerHostByNameOrContainerID(key));
+            hostName = candidates.stream().filter(h -> h != null).findFirst().orElse(null);
+            if (hostName == null) {
+                // not kept : the container may not be saved yet
+                logger.debug("No docker host recorded for " + key + ", the default host is used");
+                return defaultHost;
+            }
+            containerHosts.put(key, hostName);
+        }
+        return getHost(hostName);
+    }
+
+    /**
+     * Record the host chosen for a new container.
+     *
+     * @param containerName
+     * @param host
+     */
+    public void assign(String containerName, DockerHost host) {
+        containerHosts.put(key(containerName), host.getName());
+    }
+
+    /**
+     * Forget the host of a removed container.
+     *
+     * @param containerNameOrId
+     */
+    public void release(String containerNameOrId) {
+        if (containerNameOrId != null) {
+            containerHosts.remove(key(containerNameOrId));
+        }
+    }
+
+    /**
+     * The ids are recorded in their short form, as the containerID of the servers and modules.
+     */
+    private String key(String containerNameOrId) {
+        String key = containerNameOrId.startsWith("/") ? containerNameOrId.substring(1) : containerNameOrId;
+        return key.length() == FULL_ID_LENGTH && key.matches("[0-9a-f]+") ? key.substring(0, SHORT_ID_LENGTH) : key;
+    }
+
+    private DockerHost newHost(String name) throws Exception {
+        String prefix = "docker.host." + name + ".";
+        String location = environment.getRequiredProperty(prefix + "endpoint");
+        String mode = environment.getProperty(prefix + "mode", environment.getProperty("docker.endpoint.mode", "http"));
+        String certs = environment.getProperty(prefix + "certs", environment.getProperty("docker.certs.dir.path", ""));
+        String cAdvisorURL = environment.getProperty(prefix + "cadvisor", "");
+        boolean useTLS = mode.equalsIgnoreCase("https");
+
+        DockerCloudUnitClient client = new DockerCloudUnitClient();
+        client.setDriver(new SimpleDockerDriver(false, mode, location, useTLS ? certs : null,
+                environment.getProperty("docker.pool.max.total", Integer.class, 100),
+                environment.getProperty("docker.pool.max.per.route", Integer.class, 100),
+                environment.getProperty("docker.pool.idle.timeout", Integer.class, 30)));
+        client.setAsyncDriver(new AsyncDockerDriver(client.getDriver(),
+                environment.getProperty("docker.async.max.inflight", Integer.class, 16)));
+        client.setImagePuller(new ImagePuller(client.getDriver(),
+                environment.getProperty("docker.pull.max.concurrent", Integer.class, 2)));
+
+        DockerClient spotifyClient;
+        if (useTLS) {
+            spotifyClient = DefaultDockerClient.builder().uri("https://" + location)
+                    .dockerCertificates(new DockerCertificates(Paths.get(certs))).build();
+        } else {
+            spotifyClient = DefaultDockerClient.builder().uri("http://" + location).build();
+        }
+        return new DockerHost(name, location, cAdvisorURL, client, spotifyClient,
+                new ContainerStateCache(client, stateCacheTimeToLive));
+    }
+
+}
@@ -0,0 +1,111 @@
+package fr.treeptik.cloudunit.docker;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Single flight of the read-only docker requests : while a request is in flight, the identical calls
+ * (same key) wait for it and get its result or its exception instead of sending their own request.
+ * Nothing is kept once the request is done, the next call sends a new request.
+ */
+@Component
+public class DockerRequestCoalescer {
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong executions = new AtomicLong();
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * @param key identifies the request : the operation and all its arguments
+     * @param request
+     * @return the result of the request in flight for this key, or of this request
+     * @throws Exception raised by the request
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Callable<T> request) throws Exception {
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            try {
+                return (T) running.get();
+            } catch (ExecutionException e) {
+                throw rethrow(e.getCause());
+            }
+        }
+        executions.incrementAndGet();
+        T result = null;
+        Throwable failure = null;
+        try {
+            result = request.call();
+        } catch (Throwable t) {
+            failure = t;
+        }
+        // late callers must not get a result that is already done
+        inFlight.remove(key, own);
+        if (failure != null) {
+            own.completeExceptionally(failure);
+            throw rethrow(failure);
+        }
+        own.complete(result);
+        return result;
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(executions.get(), coalesced.get(), inFlight.size());
+    }
+
+    private static Exception rethrow(Throwable t) {
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return (Exception) t;
+    }
+
+    public static class Statistics {
+
+        private final long executions;
+
+        private final long coalesced;
+
+        private final int inFlight;
+
+        public Statistics(long executions, long coalesced, int inFlight) {
+            this.executions = executions;
+            this.coalesced = coalesced;
+            this.inFlight = inFlight;
+        }
+
+        /**
+         * @return number of requests sent to docker
+         */
+        public long getExecutions() {
+            return executions;
+        }
+
+        /**
+         * @return number of calls served by a request already in flight
+         */
+        public long getCoalesced() {
+            return coalesced;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        public double getCoalescedRatio() {
+            long total = executions + coalesced;
+            return total == 0 ? 0 : (double) coalesced / total;
+        }
+    }
+
+}
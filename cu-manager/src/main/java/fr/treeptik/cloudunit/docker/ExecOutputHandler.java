@@ -0,0 +1,19 @@
+package fr.treeptik.cloudunit.docker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Receive the output of a command executed in a container, frame by frame, as the daemon sends it.
+ */
+@FunctionalInterface
+public interface ExecOutputHandler {
+
+    /**
+     * @param stderr true if the frame was written on the standard error
+     * @param frame content of the frame, only valid during the call
+     * @throws IOException to stop reading the output, for example when the client went away
+     */
+    void onOutput(boolean stderr, ByteBuffer frame) throws IOException;
+
+}
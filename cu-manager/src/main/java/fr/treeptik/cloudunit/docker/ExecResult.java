@@ -0,0 +1,48 @@
+package fr.treeptik.cloudunit.docker;
+
+/**
+ * Outcome of a command executed in a container once its output has been consumed.
+ */
+public class ExecResult {
+
+    private final String execId;
+
+    private final Integer exitCode;
+
+    private final long outputLength;
+
+    public ExecResult(String execId, Integer exitCode, long outputLength) {
+        this.execId = execId;
+        this.exitCode = exitCode;
+        this.outputLength = outputLength;
+    }
+
+    public String getExecId() {
+        return execId;
+    }
+
+    /**
+     * @return exit code reported by exec inspect, null if the command is still running (detached)
+     */
+    public Integer getExitCode() {
+        return exitCode;
+    }
+
+    /**
+     * @return number of bytes written by the command on stdout and stderr
+     */
+    public long getOutputLength() {
+        return outputLength;
+    }
+
+    public boolean isSuccess() {
+        return exitCode != null && exitCode == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecResult{" + "execId='" + execId + '\'' + ", exitCode=" + exitCode + ", outputLength="
+                + outputLength + '}';
+    }
+
+}
@@ -0,0 +1,140 @@
+package fr.treeptik.cloudunit.docker;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.treeptik.cloudunit.dao.ModuleDAO;
+import fr.treeptik.cloudunit.dao.ServerDAO;
+import fr.treeptik.cloudunit.metrics.CAdvisorClient;
+
+/**
+ * Choose the docker host of a new container.
+ * Hosts are packed in a best fit manner : the container goes to the host that will have the least free
+ * memory left once it is placed, as long as the memory and the cpu reported by cAdvisor
+ * (/api/v1.3/machine) can hold it. Each container reserves docker.placement.container.memory bytes and
+ * a host accepts up to docker.placement.containers.per.core containers per core.
+ */
+@Component
+public class PlacementScheduler {
+
+    private Logger logger = LoggerFactory.getLogger(PlacementScheduler.class);
+
+    private static final long MACHINE_INFO_TTL = TimeUnit.MINUTES.toMillis(10);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Inject
+    private DockerHostPool dockerHostPool;
+
+    @Inject
+    private ServerDAO serverDAO;
+
+    @Inject
+    private ModuleDAO moduleDAO;
+
+    @Inject
+    private CAdvisorClient cAdvisorClient;
+
+    @Value("${docker.placement.container.memory:536870912}")
+    private long containerMemory;
+
+    @Value("${docker.placement.containers.per.core:4}")
+    private int containersPerCore;
+
+    private final ConcurrentMap<String, Machine> machines = new ConcurrentHashMap<>();
+
+    /**
+     * @return the host of the next container, the default host when there is a single host
+     */
+    public synchronized DockerHost place() {
+        if (!dockerHostPool.isMultiHost()) {
+            return dockerHostPool.getDefaultHost();
+        }
+        Map<String, Long> containers = countContainersByHost();
+        DockerHost best = null;
+        long bestFreeMemory = Long.MAX_VALUE;
+        DockerHost leastLoaded = dockerHostPool.getDefaultHost();
+        long leastLoadedFreeMemory = Long.MIN_VALUE;
+        for (DockerHost host : dockerHostPool.getHosts()) {
+            Machine machine = getMachine(host);
+            if (machine == null) {
+                continue;
+            }
+            long count = containers.getOrDefault(host.getName(), 0L);
+            long freeMemory = machine.memoryCapacity - (count + 1) * containerMemory;
+            boolean cpuAvailable = count + 1 <= (long) machine.cores * containersPerCore;
+            if (freeMemory >= 0 && cpuAvailable && freeMemory < bestFreeMemory) {
+                best = host;
+                bestFreeMemory = freeMemory;
+            }
+            if (freeMemory > leastLoadedFreeMemory) {
+                leastLoaded = host;
+                leastLoadedFreeMemory = freeMemory;
+            }
+        }
+        if (best == null) {
+            logger.warn("No docker host has enough capacity left, the least loaded one is used : " + leastLoaded);
+            best = leastLoaded;
+        }
+        logger.info("Container placed on " + best);
+        return best;
+    }
+
+    private Map<String, Long> countContainersByHost() {
+        Map<String, Long> counts = new HashMap<>();
+        String defaultHostName = dockerHostPool.getDefaultHost().getName();
+        Stream.concat(serverDAO.countByDockerHost().stream(), moduleDAO.countByDockerHost().stream())
+                .forEach(row -> counts.merge(row[0] != null ? (String) row[0] : defaultHostName, (Long) row[1],
+                        Long::sum));
+        return counts;
+    }
+
+    private Machine getMachine(DockerHost host) {
+        Machine machine = machines.get(host.getName());
+        if (machine != null && machine.fetchedAt + MACHINE_INFO_TTL > System.currentTimeMillis()) {
+            return machine;
+        }
+        if (host.getCAdvisorURL() == null || host.getCAdvisorURL().isEmpty()) {
+            logger.warn("No cAdvisor configured for " + host + ", the host is not a placement candidate");
+            return null;
+        }
+        try (InputStream in = cAdvisorClient.get(host.getCAdvisorURL() + "/api/v1.3/machine").openStream()) {
+            JsonNode node = objectMapper.readTree(in);
+            machine = new Machine(node.path("memory_capacity").asLong(), node.path("num_cores").asInt(1));
+            machines.put(host.getName(), machine);
+        } catch (Exception e) {
+            logger.error("Cannot read the machine of " + host + " from cAdvisor", e);
+        }
+        return machine;
+    }
+
+    private static class Machine {
+
+        private final long memoryCapacity;
+
+        private final int cores;
+
+        private final long fetchedAt = System.currentTimeMillis();
+
+        private Machine(long memoryCapacity, int cores) {
+            this.memoryCapacity = memoryCapacity;
+            this.cores = cores;
+        }
+    }
+
+}
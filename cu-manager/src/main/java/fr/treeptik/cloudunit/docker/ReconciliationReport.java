@@ -0,0 +1,82 @@
+package fr.treeptik.cloudunit.docker;
+
+import java.util.Date;
+
+/**
+ * Outcome of a reconciliation of the containers with the status of their applications.
+ */
+public class ReconciliationReport {
+
+    private final Date date;
+
+    private final long durationMillis;
+
+    private final int containers;
+
+    private final int notStarted;
+
+    private final int notStopped;
+
+    private final int missing;
+
+    private final int failedActions;
+
+    public ReconciliationReport(Date date, long durationMillis, int containers, int notStarted, int notStopped,
+            int missing, int failedActions) {
+        this.date = date;
+        this.durationMillis = durationMillis;
+        this.containers = containers;
+        this.notStarted = notStarted;
+        this.notStopped = notStopped;
+        this.missing = missing;
+        this.failedActions = failedActions;
+    }
+
+    public Date getDate() {
+        return date;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * @return number of containers of the started or stopped applications
+     */
+    public int getContainers() {
+        return containers;
+    }
+
+    /**
+     * @return containers stopped while their application is started, a start was sent to each of them
+     */
+    public int getNotStarted() {
+        return notStarted;
+    }
+
+    /**
+     * @return containers running while their application is stopped, a stop was sent to each of them
+     */
+    public int getNotStopped() {
+        return notStopped;
+    }
+
+    /**
+     * @return containers known in database but not found on any docker host
+     */
+    public int getMissing() {
+        return missing;
+    }
+
+    public int getFailedActions() {
+        return failedActions;
+    }
+
+    @Override
+    public String toString() {
+        return "ReconciliationReport{" + "durationMillis=" + durationMillis + ", containers=" + containers
+                + ", notStarted=" + notStarted + ", notStopped=" + notStopped + ", missing=" + missing
+                + ", failedActions=" + failedActions + '}';
+    }
+
+}
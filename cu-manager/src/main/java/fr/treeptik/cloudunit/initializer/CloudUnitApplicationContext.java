@@ -21,6 +21,9 @@ import com.spotify.docker.client.DefaultDockerClient;
 import com.spotify.docker.client.DockerCertificates;
 import com.spotify.docker.client.DockerClient;
 import fr.treeptik.cloudunit.config.EmailActiveCondition;
+import fr.treeptik.cloudunit.docker.core.AsyncDockerDriver;
+import fr.treeptik.cloudunit.docker.core.ImagePuller;
+import fr.treeptik.cloudunit.docker.core.ContainerStateCache;
 import fr.treeptik.cloudunit.docker.core.DockerCloudUnitClient;
 import fr.treeptik.cloudunit.docker.core.SimpleDockerDriver;
 import org.slf4j.Logger;
@@ -71,7 +74,8 @@ import java.util.Properties;
         "fr.treeptik.cloudunit.utils", "fr.treeptik.cloudunit.aspects",
         "fr.treeptik.cloudunit.manager", "fr.treeptik.cloudunit.manager.impl",
         "fr.treeptik.cloudunit.schedule", "fr.treeptik.cloudunit.schedule.tasks",
-        "fr.treeptik.cloudunit.logs"
+        "fr.treeptik.cloudunit.logs", "fr.treeptik.cloudunit.audit",
+        "fr.treeptik.cloudunit.metrics"
 })
 @PropertySource({"classpath:/application.properties"})
 @PropertySource({"classpath:/maven.properties"})
@@ -232,21 +236,36 @@ public class CloudUnitApplicationContext
         return multipartResolver;
     }
 
-    @Bean
+    @Bean(destroyMethod = "close")
     public DockerCloudUnitClient dockerCloudUnitClient(@Value("${docker.endpoint.mode}") String endpoint,
                                                        @Value("${docker.socket.location}") String dockerSocketLocation,
-                                                       @Value("${docker.certs.dir.path:}") String certPathDirectory) {
+                                                       @Value("${docker.certs.dir.path:}") String certPathDirectory,
+                                                       @Value("${docker.pool.max.total:100}") int maxTotalConnections,
+                                                       @Value("${docker.pool.max.per.route:100}") int maxConnectionsPerRoute,
+                                                       @Value("${docker.pool.idle.timeout:30}") int idleTimeoutSeconds,
+                                                       @Value("${docker.async.max.inflight:16}") int maxInFlightRequests,
+                                                       @Value("${docker.pull.max.concurrent:2}") int maxConcurrentPulls) {
         boolean useUnixSocket = endpoint.equalsIgnoreCase("unix");
         logger.info("Socket mode : " + (useUnixSocket ? "unix" : "tcp"));
         DockerCloudUnitClient dockerCloudUnitClient = new DockerCloudUnitClient();
         if (useUnixSocket) {
-            dockerCloudUnitClient.setDriver(new SimpleDockerDriver(true, endpoint, dockerSocketLocation, null));
+            dockerCloudUnitClient.setDriver(new SimpleDockerDriver(true, endpoint, dockerSocketLocation, null,
+                    maxTotalConnections, maxConnectionsPerRoute, idleTimeoutSeconds));
         } else {
-            dockerCloudUnitClient.setDriver(new SimpleDockerDriver(false,  endpoint, dockerSocketLocation, certPathDirectory));
+            dockerCloudUnitClient.setDriver(new SimpleDockerDriver(false,  endpoint, dockerSocketLocation, certPathDirectory,
+                    maxTotalConnections, maxConnectionsPerRoute, idleTimeoutSeconds));
         }
+        dockerCloudUnitClient.setAsyncDriver(new AsyncDockerDriver(dockerCloudUnitClient.getDriver(), maxInFlightRequests));
+        dockerCloudUnitClient.setImagePuller(new ImagePuller(dockerCloudUnitClient.getDriver(), maxConcurrentPulls));
         return dockerCloudUnitClient;
     }
 
+    @Bean
+    public ContainerStateCache containerStateCache(DockerCloudUnitClient dockerCloudUnitClient,
+                                                   @Value("${docker.state.cache.ttl:5000}") long timeToLiveMillis) {
+        return new ContainerStateCache(dockerCloudUnitClient, timeToLiveMillis);
+    }
+
     @Bean
     public DockerClient dockerClient(@Value("${docker.endpoint.mode}") String endpoint,
                                      @Value("${docker.socket.location}") String dockerSocketLocation,
@@ -0,0 +1,180 @@
+package fr.treeptik.cloudunit.metrics;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Client of the cAdvisor API shared by the dashboards and the metric sampler. The connections are pooled, the
+ * responses are kept for cadvisor.cache.ttl ms and the calls for a URL being fetched wait for its response instead
+ * of sending their own request. cAdvisor is asked to gzip its responses, which are kept compressed.
+ */
+@Component
+public class CAdvisorClient {
+
+    private final ConcurrentMap<String, CompletableFuture<CAdvisorResponse>> responses = new ConcurrentHashMap<>();
+
+    @Value("${cadvisor.cache.ttl:1000}")
+    private long timeToLive;
+
+    @Value("${cadvisor.timeout:2000}")
+    private int timeout;
+
+    @Value("${cadvisor.pool.max.total:50}")
+    private int maxTotal;
+
+    @Value("${cadvisor.pool.max.per.route:10}")
+    private int maxPerRoute;
+
+    private CloseableHttpClient httpClient;
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final AtomicLong fetches = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        RequestConfig config = RequestConfig.custom().setConnectTimeout(timeout).setSocketTimeout(timeout)
+                .setConnectionRequestTimeout(timeout).build();
+        // the gzipped bodies are kept as received
+        httpClient = HttpClients.custom().setConnectionManager(connectionManager).setDefaultRequestConfig(config)
+                .disableContentCompression().build();
+    }
+
+    @PreDestroy
+    public void destroy() throws IOException {
+        httpClient.close();
+    }
+
+    /**
+     * @param url of a cAdvisor API
+     * @return the response of cAdvisor, fetched less than cadvisor.cache.ttl ms ago
+     */
+    public CAdvisorResponse get(String url) throws IOException {
+        requests.incrementAndGet();
+        while (true) {
+            CompletableFuture<CAdvisorResponse> cached = responses.get(url);
+            if (cached != null && !isExpired(cached)) {
+                return join(cached);
+            }
+            CompletableFuture<CAdvisorResponse> own = new CompletableFuture<>();
+            boolean fetching = cached == null ? responses.putIfAbsent(url, own) == null
+                    : responses.replace(url, cached, own);
+            if (!fetching) {
+                continue;
+            }
+            fetches.incrementAndGet();
+            responses.values().removeIf(this::isExpired);
+            try {
+                CAdvisorResponse response = fetch(url);
+                own.complete(response);
+                return response;
+            } catch (IOException | RuntimeException e) {
+                responses.remove(url, own);
+                own.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(requests.get(), fetches.get(), responses.size());
+    }
+
+    private CAdvisorResponse fetch(String url) throws IOException {
+        HttpGet get = new HttpGet(url);
+        get.setHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        try (CloseableHttpResponse response = httpClient.execute(get)) {
+            Header contentType = response.getEntity().getContentType();
+            Header contentEncoding = response.getEntity().getContentEncoding();
+            return new CAdvisorResponse(response.getStatusLine().getStatusCode(),
+                    contentType == null ? "application/json" : contentType.getValue(),
+                    contentEncoding != null && "gzip".equalsIgnoreCase(contentEncoding.getValue()),
+                    EntityUtils.toByteArray(response.getEntity()));
+        }
+    }
+
+    private boolean isExpired(CompletableFuture<CAdvisorResponse> response) {
+        if (!response.isDone()) {
+            return false;
+        }
+        return response.isCompletedExceptionally()
+                || response.join().getFetchedAt() + timeToLive < System.currentTimeMillis();
+    }
+
+    private CAdvisorResponse join(CompletableFuture<CAdvisorResponse> response) throws IOException {
+        try {
+            return response.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for cAdvisor", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    public static class Statistics {
+
+        private final long requests;
+
+        private final long fetches;
+
+        private final int cached;
+
+        public Statistics(long requests, long fetches, int cached) {
+            this.requests = requests;
+            this.fetches = fetches;
+            this.cached = cached;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        /**
+         * @return number of requests sent to cAdvisor
+         */
+        public long getFetches() {
+            return fetches;
+        }
+
+        /**
+         * @return responses kept or being fetched
+         */
+        public int getCached() {
+            return cached;
+        }
+
+        /**
+         * @return share of the requests served by a response kept or being fetched
+         */
+        public double getHitRatio() {
+            return requests == 0 ? 0 : (double) (requests - fetches) / requests;
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package fr.treeptik.cloudunit.metrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.util.StreamUtils;
+
+/**
+ * A response of cAdvisor kept as received : the body is not decoded and stays compressed when cAdvisor gzipped it.
+ */
+public class CAdvisorResponse {
+
+    private final int status;
+
+    private final String contentType;
+
+    private final boolean gzip;
+
+    private final byte[] body;
+
+    private final long fetchedAt = System.currentTimeMillis();
+
+    public CAdvisorResponse(int status, String contentType, boolean gzip, byte[] body) {
+        this.status = status;
+        this.contentType = contentType;
+        this.gzip = gzip;
+        this.body = body;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return true if the body is gzipped
+     */
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+
+    /**
+     * @return the decompressed body
+     */
+    public InputStream openStream() throws IOException {
+        InputStream in = new ByteArrayInputStream(body);
+        return gzip ? new GZIPInputStream(in) : in;
+    }
+
+    /**
+     * Copy the body to a response.
+     *
+     * @param gzipAccepted true to copy a gzipped body as is, false to decompress it
+     */
+    public void writeTo(OutputStream out, boolean gzipAccepted) throws IOException {
+        if (!gzip || gzipAccepted) {
+            out.write(body);
+            return;
+        }
+        try (InputStream in = openStream()) {
+            StreamUtils.copy(in, out);
+        }
+    }
+
+}
@@ -0,0 +1,264 @@
+package fr.treeptik.cloudunit.metrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import fr.treeptik.cloudunit.exception.ServiceException;
+import fr.treeptik.cloudunit.service.MonitoringService;
+
+/**
+ * Live statistics of the containers pushed to the dashboards as server-sent events. The dashboards watching a
+ * container share one subscription : cAdvisor is read once per tick for the container, whatever the number of
+ * viewers, and each viewer is only pushed the stats it has not received yet.
+ *
+ * A viewer first receives an "init" event with the response of cAdvisor (spec and recent stats), then "stats"
+ * events holding the new stats.
+ */
+@Component
+public class ContainerStatsBroadcaster {
+
+    private final Logger logger = LoggerFactory.getLogger(ContainerStatsBroadcaster.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ConcurrentMap<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    @Inject
+    private MonitoringService monitoringService;
+
+    @Value("${monitoring.stream.interval:2000}")
+    private long interval;
+
+    @Value("${monitoring.stream.timeout:600000}")
+    private long timeout;
+
+    private ScheduledExecutorService executor;
+
+    private final AtomicLong fetches = new AtomicLong();
+
+    private final AtomicLong events = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cloudunit-StatsBroadcaster");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::broadcast, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        subscriptions.values().forEach(subscription -> subscription.viewers.keySet().forEach(SseEmitter::complete));
+    }
+
+    /**
+     * Add a viewer to the stats of a container.
+     *
+     * @param containerName
+     * @param containerId
+     * @return the stream of the viewer
+     */
+    public SseEmitter subscribe(String containerName, String containerId) throws ServiceException {
+        JsonNode current = read(containerName, containerId);
+        SseEmitter emitter = new SseEmitter(timeout);
+        try {
+            emitter.send(SseEmitter.event().name("init").data(current.toString(), MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new ServiceException("Stats of " + containerName + " not sent", e);
+        }
+        // the viewer starts from its init event, whatever the stats already pushed to the others
+        Instant last = lastTimestamp(current);
+        Subscription subscription = subscriptions.compute(containerName, (name, existing) -> {
+            Subscription result = existing != null ? existing : new Subscription(containerId);
+            result.viewers.put(emitter, last != null ? last : Instant.EPOCH);
+            return result;
+        });
+        emitter.onCompletion(() -> unsubscribe(containerName, subscription, emitter));
+        emitter.onTimeout(() -> unsubscribe(containerName, subscription, emitter));
+        return emitter;
+    }
+
+    public Statistics getStatistics() {
+        int viewers = subscriptions.values().stream().mapToInt(subscription -> subscription.viewers.size()).sum();
+        return new Statistics(subscriptions.size(), viewers, fetches.get(), events.get());
+    }
+
+    private void unsubscribe(String containerName, Subscription subscription, SseEmitter emitter) {
+        subscription.viewers.remove(emitter);
+        subscriptions.computeIfPresent(containerName,
+                (name, existing) -> existing == subscription && existing.viewers.isEmpty() ? null : existing);
+    }
+
+    private void broadcast() {
+        for (Map.Entry<String, Subscription> entry : subscriptions.entrySet()) {
+            try {
+                broadcast(entry.getKey(), entry.getValue());
+            } catch (Exception e) {
+                logger.warn("Stats of " + entry.getKey() + " not pushed : " + e.getMessage());
+            }
+        }
+    }
+
+    private void broadcast(String containerName, Subscription subscription) throws ServiceException {
+        if (subscription.viewers.isEmpty()) {
+            return;
+        }
+        JsonNode stats = read(containerName, subscription.containerId).path("stats");
+        // the viewers having received the same stats share their update
+        Map<Instant, Update> updates = new HashMap<>();
+        for (Map.Entry<SseEmitter, Instant> entry : subscription.viewers.entrySet()) {
+            SseEmitter viewer = entry.getKey();
+            Update update = updates.computeIfAbsent(entry.getValue(), last -> update(stats, last));
+            if (update.data == null) {
+                continue;
+            }
+            try {
+                viewer.send(SseEmitter.event().name("stats").data(update.data, MediaType.APPLICATION_JSON));
+                subscription.viewers.replace(viewer, update.lastTimestamp);
+                events.incrementAndGet();
+            } catch (IOException | IllegalStateException e) {
+                // the viewer is gone
+                unsubscribe(containerName, subscription, viewer);
+                viewer.completeWithError(e);
+            }
+        }
+    }
+
+    /**
+     * @return the stats newer than the last ones received by a viewer
+     */
+    private Update update(JsonNode stats, Instant last) {
+        ArrayNode newStats = objectMapper.createArrayNode();
+        Instant lastTimestamp = last;
+        for (JsonNode stat : stats) {
+            Instant timestamp = timestamp(stat);
+            if (timestamp.isAfter(lastTimestamp)) {
+                newStats.add(stat);
+                lastTimestamp = timestamp;
+            }
+        }
+        if (newStats.size() == 0) {
+            return new Update(null, last);
+        }
+        ObjectNode update = objectMapper.createObjectNode();
+        update.set("stats", newStats);
+        return new Update(update.toString(), lastTimestamp);
+    }
+
+    private JsonNode read(String containerName, String containerId) throws ServiceException {
+        fetches.incrementAndGet();
+        try (InputStream in = monitoringService.getJsonFromCAdvisor(containerName, containerId).openStream()) {
+            return objectMapper.readTree(in);
+        } catch (IOException e) {
+            throw new ServiceException("Stats of " + containerId + " not read", e);
+        }
+    }
+
+    private Instant lastTimestamp(JsonNode response) {
+        JsonNode stats = response.path("stats");
+        return stats.size() == 0 ? null : timestamp(stats.get(stats.size() - 1));
+    }
+
+    private Instant timestamp(JsonNode stat) {
+        return OffsetDateTime.parse(stat.path("timestamp").asText()).toInstant();
+    }
+
+    private static class Subscription {
+
+        private final String containerId;
+
+        /**
+         * The viewers with the timestamp of the last stat they received.
+         */
+        private final ConcurrentMap<SseEmitter, Instant> viewers = new ConcurrentHashMap<>();
+
+        private Subscription(String containerId) {
+            this.containerId = containerId;
+        }
+    }
+
+    private static class Update {
+
+        private final String data;
+
+        private final Instant lastTimestamp;
+
+        private Update(String data, Instant lastTimestamp) {
+            this.data = data;
+            this.lastTimestamp = lastTimestamp;
+        }
+    }
+
+    public static class Statistics {
+
+        private final int containers;
+
+        private final int viewers;
+
+        private final long fetches;
+
+        private final long events;
+
+        public Statistics(int containers, int viewers, long fetches, long events) {
+            this.containers = containers;
+            this.viewers = viewers;
+            this.fetches = fetches;
+            this.events = events;
+        }
+
+        /**
+         * @return containers watched
+         */
+        public int getContainers() {
+            return containers;
+        }
+
+        public int getViewers() {
+            return viewers;
+        }
+
+        /**
+         * @return responses of cAdvisor read, one per container and tick plus one per new viewer
+         */
+        public long getFetches() {
+            return fetches;
+        }
+
+        /**
+         * @return events pushed to the viewers
+         */
+        public long getEvents() {
+            return events;
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+package fr.treeptik.cloudunit.metrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.treeptik.cloudunit.dao.ModuleDAO;
+import fr.treeptik.cloudunit.dao.ServerDAO;
+import fr.treeptik.cloudunit.docker.DockerHost;
+import fr.treeptik.cloudunit.docker.DockerHostPool;
+import fr.treeptik.cloudunit.model.Status;
+
+/**
+ * Sample the cpu, memory and network of the started containers from the cAdvisor of their host
+ * (/api/v1.3/containers/docker/{id}) into the metric store. The rates are computed from the last two stats
+ * returned by cAdvisor, so one request per container is enough.
+ */
+@Component
+public class MetricSampler {
+
+    private final Logger logger = LoggerFactory.getLogger(MetricSampler.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Inject
+    private MetricStore metricStore;
+
+    @Inject
+    private DockerHostPool dockerHostPool;
+
+    @Inject
+    private ServerDAO serverDAO;
+
+    @Inject
+    private ModuleDAO moduleDAO;
+
+    @Inject
+    private CAdvisorClient cAdvisorClient;
+
+    public void sample() {
+        List<Object[]> containers = Stream.concat(serverDAO.findContainers().stream(),
+                moduleDAO.findContainers().stream()).collect(Collectors.toList());
+        Set<String> names = new HashSet<>();
+        for (Object[] container : containers) {
+            String name = (String) container[0];
+            String containerId = (String) container[1];
+            names.add(name);
+            if (container[3] != Status.START || containerId == null) {
+                continue;
+            }
+            DockerHost host = dockerHostPool.getHost((String) container[2]);
+            if (host.getCAdvisorURL() == null || host.getCAdvisorURL().isEmpty()) {
+                continue;
+            }
+            try {
+                sample(name, host.getCAdvisorURL() + "/api/v1.3/containers/docker/" + containerId);
+            } catch (Exception e) {
+                logger.warn("Metrics of " + name + " not read from cAdvisor : " + e.getMessage());
+            }
+        }
+        metricStore.retain(names);
+    }
+
+    private void sample(String name, String url) throws IOException {
+        JsonNode stats;
+        try (InputStream in = cAdvisorClient.get(url).openStream()) {
+            stats = objectMapper.readTree(in).path("stats");
+        }
+        if (stats.size() < 2) {
+            return;
+        }
+        JsonNode previous = stats.get(stats.size() - 2);
+        JsonNode last = stats.get(stats.size() - 1);
+        long previousNanos = nanos(previous);
+        long lastNanos = nanos(last);
+        if (lastNanos <= previousNanos) {
+            return;
+        }
+        double elapsed = lastNanos - previousNanos;
+        double cpu = delta(previous, last, "cpu", "usage", "total") / elapsed;
+        double rx = delta(previous, last, "network", "rx_bytes") / elapsed * 1e9;
+        double tx = delta(previous, last, "network", "tx_bytes") / elapsed * 1e9;
+        long memory = last.path("memory").path("usage").asLong();
+        metricStore.add(name, lastNanos / 1_000_000, cpu, memory, rx, tx);
+    }
+
+    private long nanos(JsonNode stat) {
+        OffsetDateTime time = OffsetDateTime.parse(stat.path("timestamp").asText());
+        return time.toEpochSecond() * 1_000_000_000L + time.getNano();
+    }
+
+    private long delta(JsonNode previous, JsonNode last, String... path) {
+        JsonNode from = previous;
+        JsonNode to = last;
+        for (String field : path) {
+            from = from.path(field);
+            to = to.path(field);
+        }
+        // a restarted container resets its counters
+        return Math.max(0, to.asLong() - from.asLong());
+    }
+
+}
@@ -0,0 +1,335 @@
+package fr.treeptik.cloudunit.metrics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Time series of the metrics of a container, kept in rings of primitive arrays at several resolutions. Each sample
+ * is added to every tier, which averages the samples of a bucket and stores the bucket once it is complete : the
+ * coarse tiers keep a longer history in the same number of points.
+ */
+public class MetricSeries {
+
+    /**
+     * Resolution of each tier and number of points kept : a day at 1 minute, a week at 5 minutes, a month at 1 hour.
+     */
+    public enum Resolution {
+
+        MINUTE("1m", 60_000L, 1440),
+        FIVE_MINUTES("5m", 300_000L, 2016),
+        HOUR("1h", 3_600_000L, 720);
+
+        private final String label;
+
+        private final long millis;
+
+        private final int capacity;
+
+        Resolution(String label, long millis, int capacity) {
+            this.label = label;
+            this.millis = millis;
+            this.capacity = capacity;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        /**
+         * @return the resolution with this label (1m, 5m, 1h), null if unknown
+         */
+        public static Resolution of(String label) {
+            for (Resolution resolution : values()) {
+                if (resolution.label.equals(label)) {
+                    return resolution;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return the finest resolution which still holds the start of the range
+         */
+        public static Resolution covering(long from, long now) {
+            for (Resolution resolution : values()) {
+                if (now - from <= resolution.millis * resolution.capacity) {
+                    return resolution;
+                }
+            }
+            return HOUR;
+        }
+    }
+
+    private final Tier[] tiers;
+
+    public MetricSeries() {
+        Resolution[] resolutions = Resolution.values();
+        tiers = new Tier[resolutions.length];
+        for (int i = 0; i < resolutions.length; i++) {
+            tiers[i] = new Tier(resolutions[i]);
+        }
+    }
+
+    /**
+     * @param timestamp ms
+     * @param cpu cores used
+     * @param memory bytes used
+     * @param rx bytes received per second
+     * @param tx bytes sent per second
+     */
+    public synchronized void add(long timestamp, double cpu, long memory, double rx, double tx) {
+        for (Tier tier : tiers) {
+            tier.add(timestamp, cpu, memory, rx, tx);
+        }
+    }
+
+    /**
+     * Points of a resolution whose bucket starts between from and to included, the bucket in progress last.
+     */
+    public synchronized Points query(Resolution resolution, long from, long to) {
+        return tiers[resolution.ordinal()].query(from, to);
+    }
+
+    public synchronized void writeTo(DataOutput out) throws IOException {
+        for (Tier tier : tiers) {
+            tier.writeTo(out);
+        }
+    }
+
+    public static MetricSeries readFrom(DataInput in) throws IOException {
+        MetricSeries series = new MetricSeries();
+        for (Tier tier : series.tiers) {
+            tier.readFrom(in);
+        }
+        return series;
+    }
+
+    private static class Tier {
+
+        private final Resolution resolution;
+
+        private final long[] times;
+
+        private final float[] cpu;
+
+        private final long[] memory;
+
+        private final float[] rx;
+
+        private final float[] tx;
+
+        // index of the oldest point, and number of points
+        private int head;
+
+        private int size;
+
+        // bucket in progress
+        private long bucket = -1;
+
+        private double cpuSum;
+
+        private double memorySum;
+
+        private double rxSum;
+
+        private double txSum;
+
+        private int count;
+
+        private Tier(Resolution resolution) {
+            this.resolution = resolution;
+            int capacity = resolution.capacity;
+            times = new long[capacity];
+            cpu = new float[capacity];
+            memory = new long[capacity];
+            rx = new float[capacity];
+            tx = new float[capacity];
+        }
+
+        private void add(long timestamp, double cpu, long memory, double rx, double tx) {
+            long start = timestamp - timestamp % resolution.millis;
+            if (start < bucket) {
+                return;
+            }
+            if (start != bucket) {
+                flush();
+                bucket = start;
+            }
+            cpuSum += cpu;
+            memorySum += memory;
+            rxSum += rx;
+            txSum += tx;
+            count++;
+        }
+
+        private void flush() {
+            if (count == 0) {
+                return;
+            }
+            int index = (head + size) % times.length;
+            if (size == times.length) {
+                head = (head + 1) % times.length;
+            } else {
+                size++;
+            }
+            times[index] = bucket;
+            cpu[index] = (float) (cpuSum / count);
+            memory[index] = (long) (memorySum / count);
+            rx[index] = (float) (rxSum / count);
+            tx[index] = (float) (txSum / count);
+            cpuSum = memorySum = rxSum = txSum = 0;
+            count = 0;
+        }
+
+        private Points query(long from, long to) {
+            int first = 0;
+            while (first < size && times[(head + first) % times.length] < from) {
+                first++;
+            }
+            int last = first;
+            while (last < size && times[(head + last) % times.length] <= to) {
+                last++;
+            }
+            boolean current = count > 0 && bucket >= from && bucket <= to;
+            Points points = new Points(resolution.label, last - first + (current ? 1 : 0));
+            for (int i = first; i < last; i++) {
+                int index = (head + i) % times.length;
+                points.set(i - first, times[index], cpu[index], memory[index], rx[index], tx[index]);
+            }
+            if (current) {
+                points.set(last - first, bucket, (float) (cpuSum / count), (long) (memorySum / count),
+                        (float) (rxSum / count), (float) (txSum / count));
+            }
+            return points;
+        }
+
+        private void writeTo(DataOutput out) throws IOException {
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                int index = (head + i) % times.length;
+                out.writeLong(times[index]);
+                out.writeFloat(cpu[index]);
+                out.writeLong(memory[index]);
+                out.writeFloat(rx[index]);
+                out.writeFloat(tx[index]);
+            }
+            // the bucket in progress keeps its sums : the samples added after a restart are averaged with them
+            out.writeLong(bucket);
+            out.writeInt(count);
+            out.writeDouble(cpuSum);
+            out.writeDouble(memorySum);
+            out.writeDouble(rxSum);
+            out.writeDouble(txSum);
+        }
+
+        private void readFrom(DataInput in) throws IOException {
+            int saved = in.readInt();
+            for (int i = 0; i < saved; i++) {
+                long time = in.readLong();
+                float cpuValue = in.readFloat();
+                long memoryValue = in.readLong();
+                float rxValue = in.readFloat();
+                float txValue = in.readFloat();
+                // a ring smaller than the saved one keeps the most recent points
+                if (saved - i <= times.length) {
+                    int index = size++;
+                    times[index] = time;
+                    cpu[index] = cpuValue;
+                    memory[index] = memoryValue;
+                    rx[index] = rxValue;
+                    tx[index] = txValue;
+                }
+            }
+            bucket = in.readLong();
+            count = in.readInt();
+            cpuSum = in.readDouble();
+            memorySum = in.readDouble();
+            rxSum = in.readDouble();
+            txSum = in.readDouble();
+        }
+    }
+
+    /**
+     * Points of a series, one array per metric.
+     */
+    public static class Points {
+
+        private final String resolution;
+
+        private final long[] timestamps;
+
+        private final float[] cpu;
+
+        private final long[] memory;
+
+        private final float[] rx;
+
+        private final float[] tx;
+
+        private Points(String resolution, int size) {
+            this.resolution = resolution;
+            timestamps = new long[size];
+            cpu = new float[size];
+            memory = new long[size];
+            rx = new float[size];
+            tx = new float[size];
+        }
+
+        private void set(int i, long timestamp, float cpu, long memory, float rx, float tx) {
+            this.timestamps[i] = timestamp;
+            this.cpu[i] = cpu;
+            this.memory[i] = memory;
+            this.rx[i] = rx;
+            this.tx[i] = tx;
+        }
+
+        public String getResolution() {
+            return resolution;
+        }
+
+        /**
+         * @return start of each bucket, ms
+         */
+        public long[] getTimestamps() {
+            return timestamps;
+        }
+
+        /**
+         * @return cores used
+         */
+        public float[] getCpu() {
+            return cpu;
+        }
+
+        /**
+         * @return bytes used
+         */
+        public long[] getMemory() {
+            return memory;
+        }
+
+        /**
+         * @return bytes received per second
+         */
+        public float[] getRx() {
+            return rx;
+        }
+
+        /**
+         * @return bytes sent per second
+         */
+        public float[] getTx() {
+            return tx;
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package fr.treeptik.cloudunit.metrics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Metric series of the containers, by container name. The series are saved to a file periodically and at shutdown,
+ * and read back at startup.
+ */
+@Component
+public class MetricStore {
+
+    private static final int FORMAT_VERSION = 2;
+
+    private final Logger logger = LoggerFactory.getLogger(MetricStore.class);
+
+    private final ConcurrentMap<String, MetricSeries> series = new ConcurrentHashMap<>();
+
+    @Value("${metrics.store.file:/var/lib/cloudunit/metrics.bin}")
+    private String file;
+
+    public void add(String containerName, long timestamp, double cpu, long memory, double rx, double tx) {
+        series.computeIfAbsent(containerName, name -> new MetricSeries()).add(timestamp, cpu, memory, rx, tx);
+    }
+
+    /**
+     * @return the points of the container, null if it has never been sampled
+     */
+    public MetricSeries.Points query(String containerName, MetricSeries.Resolution resolution, long from, long to) {
+        MetricSeries containerSeries = series.get(containerName);
+        return containerSeries == null ? null : containerSeries.query(resolution, from, to);
+    }
+
+    /**
+     * Forget the series of the containers which no longer exist.
+     */
+    public void retain(Collection<String> containerNames) {
+        series.keySet().retainAll(containerNames);
+    }
+
+    /**
+     * The directory of the file is checked at startup rather than at the first save, minutes later.
+     */
+    @PostConstruct
+    public void load() throws IOException {
+        Path path = Paths.get(file).toAbsolutePath();
+        Path directory = Files.createDirectories(path.getParent());
+        if (!Files.isWritable(directory)) {
+            throw new IllegalStateException("The metrics directory " + directory + " is not writable, "
+                    + "check metrics.store.file");
+        }
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                logger.warn("Metrics of " + path + " ignored, unknown format");
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                series.put(name, MetricSeries.readFrom(in));
+            }
+            logger.info("Metrics of " + count + " containers read from " + path);
+        } catch (IOException e) {
+            logger.error("Metrics of " + path + " not read", e);
+        }
+    }
+
+    /**
+     * Write the series to a temporary file then replace the previous one.
+     */
+    @PreDestroy
+    public synchronized void save() {
+        Path path = Paths.get(file);
+        Path saving = Paths.get(file + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(saving)))) {
+                Map<String, MetricSeries> snapshot = new HashMap<>(series);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(snapshot.size());
+                for (Map.Entry<String, MetricSeries> entry : snapshot.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    entry.getValue().writeTo(out);
+                }
+            }
+            Files.move(saving, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.error("Metrics not saved to " + path, e);
+        }
+    }
+
+}
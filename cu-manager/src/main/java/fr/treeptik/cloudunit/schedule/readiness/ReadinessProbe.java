@@ -0,0 +1,16 @@
+package fr.treeptik.cloudunit.schedule.readiness;
+
+/**
+ * One check of the readiness of something running in containers.
+ * It must answer quickly : the waiting between two checks is done by the {@link ReadinessScheduler}.
+ */
+@FunctionalInterface
+public interface ReadinessProbe {
+
+	/**
+	 * @return true when ready, false to be checked again later
+	 * @throws Exception handled as a not ready answer
+	 */
+	boolean isReady() throws Exception;
+
+}
@@ -0,0 +1,143 @@
+package fr.treeptik.cloudunit.schedule.readiness;
+
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import fr.treeptik.cloudunit.docker.model.Health;
+import fr.treeptik.cloudunit.enums.RemoteExecAction;
+import fr.treeptik.cloudunit.model.Image;
+import fr.treeptik.cloudunit.model.Module;
+import fr.treeptik.cloudunit.model.Server;
+import fr.treeptik.cloudunit.service.DockerService;
+
+/**
+ * Build the readiness probe of a container from the definition of its image, read in the property
+ * docker.readiness.probe.{imageName} :
+ * <ul>
+ * <li>health : the healthcheck of the container reports healthy (default), exec for the containers created
+ * without healthcheck</li>
+ * <li>exec : the check-running script of the image returns 0</li>
+ * <li>tcp:{port} : the port of the container accepts connections</li>
+ * <li>http:{port}{path} : the path answers without a server error</li>
+ * </ul>
+ */
+@Component
+public class ReadinessProbes {
+
+	private static final String PROPERTY_PREFIX = "docker.readiness.probe.";
+
+	private Logger logger = LoggerFactory.getLogger(ReadinessProbes.class);
+
+	@Inject
+	private DockerService dockerService;
+
+	@Inject
+	private Environment environment;
+
+	@Value("${docker.readiness.probe.timeout:1000}")
+	private int probeTimeout;
+
+	public ReadinessProbe forServer(Server server) {
+		Map<String, String> kvStore = new HashMap<>();
+		kvStore.put("CU_USER", server.getApplication().getUser().getLogin());
+		kvStore.put("CU_PASSWORD", server.getApplication().getUser().getPassword());
+		return forContainer(server.getName(), server.getImage(), RemoteExecAction.CHECK_RUNNING.getCommand(kvStore));
+	}
+
+	public ReadinessProbe forModule(Module module) {
+		return forContainer(module.getName(), module.getImage(), RemoteExecAction.CHECK_RUNNING.getCommand());
+	}
+
+	private ReadinessProbe forContainer(String containerName, Image image, String checkCommand) {
+		String definition = image == null ? null : environment.getProperty(PROPERTY_PREFIX + image.getName());
+		if (definition == null || definition.trim().isEmpty() || "health".equals(definition.trim())) {
+			return health(containerName, exec(containerName, checkCommand));
+		}
+		definition = definition.trim();
+		if ("exec".equals(definition)) {
+			return exec(containerName, checkCommand);
+		}
+		try {
+			if (definition.startsWith("tcp:")) {
+				return tcp(containerName, Integer.parseInt(definition.substring("tcp:".length())));
+			}
+			if (definition.startsWith("http:")) {
+				String portAndPath = definition.substring("http:".length());
+				int slash = portAndPath.indexOf('/');
+				int port = Integer.parseInt(slash < 0 ? portAndPath : portAndPath.substring(0, slash));
+				return http(containerName, port, slash < 0 ? "/" : portAndPath.substring(slash));
+			}
+		} catch (NumberFormatException e) {
+			logger.error("Invalid readiness probe for " + image.getName() + " : " + definition);
+			return exec(containerName, checkCommand);
+		}
+		logger.error("Unknown readiness probe for " + image.getName() + " : " + definition);
+		return exec(containerName, checkCommand);
+	}
+
+	private ReadinessProbe health(String containerName, ReadinessProbe withoutHealthcheck) {
+		return () -> {
+			String status = dockerService.getHealthStatus(containerName);
+			if (status == null) {
+				return withoutHealthcheck.isReady();
+			}
+			return Health.HEALTHY.equals(status);
+		};
+	}
+
+	private ReadinessProbe exec(String containerName, String command) {
+		return () -> {
+			String exec = dockerService.execCommand(containerName, command);
+			exec = exec.replaceAll(System.getProperty("line.separator"), "");
+			if ("0".equalsIgnoreCase(exec.trim())) {
+				return true;
+			}
+			logger.debug(containerName + " not ready : " + exec);
+			return false;
+		};
+	}
+
+	private ReadinessProbe tcp(String containerName, int port) {
+		return () -> {
+			String ip = dockerService.getContainerIp(containerName);
+			if (ip == null) {
+				return false;
+			}
+			try (Socket socket = new Socket()) {
+				socket.connect(new InetSocketAddress(ip, port), probeTimeout);
+				return true;
+			}
+		};
+	}
+
+	private ReadinessProbe http(String containerName, int port, String path) {
+		return () -> {
+			String ip = dockerService.getContainerIp(containerName);
+			if (ip == null) {
+				return false;
+			}
+			HttpURLConnection connection = (HttpURLConnection) new URL("http", ip, port, path).openConnection();
+			connection.setConnectTimeout(probeTimeout);
+			connection.setReadTimeout(probeTimeout);
+			connection.setInstanceFollowRedirects(false);
+			try {
+				return connection.getResponseCode() < 500;
+			} finally {
+				connection.disconnect();
+			}
+		};
+	}
+
+}
@@ -0,0 +1,219 @@
+package fr.treeptik.cloudunit.schedule.readiness;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import fr.treeptik.cloudunit.config.events.ContainerLifecycleEvent;
+
+/**
+ * Wait for containers to be ready without holding a thread : the probes are run on a small scheduled pool,
+ * with an exponential backoff and a jitter between two attempts so that a mass restart does not probe
+ * every container at the same time.
+ * A docker event of a watched container triggers a new probe at once, or ends the wait when it is a failure.
+ * The returned future completes on a thread of the scheduler, true when ready and false on a failure or
+ * when the timeout is reached.
+ */
+@Component
+public class ReadinessScheduler {
+
+	private static final double JITTER = 0.2;
+
+	private Logger logger = LoggerFactory.getLogger(ReadinessScheduler.class);
+
+	private final ScheduledThreadPoolExecutor executor;
+
+	private final long initialDelay;
+
+	private final long maxDelay;
+
+	private final long timeout;
+
+	private final ConcurrentMap<String, Set<Readiness>> readinesses = new ConcurrentHashMap<>();
+
+	@Inject
+	public ReadinessScheduler(@Value("${docker.readiness.threads:4}") int threads,
+			@Value("${docker.readiness.initial.delay:500}") long initialDelay,
+			@Value("${docker.readiness.max.delay:8000}") long maxDelay,
+			@Value("${docker.readiness.timeout:60000}") long timeout) {
+		AtomicInteger counter = new AtomicInteger();
+		this.executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+			Thread thread = new Thread(runnable, "cloudunit-Readiness-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.executor.setRemoveOnCancelPolicy(true);
+		this.initialDelay = initialDelay;
+		this.maxDelay = maxDelay;
+		this.timeout = timeout;
+	}
+
+	public CompletableFuture<Boolean> schedule(String containerName, ReadinessProbe probe,
+			Predicate<ContainerLifecycleEvent> failure) {
+		return schedule(Arrays.asList(containerName), probe, failure);
+	}
+
+	/**
+	 * @param containerNames containers whose events trigger a probe
+	 * @param probe
+	 * @param failure events meaning that the containers will never be ready
+	 * @return the result of the wait
+	 */
+	public CompletableFuture<Boolean> schedule(Collection<String> containerNames, ReadinessProbe probe,
+			Predicate<ContainerLifecycleEvent> failure) {
+		Readiness readiness = new Readiness(containerNames, probe, failure);
+		readiness.start();
+		return readiness.result;
+	}
+
+	/**
+	 * Probe at once everything waiting on this container, when something not seen in the docker events
+	 * has changed such as its status in database.
+	 *
+	 * @param containerName
+	 */
+	public void wake(String containerName) {
+		Set<Readiness> containerReadinesses = readinesses.get(containerName);
+		if (containerReadinesses != null) {
+			containerReadinesses.forEach(r -> r.scheduleProbe(0));
+		}
+	}
+
+	/**
+	 * @return number of waits in progress
+	 */
+	public long getPending() {
+		return readinesses.values().stream().flatMap(Set::stream).distinct().count();
+	}
+
+	@EventListener
+	public void onContainerEvent(ContainerLifecycleEvent event) {
+		Set<Readiness> containerReadinesses = readinesses.get(event.getContainerName());
+		if (containerReadinesses != null) {
+			containerReadinesses.forEach(r -> r.onEvent(event));
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private class Readiness {
+
+		private final Collection<String> containerNames;
+
+		private final ReadinessProbe probe;
+
+		private final Predicate<ContainerLifecycleEvent> failure;
+
+		private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+		private final long deadline = System.currentTimeMillis() + timeout;
+
+		private long delay = initialDelay;
+
+		private ScheduledFuture<?> next;
+
+		private Readiness(Collection<String> containerNames, ReadinessProbe probe,
+				Predicate<ContainerLifecycleEvent> failure) {
+			this.containerNames = containerNames;
+			this.probe = probe;
+			this.failure = failure;
+		}
+
+		private void start() {
+			containerNames.forEach(name -> readinesses.computeIfAbsent(name, k -> ConcurrentHashMap.newKeySet()).add(this));
+			result.whenComplete((ready, e) -> release());
+			scheduleProbe(0);
+		}
+
+		private synchronized void scheduleProbe(long delayMillis) {
+			if (result.isDone()) {
+				return;
+			}
+			if (next != null) {
+				next.cancel(false);
+			}
+			try {
+				next = executor.schedule(this::probe, delayMillis, TimeUnit.MILLISECONDS);
+			} catch (RejectedExecutionException e) {
+				result.complete(false);
+			}
+		}
+
+		private void onEvent(ContainerLifecycleEvent event) {
+			if (!failure.test(event)) {
+				scheduleProbe(0);
+				return;
+			}
+			logger.warn(containerNames + " will not be ready : " + event.getDockerEvent());
+			try {
+				executor.execute(() -> result.complete(false));
+			} catch (RejectedExecutionException e) {
+				result.complete(false);
+			}
+		}
+
+		private void probe() {
+			if (result.isDone()) {
+				return;
+			}
+			boolean ready;
+			try {
+				ready = probe.isReady();
+			} catch (Exception e) {
+				logger.debug(containerNames + " probe failed : " + e.getMessage());
+				ready = false;
+			}
+			if (ready) {
+				result.complete(true);
+				return;
+			}
+			long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0) {
+				logger.warn(containerNames + " not ready after " + timeout + " ms");
+				result.complete(false);
+				return;
+			}
+			scheduleProbe(Math.min(nextDelay(), remaining));
+		}
+
+		private synchronized long nextDelay() {
+			long current = delay;
+			delay = Math.min(delay * 2, maxDelay);
+			long jitter = (long) (current * JITTER);
+			return jitter == 0 ? current : current + ThreadLocalRandom.current().nextLong(-jitter, jitter + 1);
+		}
+
+		private synchronized void release() {
+			if (next != null) {
+				next.cancel(false);
+			}
+			containerNames.forEach(name -> readinesses.computeIfPresent(name, (k, set) -> {
+				set.remove(this);
+				return set.isEmpty() ? null : set;
+			}));
+		}
+	}
+
+}
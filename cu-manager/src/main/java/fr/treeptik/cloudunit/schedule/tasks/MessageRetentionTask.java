@@ -0,0 +1,26 @@
+package fr.treeptik.cloudunit.schedule.tasks;
+
+import fr.treeptik.cloudunit.audit.MessageArchiver;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+
+/**
+ * Archive the old audit messages off-peak
+ */
+@Component
+public class MessageRetentionTask {
+
+	@Inject
+	private MessageArchiver messageArchiver;
+
+    /*
+    Schedule default : every day at 3 am
+    */
+	@Scheduled(cron = "${audit.retention.cron:0 0 3 * * *}")
+	public void archive() {
+		messageArchiver.archive();
+	}
+
+}
@@ -0,0 +1,40 @@
+package fr.treeptik.cloudunit.schedule.tasks;
+
+import fr.treeptik.cloudunit.metrics.MetricSampler;
+import fr.treeptik.cloudunit.metrics.MetricStore;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+
+/**
+ * Sample the metrics of the containers and save them periodically
+ */
+@Component
+public class MetricSamplingTask {
+
+	@Inject
+	private MetricSampler metricSampler;
+
+	@Inject
+	private MetricStore metricStore;
+
+    /*
+    Schedule default delay : 15 s
+    */
+	@Scheduled(initialDelayString = "${metrics.sampling.initial.delay:60000}",
+			fixedDelayString = "${metrics.sampling.delay:15000}")
+	public void sample() {
+		metricSampler.sample();
+	}
+
+    /*
+    Schedule default delay : 5 min
+    */
+	@Scheduled(initialDelayString = "${metrics.store.save.delay:300000}",
+			fixedDelayString = "${metrics.store.save.delay:300000}")
+	public void save() {
+		metricStore.save();
+	}
+
+}
@@ -0,0 +1,27 @@
+package fr.treeptik.cloudunit.schedule.tasks;
+
+import fr.treeptik.cloudunit.service.WarmPoolService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+
+/**
+ * Refill the warm pool in the background
+ */
+@Component
+public class WarmPoolTask {
+
+	@Inject
+	private WarmPoolService warmPoolService;
+
+    /*
+    Schedule default delay : 30 s
+    */
+	@Scheduled(initialDelayString = "${docker.warmpool.initial.delay:60000}",
+			fixedDelayString = "${docker.warmpool.refill.delay:30000}")
+	public void replenish() {
+		warmPoolService.replenish();
+	}
+
+}
@@ -20,10 +20,12 @@ import java.util.List;
 import fr.treeptik.cloudunit.model.PortToOpen;
 import org.springframework.web.multipart.MultipartFile;
 
+import fr.treeptik.cloudunit.dto.ApplicationSummary;
 import fr.treeptik.cloudunit.dto.ContainerUnit;
 import fr.treeptik.cloudunit.exception.CheckException;
 import fr.treeptik.cloudunit.exception.ServiceException;
 import fr.treeptik.cloudunit.model.Application;
+import fr.treeptik.cloudunit.model.Deployment;
 import fr.treeptik.cloudunit.model.Status;
 import fr.treeptik.cloudunit.model.User;
 
@@ -35,6 +37,12 @@ public interface ApplicationService {
 
 	List<Application> findAllByUser(User user) throws ServiceException;
 
+	List<ApplicationSummary> findSummariesByUser(User user) throws ServiceException;
+
+	List<Deployment> findDeployments(User user, String applicationName) throws ServiceException, CheckException;
+
+	List<String> findAliases(User user, String applicationName) throws ServiceException, CheckException;
+
 	public void checkCreate(User user, String application) throws CheckException, ServiceException;
 
 	Application saveInDB(Application application) throws ServiceException;
@@ -1,8 +1,10 @@
 package fr.treeptik.cloudunit.service;
 
+import fr.treeptik.cloudunit.docker.ExecResult;
 import fr.treeptik.cloudunit.dto.Command;
 import fr.treeptik.cloudunit.exception.ServiceException;
 
+import java.io.OutputStream;
 import java.util.List;
 
 public interface CommandService {
@@ -10,4 +12,10 @@ public interface CommandService {
     List<Command> listCommandByContainer(String applicationName, String containerName) throws ServiceException;
 
     String execCommand(Command command, String containerName, String applicationName) throws ServiceException;
+
+    /**
+     * Execute the command and write its output to the stream as it is produced
+     */
+    ExecResult execCommand(Command command, String containerName, String applicationName, OutputStream output)
+        throws ServiceException;
 }
@@ -16,11 +16,17 @@
 package fr.treeptik.cloudunit.service;
 
 import java.io.OutputStream;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
+import fr.treeptik.cloudunit.docker.ExecOutputHandler;
+import fr.treeptik.cloudunit.docker.ExecResult;
+import fr.treeptik.cloudunit.docker.core.ImagePull;
 import fr.treeptik.cloudunit.exception.DockerJSONException;
 import fr.treeptik.cloudunit.exception.FatalDockerJSONException;
 import fr.treeptik.cloudunit.exception.ServiceException;
+import fr.treeptik.cloudunit.model.Image;
 import fr.treeptik.cloudunit.model.Module;
 import fr.treeptik.cloudunit.model.Server;
 import fr.treeptik.cloudunit.model.User;
@@ -42,14 +48,101 @@ DockerService {
 
 	void removeContainer(String containerName, boolean removeVolume) throws DockerJSONException;
 
+	/**
+	 * Create and start a server container that is not bound to any user yet.
+	 *
+	 * @param containerName
+	 * @param image
+	 * @param dockerHost
+	 * @param args
+	 * @throws DockerJSONException
+	 */
+	void createWarmServer(String containerName, Image image, String dockerHost, List<String> args)
+			throws DockerJSONException;
+
+	/**
+	 * @param imageName
+	 * @return the names of the warm server containers of this image, on every docker host
+	 * @throws FatalDockerJSONException
+	 */
+	List<String> listWarmServers(String imageName) throws FatalDockerJSONException;
+
+	void renameContainer(String containerName, String newName) throws FatalDockerJSONException;
+
 	String execCommand(String containerName, String command) throws FatalDockerJSONException;
 
+	/**
+	 * Execute a command that does not modify the container (ls, cat, tail...). Identical calls made while
+	 * it runs share its output instead of starting their own exec.
+	 *
+	 * @param containerName
+	 * @param command
+	 * @return
+	 * @throws FatalDockerJSONException
+	 */
+	String execReadOnlyCommand(String containerName, String command) throws FatalDockerJSONException;
+
 	String execCommand(String containerName, String command, boolean privileged) throws FatalDockerJSONException;
 
 	String execCommand(String containerName, String command, boolean privileged, boolean detached) throws FatalDockerJSONException;
 
+	/**
+	 * Execute a command and write its output (stdout and stderr) to the stream as it is produced.
+	 * The stream is flushed after each frame and is not closed.
+	 *
+	 * @param containerName
+	 * @param command
+	 * @param privileged
+	 * @param output
+	 * @return the exec id and the exit code of the command
+	 * @throws FatalDockerJSONException
+	 */
+	ExecResult execCommand(String containerName, String command, boolean privileged, OutputStream output)
+			throws FatalDockerJSONException;
+
+	/**
+	 * Execute a program with its arguments, without a shell : the arguments are neither split nor expanded.
+	 * Its output is written to the stream as it is produced.
+	 *
+	 * @param containerName
+	 * @param arguments the program then its arguments
+	 * @param privileged
+	 * @param output
+	 * @return the exec id and the exit code of the program
+	 * @throws FatalDockerJSONException
+	 */
+	ExecResult execCommand(String containerName, String[] arguments, boolean privileged, OutputStream output)
+			throws FatalDockerJSONException;
+
+	/**
+	 * Execute a command and give each frame of its output to the handler as it is produced.
+	 *
+	 * @param containerName
+	 * @param command
+	 * @param privileged
+	 * @param handler
+	 * @return the exec id and the exit code of the command
+	 * @throws FatalDockerJSONException
+	 */
+	ExecResult execCommand(String containerName, String command, boolean privileged, ExecOutputHandler handler)
+			throws FatalDockerJSONException;
+
 	String getContainerId(String containerName) throws FatalDockerJSONException;
 
+	/**
+	 * @param containerName
+	 * @return the address of the container on its network, null if it has none yet
+	 * @throws FatalDockerJSONException
+	 */
+	String getContainerIp(String containerName) throws FatalDockerJSONException;
+
+	/**
+	 * @param containerName
+	 * @return starting, healthy or unhealthy as reported by the healthcheck of the container, null if it has none
+	 * @throws FatalDockerJSONException
+	 */
+	String getHealthStatus(String containerName) throws FatalDockerJSONException;
+
 	Boolean isRunning(String containerName) throws FatalDockerJSONException;
 
 	Boolean exists(String containerName) throws FatalDockerJSONException;
@@ -58,6 +151,14 @@ DockerService {
 
 	List<List<String>> listContainers() throws FatalDockerJSONException;
 
+	/**
+	 * Read the state of all the containers with one list request per docker host.
+	 *
+	 * @return true for the running containers, by container name
+	 * @throws FatalDockerJSONException
+	 */
+	Map<String, Boolean> findRunningStates() throws FatalDockerJSONException;
+
 	String getContainerNameFromId(String id) throws FatalDockerJSONException;
 
 	String getEnv(String containerId, String variable) throws FatalDockerJSONException;
@@ -79,6 +180,25 @@ DockerService {
 
 	void pullImage(String imageName) throws FatalDockerJSONException;
 
+	/**
+	 * Start pulling the latest version of an image on every docker host.
+	 *
+	 * @param imageName
+	 * @return the pull of each host, by host name
+	 */
+	Map<String, ImagePull> startPullImage(String imageName);
+
+	/**
+	 * @return the pulls queued or running, by host name
+	 */
+	Map<String, Collection<ImagePull>> findImagePulls();
+
+	/**
+	 * @param imageName
+	 * @return true if a pull of this image was cancelled on at least one host
+	 */
+	boolean cancelPullImage(String imageName);
+
 	void deleteImage(String imageName) throws ServiceException;
 
 	List<String> listImages() throws ServiceException;
@@ -1,8 +1,15 @@
 package fr.treeptik.cloudunit.service;
 
+import fr.treeptik.cloudunit.docker.ReconciliationReport;
+
 /**
  * Created by guillaume on 05/10/16.
  */
 public interface HealthCheckService {
     void checkAndRebootApplications();
+
+    /**
+     * @return the report of the last check, null before the first one
+     */
+    ReconciliationReport getLastReport();
 }
@@ -15,10 +15,13 @@
 
 package fr.treeptik.cloudunit.service;
 
+import fr.treeptik.cloudunit.docker.core.ImagePull;
 import fr.treeptik.cloudunit.exception.ServiceException;
 import fr.treeptik.cloudunit.model.Image;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ImageService {
 
@@ -59,4 +62,10 @@ public interface ImageService {
 
     void pull(String imageName);
 
+    Map<String, ImagePull> startPull(String imageName);
+
+    Map<String, Collection<ImagePull>> findPulls();
+
+    boolean cancelPull(String imageName);
+
 }
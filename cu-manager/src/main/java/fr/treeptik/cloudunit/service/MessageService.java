@@ -26,12 +26,26 @@ import java.util.List;
 
 public interface MessageService {
 
+    /**
+     * Queue the message, it is saved in the background.
+     */
+    Message create(Message message)
+        throws ServiceException;
+
+    /**
+     * Evict the lists holding the message, once it is saved.
+     */
     @Caching(evict = {
         @CacheEvict(value = "messageFindCache", key = "#message.author.login"),
         @CacheEvict(value = "messageFindCache", key = "{#message.author.login, #message.applicationName}")
     })
-    Message create(Message message)
-        throws ServiceException;
+    void evictCache(Message message);
+
+    /**
+     * Evict all the lists of messages, once old messages are archived.
+     */
+    @CacheEvict(value = "messageFindCache", allEntries = true)
+    void evictAllCaches();
 
     @CacheEvict(value = "messageFindCache", key = "#message.author.login")
     void delete(Message message)
@@ -48,4 +62,25 @@ public interface MessageService {
     List<Message> listByApp(User user, String applicationName, int index)
         throws ServiceException;
 
+    /**
+     * Messages of a user with an id between since and before excluded, the most recent first.
+     *
+     * @param since id of the most recent message already known, null to read from the first one
+     * @param before id of the oldest message already known, null to read from the last one
+     */
+    List<Message> listByUser(User user, Integer since, Integer before, int nbRows)
+        throws ServiceException;
+
+    /**
+     * Messages of an application with an id between since and before excluded, the most recent first.
+     */
+    List<Message> listByApp(User user, String applicationName, Integer since, Integer before, int nbRows)
+        throws ServiceException;
+
+    /**
+     * Number of messages of a user with an id greater than since, all of them when since is null.
+     */
+    long countByUser(User user, Integer since)
+        throws ServiceException;
+
 }
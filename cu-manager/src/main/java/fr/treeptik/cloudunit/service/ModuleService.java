@@ -16,6 +16,7 @@
 package fr.treeptik.cloudunit.service;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.web.multipart.MultipartFile;
 
@@ -52,7 +53,12 @@ public interface ModuleService {
 
     Module stopModule(String moduleName) throws ServiceException;
 
-    Module startModule(String moduleName) throws ServiceException;
+    /**
+     * @param moduleName
+     * @return completed once the module is ready and its post start hooks are called, false if it did not start
+     * @throws ServiceException
+     */
+    CompletableFuture<Boolean> startModule(String moduleName) throws ServiceException;
 
     Module create(String imageName, Application application, User user) throws ServiceException, CheckException;
 
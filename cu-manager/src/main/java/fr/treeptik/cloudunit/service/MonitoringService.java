@@ -15,6 +15,8 @@
 
 package fr.treeptik.cloudunit.service;
 
+import fr.treeptik.cloudunit.exception.ServiceException;
+import fr.treeptik.cloudunit.metrics.CAdvisorResponse;
 import fr.treeptik.cloudunit.model.Metric;
 
 import java.util.List;
@@ -24,9 +26,14 @@ import java.util.List;
  */
 public interface MonitoringService {
 
-    String getJsonFromCAdvisor(String containerId);
+    /**
+     * @param containerName used to find the host running the container
+     * @param containerId
+     * @return the response of the cAdvisor of the host running the container
+     */
+    CAdvisorResponse getJsonFromCAdvisor(String containerName, String containerId) throws ServiceException;
 
-    String getJsonMachineFromCAdvisor();
+    CAdvisorResponse getJsonMachineFromCAdvisor() throws ServiceException;
 
     List<Metric> findByServer(String serverName);
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package fr.treeptik.cloudunit.service;
+
+import java.util.Map;
+
+import fr.treeptik.cloudunit.model.Server;
+import fr.treeptik.cloudunit.model.User;
+
+/**
+ * Pool of server containers created and started in advance for the images listed in docker.warmpool.images.
+ */
+public interface WarmPoolService {
+
+    /**
+     * Create the missing warm containers of every pooled image.
+     */
+    void replenish();
+
+    /**
+     * Take a warm container of the server image and bind it to the user under the container name.
+     *
+     * @param server
+     * @param containerName
+     * @param user
+     * @return false if no warm container could be claimed, the server must then be created
+     */
+    boolean claim(Server server, String containerName, User user);
+
+    /**
+     * @return number of idle warm containers by image name
+     */
+    Map<String, Integer> getIdleCounts();
+}
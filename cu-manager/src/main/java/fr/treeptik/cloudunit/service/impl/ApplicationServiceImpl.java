@@ -18,13 +18,19 @@ package fr.treeptik.cloudunit.service.impl;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.persistence.PersistenceException;
 
 import org.slf4j.Logger;
@@ -34,12 +40,15 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.DependsOn;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import fr.treeptik.cloudunit.config.events.ApplicationFailEvent;
 import fr.treeptik.cloudunit.config.events.ApplicationStartEvent;
 import fr.treeptik.cloudunit.dao.ApplicationDAO;
+import fr.treeptik.cloudunit.dto.ApplicationSummary;
 import fr.treeptik.cloudunit.dto.ContainerUnit;
 import fr.treeptik.cloudunit.enums.RemoteExecAction;
 import fr.treeptik.cloudunit.exception.CheckException;
@@ -100,6 +109,10 @@ public class ApplicationServiceImpl implements ApplicationService {
 	@Inject
 	private MessageSource messageSource;
 
+	@Inject
+	@Named("lifecycleExecutor")
+	private Executor lifecycleExecutor;
+
 	@Value("${docker.socket.location}")
 	private String dockerSocketIP;
 
@@ -287,24 +300,32 @@ public class ApplicationServiceImpl implements ApplicationService {
 		}
 	}
 
+	/**
+	 * Start the modules of the application then its server once they are all ready. Nothing waits for the
+	 * containers : the method returns once the modules are being started, the server is started and the status
+	 * of a failed application is set from the completion of the modules.
+	 */
 	@Override
 	@Transactional
 	public Application start(Application application) throws ServiceException {
-		try {
-			logger.debug("start : Methods parameters : " + application);
-			application.getModules().stream().forEach(m -> {
-				try {
-					moduleService.startModule(m.getName());
-				} catch (ServiceException e) {
-					e.printStackTrace();
+		logger.debug("start : Methods parameters : " + application);
+		String serverName = application.getServer().getName();
+		Executor executor = new DelegatingSecurityContextExecutor(lifecycleExecutor);
+		// the server needs its modules : it is started once they are all ready
+		forEachModule(application, "start", moduleService::startModule).thenAcceptAsync(failed -> {
+			try {
+				if (!failed.isEmpty()) {
+					logger.error("Cannot start the modules " + failed + " of " + application.getName()
+							+ ", the server is not started");
+					setStatus(application, Status.FAIL);
+					return;
 				}
-			});
-			Server server = application.getServer();
-			server = serverService.startServer(server);
-			logger.info("ApplicationService : Application successfully started ");
-		} catch (PersistenceException e) {
-			throw new ServiceException(e.getLocalizedMessage(), e);
-		}
+				serverService.startServer(serverService.findByName(serverName));
+				logger.info("ApplicationService : Application successfully started ");
+			} catch (ServiceException | PersistenceException e) {
+				logger.error("Cannot start the application " + application.getName(), e);
+			}
+		}, executor);
 		return application;
 	}
 
@@ -314,13 +335,14 @@ public class ApplicationServiceImpl implements ApplicationService {
 		try {
 			Server server = application.getServer();
 			serverService.stopServer(server);
-			application.getModules().stream().forEach(m -> {
-				try {
-					moduleService.stopModule(m.getName());
-				} catch (ServiceException e) {
-					logger.error(application.toString(), e);
-				}
-			});
+			List<String> failed = forEachModule(application, "stop", moduleName -> {
+				moduleService.stopModule(moduleName);
+				return CompletableFuture.completedFuture(true);
+			}).join();
+			if (!failed.isEmpty()) {
+				applicationEventPublisher.publishEvent(new ApplicationFailEvent(application));
+				throw new ServiceException("Cannot stop the modules " + failed + " of " + application.getName());
+			}
 			logger.info("ApplicationService : Application successfully stopped ");
 		} catch (PersistenceException e) {
 			throw new ServiceException(e.getLocalizedMessage(), e);
@@ -328,6 +350,60 @@ public class ApplicationServiceImpl implements ApplicationService {
 		return application;
 	}
 
+	/**
+	 * Apply the operation to all the modules of the application at the same time. A failed module does not stop
+	 * the others, the failures are logged together once everything is done.
+	 *
+	 * @param application
+	 * @param operationName used in the logs
+	 * @param operation
+	 * @return completed with the names of the modules whose operation failed
+	 */
+	private CompletableFuture<List<String>> forEachModule(Application application, String operationName,
+			ModuleOperation operation) {
+		Map<String, CompletableFuture<Boolean>> operations = new LinkedHashMap<>();
+		Executor executor = new DelegatingSecurityContextExecutor(lifecycleExecutor);
+		for (Module module : application.getModules()) {
+			String moduleName = module.getName();
+			operations.put(moduleName, CompletableFuture.supplyAsync(() -> {
+				try {
+					return operation.apply(moduleName);
+				} catch (ServiceException e) {
+					throw new CompletionException(e);
+				}
+			}, executor).thenCompose(done -> done).handle((done, e) -> {
+				if (e != null) {
+					logger.error("Cannot " + operationName + " the module " + moduleName,
+							e instanceof CompletionException ? e.getCause() : e);
+					return false;
+				}
+				if (!done) {
+					logger.error("Cannot " + operationName + " the module " + moduleName + " : not ready");
+				}
+				return done;
+			}));
+		}
+		return CompletableFuture.allOf(operations.values().toArray(new CompletableFuture<?>[0])).thenApply(all -> {
+			List<String> failed = operations.entrySet().stream()
+					.filter(entry -> !entry.getValue().join())
+					.map(Map.Entry::getKey)
+					.collect(Collectors.toList());
+			if (!failed.isEmpty()) {
+				logger.error("{} : {} of {} modules failed {}", application.getName(), operationName,
+						operations.size(), failed);
+			}
+			return failed;
+		});
+	}
+
+	@FunctionalInterface
+	private interface ModuleOperation {
+		/**
+		 * @return completed with true once the operation is done
+		 */
+		CompletableFuture<Boolean> apply(String moduleName) throws ServiceException;
+	}
+
 	/**
 	 * Method useful for Logs and Monitoring Management
 	 *
@@ -338,11 +414,7 @@ public class ApplicationServiceImpl implements ApplicationService {
 	public List<Application> findAll() throws ServiceException {
 		try {
 			logger.debug("start findAll");
-			List<Application> listApplications = applicationDAO.findAll();
-			for (Application application : listApplications) {
-				application.setServer(serverService.findByApp(application));
-				application.setModules(moduleService.findByAppAndUser(application.getUser(), application.getName()));
-			}
+			List<Application> listApplications = applicationDAO.findAllWithContainers();
 			logger.debug("ApplicationService : All Applications found ");
 			return listApplications;
 		} catch (PersistenceException e) {
@@ -363,6 +435,52 @@ public class ApplicationServiceImpl implements ApplicationService {
 		}
 	}
 
+	@Override
+	public List<ApplicationSummary> findSummariesByUser(User user) throws ServiceException {
+		try {
+			List<ApplicationSummary> summaries = applicationDAO.findSummariesByUser(user.getId(), cuInstanceName);
+			Map<Integer, List<String>> modules = new HashMap<>();
+			for (Object[] row : applicationDAO.findModuleImagesByUser(user.getId(), cuInstanceName)) {
+				modules.computeIfAbsent((Integer) row[0], id -> new ArrayList<>()).add((String) row[1]);
+			}
+			summaries.forEach(summary -> summary.setModules(modules.getOrDefault(summary.getId(), new ArrayList<>())));
+			return summaries;
+		} catch (PersistenceException e) {
+			logger.error("Error ApplicationService : error findSummariesByUser Method : " + user);
+			throw new ServiceException(user.toString(), e);
+		}
+	}
+
+	@Override
+	public List<Deployment> findDeployments(User user, String applicationName) throws ServiceException, CheckException {
+		try {
+			Application application = applicationDAO.findByUserLoginAndName(user.getLogin(), applicationName,
+					cuInstanceName);
+			if (application == null) {
+				throw new CheckException("Application " + applicationName + " does not exist");
+			}
+			return deploymentService.findByApp(application);
+		} catch (PersistenceException e) {
+			logger.error(user.toString(), e);
+			throw new ServiceException(user.toString(), e);
+		}
+	}
+
+	@Override
+	public List<String> findAliases(User user, String applicationName) throws ServiceException, CheckException {
+		try {
+			if (applicationDAO.findByUserLoginAndName(user.getLogin(), applicationName, cuInstanceName) == null) {
+				throw new CheckException("Application " + applicationName + " does not exist");
+			}
+			return applicationDAO.findAllAliasesByUserLogin(user.getLogin(), applicationName, cuInstanceName).stream()
+					.filter(Objects::nonNull)
+					.collect(Collectors.toList());
+		} catch (PersistenceException e) {
+			logger.error(user.toString(), e);
+			throw new ServiceException(user.toString(), e);
+		}
+	}
+
 	@Override
 	public Application findByNameAndUser(User user, String name) throws ServiceException {
 		try {
@@ -2,6 +2,7 @@ package fr.treeptik.cloudunit.service.impl;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
@@ -13,10 +14,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import fr.treeptik.cloudunit.docker.ExecResult;
 import fr.treeptik.cloudunit.dto.Command;
 import fr.treeptik.cloudunit.dto.ContainerUnit;
 import fr.treeptik.cloudunit.dto.FileUnit;
 import fr.treeptik.cloudunit.enums.RemoteExecAction;
+import fr.treeptik.cloudunit.exception.FatalDockerJSONException;
 import fr.treeptik.cloudunit.exception.ServiceException;
 import fr.treeptik.cloudunit.service.ApplicationService;
 import fr.treeptik.cloudunit.service.CommandService;
@@ -51,7 +54,7 @@ public class CommandServiceImpl implements CommandService {
 			for (FileUnit fileUnit : fileUnits) {
 				List<String> arguments = new ArrayList<>();
 				Integer number = 0;
-				String content = dockerService.execCommand(containerName, "cat " + fileUnit.getBreadcrump());
+				String content = dockerService.execReadOnlyCommand(containerName, "cat " + fileUnit.getBreadcrump());
 				bf = new BufferedReader(new StringReader(content));
 				String line;
 				int c = 0;
@@ -83,24 +86,11 @@ public class CommandServiceImpl implements CommandService {
 
 	@Override
 	public String execCommand(Command command, String containerName, String applicationName) throws ServiceException {
-		if (command.getName() == null)
-			throw new ServiceException("The filename is empty");
-
-		if (containerName == null)
-			throw new ServiceException("The container name is empty");
+		checkCommand(command, containerName);
 
 		String output =  null;
 		try {
-			List<ContainerUnit> containerUnits = applicationService.listContainers(applicationName);
-			String containerId = containerUnits.stream().filter(v -> v.getName().equals(containerName)).findFirst().get().getId();
-
-			String customScriptPathFiles = dockerService.getEnv(containerName, "CU_SCRIPTS") + "/custom_scripts/";
-			List<FileUnit> fileUnits = fileService.listByContainerIdAndPath(containerId,customScriptPathFiles);
-			String commandLine = fileUnits.stream().filter(v -> v.getName().equals(command.getName())).findFirst().get().getBreadcrump();
-			commandLine = commandLine + " " + command.getArguments().stream().map(v -> v + " ").collect(Collectors.joining());
-
-			// Warning : do not forget * at the end of the command
-			dockerService.execCommand(containerName, RemoteExecAction.CHMOD_PLUSX.getCommand() + " " + customScriptPathFiles + "*", true);
+			String commandLine = prepareCommandLine(command, containerName, applicationName);
 
 			// Execute the raw commad through the chosen file with its arguments
 			output = dockerService.execCommand(containerName, commandLine);
@@ -115,6 +105,44 @@ public class CommandServiceImpl implements CommandService {
 		return output;
 	}
 
+	@Override
+	public ExecResult execCommand(Command command, String containerName, String applicationName, OutputStream output)
+			throws ServiceException {
+		checkCommand(command, containerName);
+		String commandLine = prepareCommandLine(command, containerName, applicationName);
+		try {
+			return dockerService.execCommand(containerName, commandLine, false, output);
+		} catch (FatalDockerJSONException e) {
+			throw new ServiceException(command + "," + containerName + "," + applicationName, e);
+		}
+	}
+
+	private void checkCommand(Command command, String containerName) throws ServiceException {
+		if (command.getName() == null)
+			throw new ServiceException("The filename is empty");
+
+		if (containerName == null)
+			throw new ServiceException("The container name is empty");
+	}
+
+	/**
+	 * Find the custom script of the command, make it executable and build the command line with its arguments
+	 */
+	private String prepareCommandLine(Command command, String containerName, String applicationName)
+			throws ServiceException {
+		List<ContainerUnit> containerUnits = applicationService.listContainers(applicationName);
+		String containerId = containerUnits.stream().filter(v -> v.getName().equals(containerName)).findFirst().get().getId();
+
+		String customScriptPathFiles = dockerService.getEnv(containerName, "CU_SCRIPTS") + "/custom_scripts/";
+		List<FileUnit> fileUnits = fileService.listByContainerIdAndPath(containerId,customScriptPathFiles);
+		String commandLine = fileUnits.stream().filter(v -> v.getName().equals(command.getName())).findFirst().get().getBreadcrump();
+		commandLine = commandLine + " " + command.getArguments().stream().map(v -> v + " ").collect(Collectors.joining());
+
+		// Warning : do not forget * at the end of the command
+		dockerService.execCommand(containerName, RemoteExecAction.CHMOD_PLUSX.getCommand() + " " + customScriptPathFiles + "*", true);
+		return commandLine;
+	}
+
 	public Command fileUnitToCommand(FileUnit fileUnit, Integer number, List<String> names) {
 		Command command = new Command(fileUnit.getName(), number, names);
 		return command;
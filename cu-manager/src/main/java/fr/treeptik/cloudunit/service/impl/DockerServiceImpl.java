@@ -1,15 +1,25 @@
 package fr.treeptik.cloudunit.service.impl;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
@@ -26,14 +36,24 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import com.spotify.docker.client.DockerClient;
+import com.spotify.docker.client.LogMessage;
 import com.spotify.docker.client.LogStream;
 import com.spotify.docker.client.exceptions.ContainerNotFoundException;
 import com.spotify.docker.client.exceptions.DockerException;
+import com.spotify.docker.client.messages.AttachedNetwork;
 import com.spotify.docker.client.messages.Container;
 import com.spotify.docker.client.messages.ContainerInfo;
-
-import fr.treeptik.cloudunit.docker.core.DockerCloudUnitClient;
+import com.spotify.docker.client.messages.NetworkSettings;
+
+import fr.treeptik.cloudunit.docker.DockerHost;
+import fr.treeptik.cloudunit.docker.DockerHostPool;
+import fr.treeptik.cloudunit.docker.DockerRequestCoalescer;
+import fr.treeptik.cloudunit.docker.ExecOutputHandler;
+import fr.treeptik.cloudunit.docker.ExecResult;
+import fr.treeptik.cloudunit.docker.core.ImagePull;
 import fr.treeptik.cloudunit.docker.model.DockerContainer;
+import fr.treeptik.cloudunit.docker.model.Health;
+import fr.treeptik.cloudunit.docker.model.State;
 import fr.treeptik.cloudunit.enums.RemoteExecAction;
 import fr.treeptik.cloudunit.exception.DockerJSONException;
 import fr.treeptik.cloudunit.exception.FatalDockerJSONException;
@@ -63,10 +83,14 @@ public class DockerServiceImpl implements DockerService {
     protected String domain;
 
     @Inject
-    private DockerClient dockerClient;
+    private DockerHostPool dockerHostPool;
 
     @Inject
-    private DockerCloudUnitClient dockerCloudUnitClient;
+    private DockerRequestCoalescer dockerRequestCoalescer;
+
+    private static final String MAIN_VOLUME_PATH = "/opt/cloudunit";
+
+    private static final String WARM_LABEL = "cloudunit.warm";
 
     @Inject
     private DockerConfiguration dockerConfiguration;
@@ -79,9 +103,13 @@ public class DockerServiceImpl implements DockerService {
     @Override
     public void createServer(String containerName, Server server, String imagePath, String imageSubType, User user, List<String> envs,
                              boolean createMainVolume, List<String> volumes) throws DockerJSONException, ServiceException {
+        DockerHost host = dockerHostPool.getHost(server.getDockerHost());
+        dockerHostPool.assign(containerName, host);
         if (volumes == null) { volumes = new ArrayList<>(); }
-        if (createMainVolume) { dockerCloudUnitClient.createVolume(containerName, "runtime"); }
-        volumes.add(containerName + ":/opt/cloudunit:rw");
+        // a server claimed from the warm pool is recreated on the volume it was claimed with
+        String mainVolume = server.getMainVolume() != null ? server.getMainVolume() : containerName;
+        if (createMainVolume) { host.getDockerCloudUnitClient().createVolume(mainVolume, "runtime"); }
+        volumes.add(mainVolume + ":" + MAIN_VOLUME_PATH + ":rw");
         List<String> volumesFrom = null;
         if (dockerConfiguration.isAgentPresent()) {
             volumesFrom = Arrays.asList("cu-monitoring-agents");
@@ -98,14 +126,16 @@ public class DockerServiceImpl implements DockerService {
         //ports.put("8000/tcp", "");
         DockerContainer container = ContainerUtils.newCreateInstance(containerName, imagePath, imageSubType, volumesFrom, args,
                 volumes, envs, null, "skynet", domain);
-        dockerCloudUnitClient.createContainer(container);
+        host.getDockerCloudUnitClient().createContainer(container);
     }
 
     @Override
     public Server startServer(String containerName, Server server) throws DockerJSONException {
         DockerContainer container = ContainerUtils.newStartInstance(containerName, null, null, false);
-        dockerCloudUnitClient.startContainer(container);
-        container = dockerCloudUnitClient.findContainer(container);
+        DockerHost host = dockerHostPool.forContainer(containerName);
+        host.getDockerCloudUnitClient().startContainer(container);
+        host.getContainerStateCache().invalidate(containerName);
+        container = host.getContainerStateCache().findContainer(containerName);
         server = containerMapper.mapDockerContainerToServer(container, server);
         return server;
     }
@@ -113,22 +143,107 @@ public class DockerServiceImpl implements DockerService {
     @Override
     public void stopContainer(String containerName) throws DockerJSONException {
         DockerContainer container = ContainerUtils.newStartInstance(containerName, null, null, false);
-        dockerCloudUnitClient.stopContainer(container);
+        DockerHost host = dockerHostPool.forContainer(containerName);
+        host.getDockerCloudUnitClient().stopContainer(container);
+        host.getContainerStateCache().invalidate(containerName);
     }
 
     @Override
     public void killServer(String containerName) throws DockerJSONException {
         DockerContainer container = ContainerUtils.newStartInstance(containerName, null, null, false);
-        dockerCloudUnitClient.killContainer(container);
+        DockerHost host = dockerHostPool.forContainer(containerName);
+        host.getDockerCloudUnitClient().killContainer(container);
+        host.getContainerStateCache().invalidate(containerName);
     }
 
     @Override
     public void removeContainer(String containerName, boolean removeVolume) throws DockerJSONException {
         DockerContainer container = ContainerUtils.newStartInstance(containerName, null, null, false);
-        dockerCloudUnitClient.removeContainer(container);
+        DockerHost host = dockerHostPool.forContainer(containerName);
+        String mainVolume = removeVolume ? findMainVolume(host, container) : null;
+        host.getDockerCloudUnitClient().removeContainer(container);
+        host.getContainerStateCache().invalidate(containerName);
         if (removeVolume) {
-            dockerCloudUnitClient.removeVolume(containerName);
+            host.getDockerCloudUnitClient().removeVolume(mainVolume);
+        }
+        dockerHostPool.release(containerName);
+    }
+
+    /**
+     * The main volume is named after the container, except for the containers claimed from the warm pool
+     * which keep the volume created under their warm name
+     */
+    private String findMainVolume(DockerHost host, DockerContainer container) {
+        try {
+            DockerContainer inspected = host.getDockerCloudUnitClient().findContainer(container, null);
+            if (inspected.getMounts() != null) {
+                Optional<String> volume = inspected.getMounts().stream()
+                        .filter(m -> MAIN_VOLUME_PATH.equals(m.getDestination()) && m.getName() != null)
+                        .map(m -> m.getName()).findFirst();
+                if (volume.isPresent()) {
+                    return volume.get();
+                }
+            }
+        } catch (DockerJSONException e) {
+            logger.warn("Cannot inspect the mounts of " + container.getName(), e);
+        }
+        return container.getName();
+    }
+
+    @Override
+    public void createWarmServer(String containerName, fr.treeptik.cloudunit.model.Image image, String dockerHost,
+                                 List<String> args) throws DockerJSONException {
+        DockerHost host = dockerHostPool.getHost(dockerHost);
+        dockerHostPool.assign(containerName, host);
+        host.getDockerCloudUnitClient().createVolume(containerName, "runtime");
+        List<String> volumes = new ArrayList<>();
+        volumes.add(containerName + ":" + MAIN_VOLUME_PATH + ":rw");
+        List<String> volumesFrom = null;
+        if (dockerConfiguration.isAgentPresent()) {
+            volumesFrom = Arrays.asList("cu-monitoring-agents");
+        }
+        DockerContainer container = ContainerUtils.newCreateInstance(containerName, image.getPath(),
+                image.getImageSubType().toString(), volumesFrom, args, volumes, null, null, "skynet", domain);
+        // routing labels can not be changed after the creation : the proxy falls back on the container name,
+        // which is renamed when the container is claimed
+        Map<String, String> labels = container.getConfig().getLabels();
+        labels.remove("traefik.backend");
+        labels.remove("traefik.frontend.rule");
+        labels.put(WARM_LABEL, image.getName());
+        host.getDockerCloudUnitClient().createContainer(container);
+        host.getDockerCloudUnitClient().startContainer(ContainerUtils.newStartInstance(containerName, null, null, false));
+    }
+
+    @Override
+    public List<String> listWarmServers(String imageName) throws FatalDockerJSONException {
+        List<String> names = new ArrayList<>();
+        try {
+            for (DockerHost host : dockerHostPool.getHosts()) {
+                for (Container container : host.getDockerClient().listContainers(
+                        DockerClient.ListContainersParam.allContainers(),
+                        DockerClient.ListContainersParam.withLabel(WARM_LABEL, imageName))) {
+                    String name = container.names().get(0).substring(1);
+                    dockerHostPool.assign(name, host);
+                    names.add(name);
+                }
+            }
+        } catch (DockerException | InterruptedException e) {
+            throw new FatalDockerJSONException("Cannot list the warm servers of " + imageName, e);
         }
+        return names;
+    }
+
+    @Override
+    public void renameContainer(String containerName, String newName) throws FatalDockerJSONException {
+        DockerHost host = dockerHostPool.forContainer(containerName);
+        try {
+            host.getDockerClient().renameContainer(containerName, newName);
+        } catch (DockerException | InterruptedException e) {
+            throw new FatalDockerJSONException("Cannot rename " + containerName + " to " + newName, e);
+        }
+        host.getContainerStateCache().invalidate(containerName);
+        dockerHostPool.assign(newName, host);
+        dockerHostPool.release(containerName);
     }
 
     @Override
@@ -139,34 +254,86 @@ public class DockerServiceImpl implements DockerService {
     @Override
     public String execCommand(String containerName, String command, boolean privileged, boolean detached)
             throws FatalDockerJSONException {
-        final String[] commands = { "bash", "-c", command };
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        execCommand(containerName, shell(command), command, privileged, detached, false, (stderr, frame) -> {
+            while (frame.hasRemaining()) {
+                output.write(frame.get());
+            }
+        });
+        String result = new String(output.toByteArray(), StandardCharsets.UTF_8);
+        logger.debug(result);
+        return result;
+    }
+
+    @Override
+    public ExecResult execCommand(String containerName, String command, boolean privileged, OutputStream output)
+            throws FatalDockerJSONException {
+        WritableByteChannel channel = Channels.newChannel(output);
+        return execCommand(containerName, shell(command), command, privileged, false, true, (stderr, frame) -> {
+            channel.write(frame);
+            output.flush();
+        });
+    }
+
+    @Override
+    public ExecResult execCommand(String containerName, String[] arguments, boolean privileged, OutputStream output)
+            throws FatalDockerJSONException {
+        WritableByteChannel channel = Channels.newChannel(output);
+        // only the executable is reported, the arguments may hold credentials
+        return execCommand(containerName, arguments, arguments[0], privileged, false, true, (stderr, frame) -> {
+            channel.write(frame);
+            output.flush();
+        });
+    }
+
+    @Override
+    public ExecResult execCommand(String containerName, String command, boolean privileged,
+            ExecOutputHandler handler) throws FatalDockerJSONException {
+        return execCommand(containerName, shell(command), command, privileged, false, true, handler);
+    }
+
+    /**
+     * Run the command and hand each frame of its output to the handler as soon as it is received,
+     * then read its exit code if asked. Nothing is accumulated here whatever the size of the output.
+     */
+    private ExecResult execCommand(String containerName, String[] commands, String command, boolean privileged,
+            boolean detached, boolean inspect, ExecOutputHandler handler) throws FatalDockerJSONException {
+        DockerClient client = dockerClient(containerName);
         String execId = null;
         try {
+            List<DockerClient.ExecCreateParam> params = new ArrayList<>(Arrays.asList(
+                    DockerClient.ExecCreateParam.detach(detached),
+                    DockerClient.ExecCreateParam.attachStdout(),
+                    DockerClient.ExecCreateParam.attachStderr()));
             if (privileged) {
-                execId = dockerClient.execCreate(containerName, commands,
-                        com.spotify.docker.client.DockerClient.ExecCreateParam.detach(detached),
-                        com.spotify.docker.client.DockerClient.ExecCreateParam.attachStdout(),
-                        com.spotify.docker.client.DockerClient.ExecCreateParam.attachStderr(),
-                        com.spotify.docker.client.DockerClient.ExecCreateParam.user("root")).id();
-            } else {
-                execId = dockerClient.execCreate(containerName, commands,
-                        com.spotify.docker.client.DockerClient.ExecCreateParam.detach(detached),
-                        com.spotify.docker.client.DockerClient.ExecCreateParam.attachStdout(),
-                        com.spotify.docker.client.DockerClient.ExecCreateParam.attachStderr()).id();
+                params.add(DockerClient.ExecCreateParam.user("root"));
             }
-            try (final LogStream stream = dockerClient.execStart(execId)) {
-                final String output = stream.readFully();
-                logger.debug(output);
-                return output;
+            execId = client.execCreate(containerName, commands,
+                    params.toArray(new DockerClient.ExecCreateParam[params.size()])).id();
+            long length = 0;
+            try (final LogStream stream = client.execStart(execId)) {
+                while (stream.hasNext()) {
+                    LogMessage message = stream.next();
+                    length += message.content().remaining();
+                    handler.onOutput(message.stream() == LogMessage.Stream.STDERR, message.content());
+                }
             }
-        } catch (DockerException | InterruptedException e) {
+            // the callers reading the output as a String never look at the exit code
+            Integer exitCode = inspect ? client.execInspect(execId).exitCode() : null;
+            return new ExecResult(execId, exitCode, length);
+        } catch (DockerException | InterruptedException | IOException e) {
             StringBuilder msgError = new StringBuilder();
             msgError.append("containerName:[").append(containerName).append("]");
             msgError.append(", command:[").append(command).append("]");
+            msgError.append(", execId:[").append(execId).append("]");
             throw new FatalDockerJSONException(msgError.toString(), e);
         }
     }
 
+    private String[] shell(String command) {
+        return new String[] { "bash", "-c", command };
+    }
+
     /**
      * Execute a shell conmmad into a container. Return the output as String
      *
@@ -184,11 +351,57 @@ public class DockerServiceImpl implements DockerService {
         return output;
     }
 
+    @Override
+    public String execReadOnlyCommand(String containerName, String command) throws FatalDockerJSONException {
+        try {
+            return dockerRequestCoalescer.execute("exec:" + containerName + ":" + command,
+                    () -> execCommand(containerName, command));
+        } catch (FatalDockerJSONException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new FatalDockerJSONException("containerName:[" + containerName + "], command:[" + command + "]", e);
+        }
+    }
+
+    @Override
+    public String getContainerIp(String containerName) throws FatalDockerJSONException {
+        try {
+            NetworkSettings settings = inspectContainer(containerName).networkSettings();
+            if (settings.networks() != null) {
+                Optional<String> address = settings.networks().values().stream()
+                        .map(AttachedNetwork::ipAddress)
+                        .filter(ip -> ip != null && !ip.isEmpty())
+                        .findFirst();
+                if (address.isPresent()) {
+                    return address.get();
+                }
+            }
+            String ip = settings.ipAddress();
+            return ip == null || ip.isEmpty() ? null : ip;
+        } catch (Exception e) {
+            StringBuilder msgError = new StringBuilder();
+            msgError.append("containerName=").append(containerName);
+            throw new FatalDockerJSONException(msgError.toString(), e);
+        }
+    }
+
+    @Override
+    public String getHealthStatus(String containerName) throws FatalDockerJSONException {
+        try {
+            Health health = dockerHostPool.forContainer(containerName).getContainerStateCache()
+                    .findContainer(containerName).getState().getHealth();
+            return health == null ? null : health.getStatus();
+        } catch (Exception e) {
+            StringBuilder msgError = new StringBuilder();
+            msgError.append("containerName=").append(containerName);
+            throw new FatalDockerJSONException(msgError.toString(), e);
+        }
+    }
+
     @Override
     public Boolean isRunning(String containerName) throws FatalDockerJSONException {
         try {
-            final ContainerInfo info = dockerClient.inspectContainer("containerID");
-            return info.state().running();
+            return dockerHostPool.forContainer(containerName).getContainerStateCache().findContainer(containerName).getState().getRunning();
         } catch (Exception e) {
             StringBuilder msgError = new StringBuilder();
             msgError.append("containerName=").append(containerName);
@@ -214,10 +427,10 @@ public class DockerServiceImpl implements DockerService {
     @Override
     public Boolean isStoppedGracefully(String containerName) throws FatalDockerJSONException {
         try {
-            final ContainerInfo info = dockerClient.inspectContainer(containerName);
-            boolean exited = info.state().status().equalsIgnoreCase("Exited");
-            if (info.state().exitCode() != 0) {
-                logger.warn("The container may be brutally stopped. Its exit code is : " + info.state().exitCode());
+            final State state = dockerHostPool.forContainer(containerName).getContainerStateCache().findContainer(containerName).getState();
+            boolean exited = "Exited".equalsIgnoreCase(state.getStatus());
+            if (state.getExitCode() != null && state.getExitCode() != 0) {
+                logger.warn("The container may be brutally stopped. Its exit code is : " + state.getExitCode());
             }
             return exited;
         } catch (Exception e) {
@@ -231,19 +444,42 @@ public class DockerServiceImpl implements DockerService {
     public List<List<String>> listContainers() throws FatalDockerJSONException {
         List<List<String>> containersId = null;
         try {
-            List<Container> containers = dockerClient.listContainers(DockerClient.ListContainersParam.allContainers());
-            containersId = containers.stream().map(c -> c.names()).collect(Collectors.toList());
+            containersId = new ArrayList<>();
+            for (DockerHost host : dockerHostPool.getHosts()) {
+                List<Container> containers = host.getDockerClient()
+                        .listContainers(DockerClient.ListContainersParam.allContainers());
+                containersId.addAll(containers.stream().map(c -> c.names()).collect(Collectors.toList()));
+            }
         } catch (DockerException | InterruptedException e) {
             logger.error(e.getMessage());
         }
         return containersId;
     }
 
+    @Override
+    public Map<String, Boolean> findRunningStates() throws FatalDockerJSONException {
+        Map<String, Boolean> states = new HashMap<>();
+        for (DockerHost host : dockerHostPool.getHosts()) {
+            try {
+                for (Container container : host.getDockerClient()
+                        .listContainers(DockerClient.ListContainersParam.allContainers())) {
+                    // the state is missing on the daemons older than 1.23
+                    boolean running = container.state() != null ? "running".equals(container.state())
+                            : container.status() != null && container.status().startsWith("Up");
+                    container.names().forEach(name -> states.put(name.startsWith("/") ? name.substring(1) : name, running));
+                }
+            } catch (DockerException | InterruptedException e) {
+                throw new FatalDockerJSONException("host=" + host.getName(), e);
+            }
+        }
+        return states;
+    }
+
     @Override
     @Cacheable(value = "monitoring", key = "#containerName")
     public String getContainerId(String containerName) throws FatalDockerJSONException {
         try {
-            final ContainerInfo info = dockerClient.inspectContainer(containerName);
+            final ContainerInfo info = inspectContainer(containerName);
             return info.id();
         } catch (Exception e) {
             StringBuilder msgError = new StringBuilder();
@@ -255,7 +491,7 @@ public class DockerServiceImpl implements DockerService {
     @Override
     public String getContainerNameFromId(String id) throws FatalDockerJSONException {
         try {
-            final ContainerInfo info = dockerClient.inspectContainer(id);
+            final ContainerInfo info = inspectContainer(id);
             return info.name();
         } catch (Exception e) {
             StringBuilder msgError = new StringBuilder();
@@ -268,7 +504,7 @@ public class DockerServiceImpl implements DockerService {
     @Cacheable(value = "env", key = "{#containerName,#variable}")
     public String getEnv(String containerName, String variable) throws FatalDockerJSONException {
         try {
-            Optional<String> value = dockerClient.inspectContainer(containerName).config().env().stream()
+            Optional<String> value = inspectContainer(containerName).config().env().stream()
                     .filter(e -> e.startsWith(variable)).map(s -> s.substring(s.indexOf("=") + 1)).findFirst();
             logger.info("VARIABLE=" + value);
             return (value.orElseThrow(() -> new ServiceException(variable + " is missing into DOCKERFILE.")));
@@ -306,7 +542,7 @@ public class DockerServiceImpl implements DockerService {
     public int getFileFromContainer(String containerId, String path, OutputStream outputStream)
             throws FatalDockerJSONException {
         try {
-            InputStream inputStream = dockerClient.archiveContainer(containerId, path);
+            InputStream inputStream = dockerClient(containerId).archiveContainer(containerId, path);
             FilesUtils.unTar(inputStream, outputStream);
             int size = inputStream.available();
             return size;
@@ -323,7 +559,7 @@ public class DockerServiceImpl implements DockerService {
             throws FatalDockerJSONException {
         try {
             Path path = Paths.get(localPathFile);
-            dockerClient.copyToContainer(path, containerId, filePath);
+            dockerClient(containerId).copyToContainer(path, containerId, filePath);
         } catch (Exception e) {
             StringBuilder msgError = new StringBuilder();
             msgError.append("containerId=").append(containerId);
@@ -335,8 +571,10 @@ public class DockerServiceImpl implements DockerService {
     @Override
     public void createModule(String containerName, Module module, String imagePath, User user, List<String> envs,
             boolean createMainVolume, List<String> volumes) throws DockerJSONException {
+        DockerHost host = dockerHostPool.getHost(module.getDockerHost());
+        dockerHostPool.assign(containerName, host);
         if (createMainVolume) {
-            dockerCloudUnitClient.createVolume(containerName, "runtime");
+            host.getDockerCloudUnitClient().createVolume(containerName, "runtime");
         }
         volumes.add(containerName + ":/opt/cloudunit:rw");
         logger.info("Volumes to add : " + volumes.toString());
@@ -352,15 +590,17 @@ public class DockerServiceImpl implements DockerService {
                         p -> p.getHostValue()));
         DockerContainer container = ContainerUtils.newCreateInstance(containerName, imagePath, null, volumesFrom, null, volumes,
                 envs, ports, "skynet", domain);
-        dockerCloudUnitClient.createContainer(container);
+        host.getDockerCloudUnitClient().createContainer(container);
     }
 
     @Override
     public Module startModule(String containerName, Module module) throws DockerJSONException {
         DockerContainer container = ContainerUtils.newStartInstance(containerName, null, null,
                 null);
-        dockerCloudUnitClient.startContainer(container);
-        container = dockerCloudUnitClient.findContainer(container);
+        DockerHost host = dockerHostPool.forContainer(containerName);
+        host.getDockerCloudUnitClient().startContainer(container);
+        host.getContainerStateCache().invalidate(containerName);
+        container = host.getContainerStateCache().findContainer(containerName);
         module = containerMapper.mapDockerContainerToModule(container, module,
                 getEnv(container.getName(), "CU_MODULE_PORT"));
         return module;
@@ -369,7 +609,7 @@ public class DockerServiceImpl implements DockerService {
     @Override
     public String logs(String container) throws DockerJSONException {
         try {
-            LogStream stream = dockerClient.logs(container, DockerClient.LogsParam.stdout(), DockerClient.LogsParam.stderr());
+            LogStream stream = dockerClient(container).logs(container, DockerClient.LogsParam.stdout(), DockerClient.LogsParam.stderr());
             String logs = stream.readFully();
             if (logger.isDebugEnabled()) { logger.debug(logs); }
             return logs;
@@ -381,18 +621,56 @@ public class DockerServiceImpl implements DockerService {
 
     @Override
     public void pullImage(String imageName) throws FatalDockerJSONException {
+        Map<String, ImagePull> pulls = startPullImage(imageName);
         try {
-            this.dockerClient.pull(imageName+":latest");
-        } catch (DockerException | InterruptedException e) {
-            StringBuilder msgError = new StringBuilder();
-            throw new FatalDockerJSONException(msgError.toString(), e);
+            CompletableFuture.allOf(pulls.values().stream().map(ImagePull::getFuture)
+                    .toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException | CancellationException e) {
+            throw new FatalDockerJSONException("Cannot pull image : " + imageName, e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    @Override
+    public Map<String, ImagePull> startPullImage(String imageName) {
+        Map<String, ImagePull> pulls = new LinkedHashMap<>();
+        for (DockerHost host : dockerHostPool.getHosts()) {
+            pulls.put(host.getName(), host.getDockerCloudUnitClient().pullImage("latest", imageName, (pull, progress) -> {
+                if (logger.isDebugEnabled()) {
+                    logger.debug(host.getName() + " - " + pull.getImage() + " - " + progress);
+                }
+            }));
         }
+        return pulls;
+    }
+
+    @Override
+    public Map<String, Collection<ImagePull>> findImagePulls() {
+        Map<String, Collection<ImagePull>> pulls = new LinkedHashMap<>();
+        for (DockerHost host : dockerHostPool.getHosts()) {
+            pulls.put(host.getName(), host.getDockerCloudUnitClient().getImagePuller().getPulls());
+        }
+        return pulls;
+    }
+
+    @Override
+    public boolean cancelPullImage(String imageName) {
+        boolean cancelled = false;
+        for (DockerHost host : dockerHostPool.getHosts()) {
+            ImagePull pull = host.getDockerCloudUnitClient().getImagePuller().getPull(imageName + ":latest");
+            if (pull != null && pull.cancel()) {
+                logger.info("Pull of " + imageName + " cancelled on " + host.getName());
+                cancelled = true;
+            }
+        }
+        return cancelled;
     }
 
     @Override
     public void deleteImage(String imageName) throws ServiceException {
         try {
-            this.dockerClient.removeImage(imageName);
+            for (DockerHost host : dockerHostPool.getHosts()) {
+                host.getDockerClient().removeImage(imageName);
+            }
         } catch (DockerException | InterruptedException e) {
             StringBuilder msgError = new StringBuilder();
             throw new ServiceException("Cannot delete image : " + imageName + ", maybe used.", e);
@@ -404,7 +682,7 @@ public class DockerServiceImpl implements DockerService {
         List<String> imagesId = new ArrayList<>();
 
         try {
-            List<Image> images = dockerClient.listImages(DockerClient.ListImagesFilterParam.allImages());
+            List<Image> images = dockerHostPool.getDefaultHost().getDockerClient().listImages(DockerClient.ListImagesFilterParam.allImages());
             ImmutableList<String> currentTags = null;
             for (Image image: images) {
                 currentTags = image.repoTags().asList();
@@ -419,4 +697,16 @@ public class DockerServiceImpl implements DockerService {
         return imagesId;
     }
 
+    /**
+     * Inspect a container, sharing the request with the identical calls in flight
+     */
+    private ContainerInfo inspectContainer(String containerNameOrId) throws Exception {
+        return dockerRequestCoalescer.execute("inspect:" + containerNameOrId,
+                () -> dockerClient(containerNameOrId).inspectContainer(containerNameOrId));
+    }
+
+    private DockerClient dockerClient(String containerNameOrId) {
+        return dockerHostPool.forContainer(containerNameOrId).getDockerClient();
+    }
+
 }
@@ -110,7 +110,7 @@ public class FileServiceImpl implements FileService {
 
 			String containerName = dockerService.getContainerNameFromId(containerId);
 			final String command = "find " + logDirectory + " -type f ! -size 0 ";
-			String execOutput = dockerService.execCommand(containerName, command);
+			String execOutput = dockerService.execReadOnlyCommand(containerName, command);
 			if (execOutput != null
 					&& execOutput.contains("cannot access") == false) {
 				if (logger.isDebugEnabled()) {
@@ -148,7 +148,7 @@ public class FileServiceImpl implements FileService {
 				logDir = logDir + "/";
 			}
 			command = "tail -n " + maxRows + " " + logDir + filename;
-			execOutput = dockerService.execCommand(containerId, command);
+			execOutput = dockerService.execReadOnlyCommand(containerId, command);
 			if (execOutput != null && execOutput.contains("cannot access") == false) {
 				return execOutput;
 			}
@@ -177,7 +177,7 @@ public class FileServiceImpl implements FileService {
 		List<FileUnit> files = new ArrayList<>();
 		try {
 			final String command = "ls -laF " + path;
-			String execOutput = dockerService.execCommand(containerId, command);
+			String execOutput = dockerService.execReadOnlyCommand(containerId, command);
 			String containerName = dockerService.getContainerNameFromId(containerId);
 			ExplorerFilter filter = ExplorerFactory.getInstance().getCustomFilter(containerName);
 			if (execOutput != null && execOutput.contains("cannot access") == false) {
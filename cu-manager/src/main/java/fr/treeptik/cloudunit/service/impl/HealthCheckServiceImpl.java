@@ -1,28 +1,43 @@
 package fr.treeptik.cloudunit.service.impl;
 
-import fr.treeptik.cloudunit.config.events.DatabaseConnectionFailEvent;
 import fr.treeptik.cloudunit.config.events.UnexpectedContainerStatusEvent;
-import fr.treeptik.cloudunit.docker.core.DockerCloudUnitClient;
-import fr.treeptik.cloudunit.docker.model.State;
+import fr.treeptik.cloudunit.docker.ReconciliationReport;
+import fr.treeptik.cloudunit.exception.FatalDockerJSONException;
 import fr.treeptik.cloudunit.exception.ServiceException;
 import fr.treeptik.cloudunit.model.Application;
+import fr.treeptik.cloudunit.model.Module;
 import fr.treeptik.cloudunit.model.Server;
 import fr.treeptik.cloudunit.model.Status;
 import fr.treeptik.cloudunit.service.ApplicationService;
+import fr.treeptik.cloudunit.service.DockerService;
 import fr.treeptik.cloudunit.service.HealthCheckService;
 import fr.treeptik.cloudunit.service.ModuleService;
 import fr.treeptik.cloudunit.service.ServerService;
-import fr.treeptik.cloudunit.utils.ContainerUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Created by guillaume on 05/10/16.
+ * Reconcile the containers with the status of their applications : the state of all the containers is read
+ * with one list request per docker host, compared in memory with the applications started or stopped, and
+ * the corrective starts and stops are sent in parallel with at most maxParallel at the same time and
+ * maxRate new ones per second.
  */
 @Component
 public class HealthCheckServiceImpl implements HealthCheckService {
@@ -36,7 +51,7 @@ public class HealthCheckServiceImpl implements HealthCheckService {
     private ServerService serverService;
 
     @Inject
-    private DockerCloudUnitClient dockerCloudUnitClient;
+    private DockerService dockerService;
 
     @Inject
     private ModuleService moduleService;
@@ -44,101 +59,163 @@ public class HealthCheckServiceImpl implements HealthCheckService {
     @Inject
     private ApplicationEventPublisher publisher;
 
+    @Value("${healthcheck.reconcile.max.parallel:4}")
+    private int maxParallel;
+
+    @Value("${healthcheck.reconcile.max.rate:5}")
+    private int maxRate;
+
+    private ScheduledThreadPoolExecutor executor;
+
+    private volatile ReconciliationReport lastReport;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ScheduledThreadPoolExecutor(maxParallel, runnable -> {
+            Thread thread = new Thread(runnable, "cloudunit-Reconcile-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
     @Override
     public void checkAndRebootApplications(){
+        long start = System.currentTimeMillis();
+        List<Application> applications;
+        Map<String, Boolean> runningStates;
         try {
-            List<Application> applications = applicationService.findAll();
-            applications.stream().filter(a-> a.getStatus().equals(Status.START)).forEach(a->{
-                checkNotStartedModules(a);
-                checkNotStartedServer(a);
-            });
-            applications.stream().filter(a-> a.getStatus().equals(Status.STOP)).forEach(a->{
-                checkNotStoppedModules(a);
-                checkNotStoppedServer(a);
-            });
-
-        } catch (ServiceException e) {
+            applications = applicationService.findAll();
+            runningStates = dockerService.findRunningStates();
+        } catch (ServiceException | FatalDockerJSONException e) {
             logger.error("An error occures when check and reboot started apps : "
                     + e.getLocalizedMessage());
-            e.printStackTrace();
+            return;
         }
 
-
-    }
-
-    private void checkNotStartedModules(Application a) {
-        a.getModules().stream().forEach(m-> {
-            final State moduleState = dockerCloudUnitClient.findContainer(
-                    ContainerUtils.newStartInstance(m.getName(), null, null, false))
-                    .getState();
-            if(!moduleState.getRunning()){
-                logger.warn("Module container is not started... Trying to restart it." );
-                publisher.publishEvent(
-                        new UnexpectedContainerStatusEvent(String.format("This module is stopped but should be started : %s", m.getName())));
-                try {
-                    moduleService.startModule(m.getName());
-                } catch (ServiceException e) {
-                    logger.error("An error occures when check and reboot started apps : "
-                            + e.getLocalizedMessage());
-                }
+        List<CorrectiveAction> actions = new ArrayList<>();
+        int containers = 0;
+        int missing = 0;
+        for (Application a : applications) {
+            boolean started = Status.START.equals(a.getStatus());
+            if (!started && !Status.STOP.equals(a.getStatus())) {
+                continue;
             }
-        });
-    }
-    private void checkNotStoppedModules(Application a) {
-        a.getModules().stream().forEach(m-> {
-            final State moduleState = dockerCloudUnitClient.findContainer(
-                    ContainerUtils.newStartInstance(m.getName(), null, null, false))
-                    .getState();
-            if(moduleState.getRunning()){
-                logger.warn("Module container is not stopped... Trying to stop it." );
-                publisher.publishEvent(
-                        new UnexpectedContainerStatusEvent(String.format("This module is started but should be stopped : %s", m.getName())));
-                try {
-                    moduleService.stopModule(m.getName());
-                } catch (ServiceException e) {
-                    logger.error("An error occures when check and reboot shutdown apps : "
-                            + e.getLocalizedMessage());
+            for (Module m : a.getModules()) {
+                containers++;
+                Boolean running = runningStates.get(m.getName());
+                if (running == null) {
+                    logger.warn("Module container is missing : " + m.getName());
+                    missing++;
+                } else if (started && !running) {
+                    actions.add(new CorrectiveAction(true, "module", m.getName(),
+                            () -> moduleService.startModule(m.getName())));
+                } else if (!started && running) {
+                    actions.add(new CorrectiveAction(false, "module", m.getName(),
+                            () -> moduleService.stopModule(m.getName())));
                 }
             }
-        });
-    }
+            Server server = a.getServer();
+            if (server == null) {
+                continue;
+            }
+            containers++;
+            Boolean running = runningStates.get(server.getName());
+            if (running == null) {
+                logger.warn("Server container is missing : " + server.getName());
+                missing++;
+            } else if (started && !running) {
+                actions.add(new CorrectiveAction(true, "server", server.getName(), () -> {
+                    server.setApplication(a);
+                    serverService.startServer(server);
+                }));
+            } else if (!started && running) {
+                actions.add(new CorrectiveAction(false, "server", server.getName(),
+                        () -> serverService.stopServer(server)));
+            }
+        }
 
-    private void checkNotStartedServer(Application a) {
-        final State serverState = dockerCloudUnitClient.findContainer(
-                ContainerUtils.newStartInstance(a.getServer().getName(), null, null, false))
-                .getState();
-        if(!serverState.getRunning()){
-           logger.warn("Server container is not started... Trying to restart it." );
-            publisher.publishEvent(
-                    new UnexpectedContainerStatusEvent(String.format("This server is stopped but should be started : %s", a.getServer().getName())));
-           try {
-               Server server = a.getServer();
-               server.setApplication(a);
-               serverService.startServer(server);
-           } catch (ServiceException e) {
-               logger.error("An error occures when check and reboot started apps : "
-                       + e.getLocalizedMessage());
-           }
-       }
+        int failed = dispatch(actions);
+        int notStarted = (int) actions.stream().filter(action -> action.start).count();
+        lastReport = new ReconciliationReport(new Date(start), System.currentTimeMillis() - start, containers,
+                notStarted, actions.size() - notStarted, missing, failed);
+        logger.info("Reconciliation done : " + lastReport);
     }
 
-    private void checkNotStoppedServer(Application a) {
-        final State serverState = dockerCloudUnitClient.findContainer(
-                ContainerUtils.newStartInstance(a.getServer().getName(), null, null, false))
-                .getState();
+    @Override
+    public ReconciliationReport getLastReport() {
+        return lastReport;
+    }
 
-        if(serverState.getRunning()){
-            logger.warn("Server container is not stopped... Trying to stop it." );
-            publisher.publishEvent(
-                    new UnexpectedContainerStatusEvent(String.format("This server is started but should be stopped : %s", a.getServer().getName())));
+    /**
+     * Send the actions, spaced to respect the rate, and wait for all of them.
+     *
+     * @param actions
+     * @return number of failed actions
+     */
+    private int dispatch(List<CorrectiveAction> actions) {
+        long spacing = maxRate > 0 ? 1000L / maxRate : 0;
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < actions.size(); i++) {
+            CorrectiveAction action = actions.get(i);
+            logger.warn(action.kind + " container is not " + (action.start ? "started... Trying to restart it."
+                    : "stopped... Trying to stop it."));
+            publisher.publishEvent(new UnexpectedContainerStatusEvent(String.format(
+                    "This %s is %s but should be %s : %s", action.kind, action.start ? "stopped" : "started",
+                    action.start ? "started" : "stopped", action.containerName)));
+            CompletableFuture<Void> result = new CompletableFuture<>();
+            try {
+                executor.schedule(() -> {
+                    try {
+                        action.operation.apply();
+                        result.complete(null);
+                    } catch (Exception e) {
+                        result.completeExceptionally(e);
+                    }
+                }, i * spacing, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+            }
+            results.add(result);
+        }
+        int failed = 0;
+        for (int i = 0; i < results.size(); i++) {
             try {
-                serverService.stopServer(a.getServer());
-            } catch (ServiceException e) {
-                logger.error("An error occures when check and shutdown apps : "
-                        + e.getLocalizedMessage());
+                results.get(i).join();
+            } catch (CompletionException e) {
+                failed++;
+                logger.error("An error occures when check and reboot " + actions.get(i).containerName + " : "
+                        + e.getCause().getLocalizedMessage());
             }
         }
+        return failed;
     }
 
+    @FunctionalInterface
+    private interface ContainerOperation {
+        void apply() throws ServiceException;
+    }
+
+    private static class CorrectiveAction {
+
+        private final boolean start;
+
+        private final String kind;
 
+        private final String containerName;
+
+        private final ContainerOperation operation;
+
+        private CorrectiveAction(boolean start, String kind, String containerName, ContainerOperation operation) {
+            this.start = start;
+            this.kind = kind;
+            this.containerName = containerName;
+            this.operation = operation;
+        }
+    }
 }
@@ -16,6 +16,8 @@
 package fr.treeptik.cloudunit.service.impl;
 
 import fr.treeptik.cloudunit.dao.ImageDAO;
+import fr.treeptik.cloudunit.dao.ReferenceEntityCache;
+import fr.treeptik.cloudunit.docker.core.ImagePull;
 import fr.treeptik.cloudunit.exception.ServiceException;
 import fr.treeptik.cloudunit.model.Image;
 import fr.treeptik.cloudunit.service.DockerService;
@@ -27,7 +29,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.inject.Inject;
 import javax.persistence.PersistenceException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -41,6 +45,9 @@ public class ImageServiceImpl
     @Inject
     private DockerService dockerService;
 
+    @Inject
+    private ReferenceEntityCache referenceEntityCache;
+
     public ImageDAO getImageDAO() {
         return this.imageDAO;
     }
@@ -163,6 +170,7 @@ public class ImageServiceImpl
 
             image.setEnable(Image.ENABLED);
             image = this.update(image);
+            referenceEntityCache.evictImages();
         } catch (ServiceException e) {
             throw new ServiceException(
                     "Error ImageService : error enable Image", e);
@@ -180,6 +188,7 @@ public class ImageServiceImpl
             image = this.findByName(imageName);
             image.setEnable(Image.DISABLED);
             image = this.update(image);
+            referenceEntityCache.evictImages();
         } catch (ServiceException e) {
             throw new ServiceException(
                     "Error ImageService : error disable Image", e);
@@ -247,6 +256,21 @@ public class ImageServiceImpl
         dockerService.pullImage(imageName);
     }
 
+    @Override
+    public Map<String, ImagePull> startPull(String imageName) {
+        return dockerService.startPullImage(imageName);
+    }
+
+    @Override
+    public Map<String, Collection<ImagePull>> findPulls() {
+        return dockerService.findImagePulls();
+    }
+
+    @Override
+    public boolean cancelPull(String imageName) {
+        return dockerService.cancelPullImage(imageName);
+    }
+
     private List<Image> checkImagesPulled(List<Image> images) throws ServiceException {
         List<String> listImages = this.dockerService.listImages();
         for (String tag: listImages) {
@@ -15,16 +15,14 @@
 
 package fr.treeptik.cloudunit.service.impl;
 
+import fr.treeptik.cloudunit.audit.MessageWriter;
 import fr.treeptik.cloudunit.dao.MessageDAO;
 import fr.treeptik.cloudunit.exception.ServiceException;
 import fr.treeptik.cloudunit.model.Message;
 import fr.treeptik.cloudunit.model.User;
 import fr.treeptik.cloudunit.service.MessageService;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -40,19 +38,28 @@ public class MessageServiceImpl
     @Inject
     private MessageDAO messageDAO;
 
+    @Inject
+    private MessageWriter messageWriter;
+
     @Value("${cloudunit.instance.name}")
     private String cuInstanceName;
 
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public Message create(Message message)
             throws ServiceException {
-        try {
-            message.setCuInstanceName(cuInstanceName);
-            return messageDAO.save(message);
-        } catch (PersistenceException e) {
-            throw new ServiceException(e.getLocalizedMessage(), e);
-        }
+        message.setCuInstanceName(cuInstanceName);
+        messageWriter.write(message);
+        return message;
+    }
+
+    @Override
+    public void evictCache(Message message) {
+        // done by the annotations of MessageService
+    }
+
+    @Override
+    public void evictAllCaches() {
+        // done by the annotation of MessageService
     }
 
     @Override
@@ -69,50 +76,64 @@ public class MessageServiceImpl
     @Override
     public List<Message> listByUser(User user, int nbRows)
             throws ServiceException {
+        return listByUser(user, null, null, nbRows);
+    }
+
+    @Override
+    public List<Message> listByUserNoLimitRows(User user)
+            throws ServiceException {
+        return listByUser(user, null, null, 500);
+    }
+
+    @Override
+    public List<Message> listByApp(User user, String applicationName,
+                                   int nbMessages)
+            throws ServiceException {
+        return listByApp(user, applicationName, null, null, nbMessages);
+    }
+
+    @Override
+    public List<Message> listByUser(User user, Integer since, Integer before, int nbRows)
+            throws ServiceException {
         try {
-            Pageable pageable = new PageRequest(0, nbRows, sortByLastNameAsc());
-            Page<Message> requestedPage = messageDAO.listByUserAndCuInstance(user, cuInstanceName, pageable);
-            return requestedPage.getContent();
+            return messageDAO.listByUserBetween(user, cuInstanceName, lowerBound(since), upperBound(before),
+                    new PageRequest(0, nbRows));
         } catch (PersistenceException e) {
             throw new ServiceException(e.getLocalizedMessage(), e);
         }
     }
 
     @Override
-    public List<Message> listByUserNoLimitRows(User user)
+    public List<Message> listByApp(User user, String applicationName, Integer since, Integer before, int nbRows)
             throws ServiceException {
         try {
-            Pageable pageable = new PageRequest(0, 500, sortByLastNameAsc());
-            Page<Message> requestedPage = messageDAO.listByUserAndCuInstance(user, cuInstanceName, pageable);
-            return requestedPage.getContent();
+            return messageDAO.listByAppBetween(user, applicationName, cuInstanceName, lowerBound(since),
+                    upperBound(before), new PageRequest(0, nbRows));
         } catch (PersistenceException e) {
             throw new ServiceException(e.getLocalizedMessage(), e);
         }
     }
 
     @Override
-    public List<Message> listByApp(User user, String applicationName,
-                                   int nbMessages)
+    public long countByUser(User user, Integer since)
             throws ServiceException {
         try {
-            Pageable pageable = new PageRequest(0, nbMessages,
-                    sortByLastNameAsc());
-            Page<Message> requestedPage = messageDAO.listByApp(user,
-                    applicationName, cuInstanceName, pageable);
-            return requestedPage.getContent();
+            return messageDAO.countByUserSince(user, cuInstanceName, lowerBound(since));
         } catch (PersistenceException e) {
             throw new ServiceException(e.getLocalizedMessage(), e);
         }
     }
 
     /**
-     * Returns a Sort object which sorts persons in ascending order by using the
-     * last name.
-     *
-     * @return
+     * The pages are read by id on the index (author, cuInstanceName, id) : no offset to skip, and no count query
+     * as with a Page.
      */
-    private Sort sortByLastNameAsc() {
-        return new Sort(Sort.Direction.DESC, "date");
+    private Integer lowerBound(Integer since) {
+        return since == null ? 0 : since;
+    }
+
+    private Integer upperBound(Integer before) {
+        return before == null ? Integer.MAX_VALUE : before;
     }
 
 }
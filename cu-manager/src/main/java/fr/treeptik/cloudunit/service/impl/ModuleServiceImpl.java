@@ -20,6 +20,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -36,12 +37,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import fr.treeptik.cloudunit.config.events.HookEvent;
 import fr.treeptik.cloudunit.config.events.ModuleStartEvent;
 import fr.treeptik.cloudunit.config.events.ModuleStopEvent;
 import fr.treeptik.cloudunit.dao.ModuleDAO;
 import fr.treeptik.cloudunit.dao.PortDAO;
-import fr.treeptik.cloudunit.dto.Hook;
 import fr.treeptik.cloudunit.enums.ModuleEnvironmentRole;
 import fr.treeptik.cloudunit.enums.RemoteExecAction;
 import fr.treeptik.cloudunit.exception.CheckException;
@@ -113,15 +112,16 @@ public class ModuleServiceImpl implements ModuleService {
             List<EnvironmentVariable> exportedEnvironment = getExportedEnvironment(module, image, moduleEnvs);
             environmentService.save(user, exportedEnvironment, application.getName(),
                     application.getServer().getName());
+            // modules share the network of their server so they run on the same host
+            module.setDockerHost(application.getServer().getDockerHost());
             dockerService.createModule(containerName, module, imagePath, user, internalEnvironment, true,
                     new ArrayList<>());
             module = dockerService.startModule(containerName, module);
             module = moduleDAO.save(module);
             environmentService.createInDatabase(getInternalEnvironment(module, image, moduleEnvs), containerName,
                     application);
-            applicationEventPublisher.publishEvent(new ModuleStartEvent(module));
             applicationEventPublisher
-                    .publishEvent(new HookEvent(new Hook(containerName, RemoteExecAction.MODULE_POST_CREATION)));
+                    .publishEvent(new ModuleStartEvent(module, RemoteExecAction.MODULE_POST_CREATION));
         } catch (PersistenceException e) {
             logger.error("ServerService Error : Create Server " + e);
             throw new ServiceException(e.getLocalizedMessage(), e);
@@ -269,26 +269,27 @@ public class ModuleServiceImpl implements ModuleService {
 
     @Override
     @Transactional
-    public Module startModule(String moduleName) throws ServiceException {
+    public CompletableFuture<Boolean> startModule(String moduleName) throws ServiceException {
         logger.info("Module : Starting module " + moduleName);
-        Module module = null;
         try {
-            module = findByName(moduleName);
+            Module module = findByName(moduleName);
             module = dockerService.startModule(moduleName, module);
-            applicationEventPublisher.publishEvent(new ModuleStartEvent(module));
+            // the hooks are called once the module is ready
+            ModuleStartEvent moduleStartEvent;
             if (!module.isInitialized()) {
                 module.setInitialized(true);
                 module = moduleDAO.save(module);
-                applicationEventPublisher
-                        .publishEvent(new HookEvent(new Hook(moduleName, RemoteExecAction.MODULE_POST_START_ONCE)));
+                moduleStartEvent = new ModuleStartEvent(module, RemoteExecAction.MODULE_POST_START_ONCE,
+                        RemoteExecAction.MODULE_POST_START);
+            } else {
+                moduleStartEvent = new ModuleStartEvent(module, RemoteExecAction.MODULE_POST_START);
             }
-            applicationEventPublisher
-                    .publishEvent(new HookEvent(new Hook(moduleName, RemoteExecAction.MODULE_POST_START)));
+            applicationEventPublisher.publishEvent(moduleStartEvent);
+            return moduleStartEvent.getReady();
         } catch (PersistenceException e) {
             logger.error("ModuleService Error : fail to start Module" + moduleName);
             throw new ServiceException(e.getLocalizedMessage(), e);
         }
-        return module;
     }
 
     @Override
@@ -15,21 +15,19 @@
 
 package fr.treeptik.cloudunit.service.impl;
 
+import java.io.IOException;
 import java.util.List;
 
 import javax.inject.Inject;
 
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import fr.treeptik.cloudunit.dao.MetricDAO;
+import fr.treeptik.cloudunit.docker.DockerHostPool;
+import fr.treeptik.cloudunit.exception.ServiceException;
+import fr.treeptik.cloudunit.metrics.CAdvisorClient;
+import fr.treeptik.cloudunit.metrics.CAdvisorResponse;
 import fr.treeptik.cloudunit.model.Metric;
 import fr.treeptik.cloudunit.service.MonitoringService;
 
@@ -39,11 +37,15 @@ import fr.treeptik.cloudunit.service.MonitoringService;
 @Service
 public class MonitoringServiceImpl implements MonitoringService {
 
-	private Logger logger = LoggerFactory.getLogger(MonitoringServiceImpl.class);
-
 	@Inject
 	private MetricDAO metricDAO;
 
+	@Inject
+	private CAdvisorClient cAdvisorClient;
+
+	@Inject
+	private DockerHostPool dockerHostPool;
+
 	@Value("${cadvisor.url}")
 	private String cAdvisorURL;
 
@@ -51,45 +53,23 @@ public class MonitoringServiceImpl implements MonitoringService {
 	private String cuInstanceName;
 
 	@Override
-	public String getJsonFromCAdvisor(String containerId) {
-		String result = "";
+	public CAdvisorResponse getJsonFromCAdvisor(String containerName, String containerId) throws ServiceException {
+		String hostURL = dockerHostPool.forContainer(containerName).getCAdvisorURL();
+		String url = hostURL == null || hostURL.isEmpty() ? cAdvisorURL : hostURL;
 		try {
-			CloseableHttpClient httpclient = HttpClients.createDefault();
-			HttpGet httpget = new HttpGet(cAdvisorURL + "/api/v1.3/containers/docker/" + containerId);
-			CloseableHttpResponse response = httpclient.execute(httpget);
-			try {
-				result = EntityUtils.toString(response.getEntity());
-				if (logger.isDebugEnabled()) {
-					logger.debug(result);
-				}
-			} finally {
-				response.close();
-			}
-		} catch (Exception e) {
-			logger.error(containerId, e);
+			return cAdvisorClient.get(url + "/api/v1.3/containers/docker/" + containerId);
+		} catch (IOException e) {
+			throw new ServiceException("cAdvisor not reached for " + containerId, e);
 		}
-		return result;
 	}
 
 	@Override
-	public String getJsonMachineFromCAdvisor() {
-		String result = "";
+	public CAdvisorResponse getJsonMachineFromCAdvisor() throws ServiceException {
 		try {
-			CloseableHttpClient httpclient = HttpClients.createDefault();
-			HttpGet httpget = new HttpGet(cAdvisorURL + "/api/v1.3/machine");
-			CloseableHttpResponse response = httpclient.execute(httpget);
-			try {
-				result = EntityUtils.toString(response.getEntity());
-				if (logger.isDebugEnabled()) {
-					logger.debug(result);
-				}
-			} finally {
-				response.close();
-			}
-		} catch (Exception e) {
-			logger.error("" + e);
+			return cAdvisorClient.get(cAdvisorURL + "/api/v1.3/machine");
+		} catch (IOException e) {
+			throw new ServiceException("cAdvisor not reached", e);
 		}
-		return result;
 	}
 
 	@Override
@@ -31,7 +31,6 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.spotify.docker.client.DockerClient;
 import com.spotify.docker.client.exceptions.DockerException;
 import com.spotify.docker.client.messages.VolumeList;
 
@@ -39,6 +38,8 @@ import fr.treeptik.cloudunit.config.events.ApplicationPendingEvent;
 import fr.treeptik.cloudunit.config.events.ApplicationStartEvent;
 import fr.treeptik.cloudunit.config.events.ServerStartEvent;
 import fr.treeptik.cloudunit.config.events.ServerStopEvent;
+import fr.treeptik.cloudunit.docker.DockerHostPool;
+import fr.treeptik.cloudunit.docker.PlacementScheduler;
 import fr.treeptik.cloudunit.dao.ApplicationDAO;
 import fr.treeptik.cloudunit.dao.ServerDAO;
 import fr.treeptik.cloudunit.dto.VolumeAssociationDTO;
@@ -59,6 +60,7 @@ import fr.treeptik.cloudunit.service.EnvironmentService;
 import fr.treeptik.cloudunit.service.ServerService;
 import fr.treeptik.cloudunit.service.VolumeAssociationService;
 import fr.treeptik.cloudunit.service.VolumeService;
+import fr.treeptik.cloudunit.service.WarmPoolService;
 
 @Service
 public class ServerServiceImpl implements ServerService {
@@ -82,6 +84,12 @@ public class ServerServiceImpl implements ServerService {
     @Inject
 	private DockerService dockerService;
 
+	@Inject
+	private PlacementScheduler placementScheduler;
+
+	@Inject
+	private WarmPoolService warmPoolService;
+
 	@Inject
 	private ApplicationEventPublisher applicationEventPublisher;
 
@@ -95,7 +103,7 @@ public class ServerServiceImpl implements ServerService {
 	private EnvironmentService environmentService;
 	
     @Inject
-    private DockerClient dockerClient;
+    private DockerHostPool dockerHostPool;
     
 	public ServerDAO getServerDAO() {
 		return this.serverDAO;
@@ -146,7 +154,10 @@ public class ServerServiceImpl implements ServerService {
 		String imagePath = server.getImage().getPath();
 		String imageSubType = server.getImage().getImageSubType().toString();
 		try {
-            dockerService.createServer(containerName, server, imagePath, imageSubType, user, null, true, null);
+			if (!warmPoolService.claim(server, containerName, user)) {
+				server.setDockerHost(placementScheduler.place().getName());
+				dockerService.createServer(containerName, server, imagePath, imageSubType, user, null, true, null);
+			}
 			server = dockerService.startServer(containerName, server);
 			server = serverDAO.saveAndFlush(server);
 			// Update server with all its information
@@ -429,7 +440,8 @@ public class ServerServiceImpl implements ServerService {
 				.isPresent()) {
 			VolumeList volumeList = null;
 			try {
-				volumeList = dockerClient.listVolumes();
+				volumeList = dockerHostPool.getHost(application.getServer().getDockerHost()).getDockerClient()
+						.listVolumes();
 			} catch (InterruptedException | DockerException e) {
 				throw new ServiceException("Action failed");
 			}
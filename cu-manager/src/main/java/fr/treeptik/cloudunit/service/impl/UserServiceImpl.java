@@ -28,6 +28,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.dao.DataAccessException;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -42,6 +43,7 @@ import fr.treeptik.cloudunit.model.Server;
 import fr.treeptik.cloudunit.model.User;
 import fr.treeptik.cloudunit.service.ApplicationService;
 import fr.treeptik.cloudunit.service.UserService;
+import fr.treeptik.cloudunit.utils.AuthenticatedUserCache;
 import fr.treeptik.cloudunit.utils.CustomPasswordEncoder;
 import fr.treeptik.cloudunit.utils.ShellUtils;
 
@@ -67,6 +69,12 @@ public class UserServiceImpl
     @Inject
     private ApplicationService applicationService;
 
+    @Inject
+    private AuthenticatedUserCache authenticatedUserCache;
+
+    @Inject
+    private UserCache userCache;
+
     public UserDAO getUserDAO() {
         return this.userDAO;
     }
@@ -155,6 +163,7 @@ public class UserServiceImpl
             user = userDAO.findOne(user.getId());
             user.setStatus(User.STATUS_ACTIF);
             user = userDAO.saveAndFlush(user);
+            evictCaches(user.getLogin());
 
         } catch (PersistenceException e) {
             logger.error("UserService Error : Activate User Account" + e);
@@ -176,6 +185,7 @@ public class UserServiceImpl
                 + user.getLastName());
         try {
             userDAO.saveAndFlush(user);
+            evictCaches(user.getLogin());
         } catch (PersistenceException e) {
             logger.error("UserService Error : update User" + e);
             throw new ServiceException(e.getLocalizedMessage(), e);
@@ -205,6 +215,7 @@ public class UserServiceImpl
             this.deleteAllUsersMessages(user);
 
             userDAO.delete(user);
+            evictCaches(user.getLogin());
 
             logger.info("UserService : User successfully removed ");
 
@@ -285,6 +296,7 @@ public class UserServiceImpl
                     + newPassword);
 
             userDAO.saveAndFlush(user);
+            evictCaches(userLogin);
         } catch (PersistenceException e) {
             logger.error("Error UserService : error changePassword : " + e);
             throw new ServiceException(e.getLocalizedMessage(), e);
@@ -334,4 +346,12 @@ public class UserServiceImpl
         }
     }
 
+    /**
+     * Drop the user from the session and login caches after a change of its
+     * password, role or status.
+     */
+    private void evictCaches(String login) {
+        authenticatedUserCache.invalidate(login);
+        userCache.removeUserFromCache(login);
+    }
 }
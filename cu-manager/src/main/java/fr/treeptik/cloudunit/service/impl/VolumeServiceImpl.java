@@ -10,7 +10,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import fr.treeptik.cloudunit.dao.VolumeAssociationDAO;
 import fr.treeptik.cloudunit.dao.VolumeDAO;
-import fr.treeptik.cloudunit.docker.core.DockerCloudUnitClient;
+import fr.treeptik.cloudunit.docker.DockerHost;
+import fr.treeptik.cloudunit.docker.DockerHostPool;
 import fr.treeptik.cloudunit.exception.CheckException;
 import fr.treeptik.cloudunit.exception.ServiceException;
 import fr.treeptik.cloudunit.model.Volume;
@@ -27,14 +28,14 @@ public class VolumeServiceImpl implements VolumeService {
 	private VolumeAssociationDAO volumeAssociationDAO;
 
 	@Inject
-	private DockerCloudUnitClient dockerCloudUnitClient;
+	private DockerHostPool dockerHostPool;
 
 	@Override
 	@Transactional
 	public Volume createNewVolume(String name) {
 		try {
 			checkVolumeFormat(name);
-			dockerCloudUnitClient.createVolume(name, "runtime");
+			createOnAllHosts(name);
 			return registerNewVolume(name);
 		} catch (CheckException e) {
 			throw new CheckException(e.getMessage());
@@ -59,8 +60,8 @@ public class VolumeServiceImpl implements VolumeService {
 		try {
 			checkVolumeFormat(volume.getName());
 			Volume currentVolume = loadVolume(volume.getId());
-			dockerCloudUnitClient.removeVolume(currentVolume.getName());
-			dockerCloudUnitClient.createVolume(volume.getName(), "runtime");
+			removeOnAllHosts(currentVolume.getName());
+			createOnAllHosts(volume.getName());
 			volumeDAO.save(volume);
 			return volume;
 		} catch (CheckException e) {
@@ -78,7 +79,7 @@ public class VolumeServiceImpl implements VolumeService {
 				throw new CheckException("Volume couldn't be remove because it's currently linked whith application");
 			}
 			volumeDAO.delete(id);
-			dockerCloudUnitClient.removeVolume(volume.getName());
+			removeOnAllHosts(volume.getName());
 		} catch (CheckException e) {
 			throw new CheckException(volume.toString(), e);
 		}
@@ -99,6 +100,22 @@ public class VolumeServiceImpl implements VolumeService {
 		return volumeDAO.findAllVolumes();
 	}
 
+	/**
+	 * The docker volumes are local to a host : a shared volume exists on every host so that it can be mounted
+	 * whatever the host the server is placed on.
+	 */
+	private void createOnAllHosts(String name) {
+		for (DockerHost host : dockerHostPool.getHosts()) {
+			host.getDockerCloudUnitClient().createVolume(name, "runtime");
+		}
+	}
+
+	private void removeOnAllHosts(String name) {
+		for (DockerHost host : dockerHostPool.getHosts()) {
+			host.getDockerCloudUnitClient().removeVolume(name);
+		}
+	}
+
 	private void checkVolumeFormat(String name) {
 		if (name == null || name.isEmpty())
 			throw new CheckException("This name is not consistent !");
@@ -0,0 +1,219 @@
+package fr.treeptik.cloudunit.service.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import fr.treeptik.cloudunit.docker.ExecResult;
+import fr.treeptik.cloudunit.docker.PlacementScheduler;
+import fr.treeptik.cloudunit.enums.RemoteExecAction;
+import fr.treeptik.cloudunit.model.Image;
+import fr.treeptik.cloudunit.model.Server;
+import fr.treeptik.cloudunit.model.User;
+import fr.treeptik.cloudunit.service.DockerService;
+import fr.treeptik.cloudunit.service.ImageService;
+import fr.treeptik.cloudunit.service.WarmPoolService;
+
+/**
+ * Warm containers are started with a manager account of their own, kept in memory only : the containers
+ * left by a previous run of the manager can not be claimed and are removed at startup.
+ * Claiming renames the container and runs its claim script (RemoteExecAction.CLAIM_WARM_SERVER) which
+ * replaces the warm account by the user one. A container whose claim fails is removed and the server is
+ * created the usual way. A container being claimed is no longer idle but is not an orphan either.
+ */
+@Service
+public class WarmPoolServiceImpl implements WarmPoolService {
+
+    private Logger logger = LoggerFactory.getLogger(WarmPoolServiceImpl.class);
+
+    private static final String WARM_USER = "cu-warm";
+
+    private static final String WARM_PREFIX = "cu-warm-";
+
+    @Inject
+    private DockerService dockerService;
+
+    @Inject
+    private ImageService imageService;
+
+    @Inject
+    private PlacementScheduler placementScheduler;
+
+    /**
+     * Pooled images and their size, for example tomcat-8:2,wildfly-10:1
+     */
+    @Value("${docker.warmpool.images:}")
+    private String pooledImages;
+
+    private final Map<String, Integer> sizes = new LinkedHashMap<>();
+
+    private final ConcurrentMap<String, ConcurrentLinkedDeque<WarmServer>> idle = new ConcurrentHashMap<>();
+
+    private final Set<String> claiming = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean replenishing = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        for (String entry : pooledImages.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts[0].isEmpty()) {
+                continue;
+            }
+            sizes.put(parts[0], parts.length > 1 ? Integer.valueOf(parts[1]) : 1);
+            idle.put(parts[0], new ConcurrentLinkedDeque<>());
+        }
+        if (!sizes.isEmpty()) {
+            logger.info("Warm pool : " + sizes);
+        }
+    }
+
+    @Override
+    public void replenish() {
+        if (sizes.isEmpty() || !replenishing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            removeOrphans();
+            for (Map.Entry<String, Integer> size : sizes.entrySet()) {
+                Image image = imageService.findByName(size.getKey());
+                if (image == null || !image.isEnable()) {
+                    continue;
+                }
+                ConcurrentLinkedDeque<WarmServer> servers = idle.get(size.getKey());
+                while (servers.size() < size.getValue()) {
+                    servers.add(create(image));
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Cannot replenish the warm pool", e);
+        } finally {
+            replenishing.set(false);
+        }
+    }
+
+    @Override
+    public boolean claim(Server server, String containerName, User user) {
+        WarmServer warm = take(server.getImage().getName());
+        if (warm == null) {
+            return false;
+        }
+        boolean renamed = false;
+        try {
+            dockerService.renameContainer(warm.name, containerName);
+            renamed = true;
+            if (server.isApplicationServer()) {
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                ExecResult result = dockerService.execCommand(containerName,
+                        RemoteExecAction.CLAIM_WARM_SERVER.getCommandArguments(WARM_USER, warm.password,
+                                user.getLogin(), user.getPassword()), false, output);
+                if (!result.isSuccess()) {
+                    throw new IllegalStateException("claim script failed : " + result + " "
+                            + new String(output.toByteArray(), StandardCharsets.UTF_8));
+                }
+            }
+            server.setDockerHost(warm.dockerHost);
+            server.setMainVolume(warm.name);
+            logger.info(warm.name + " claimed as " + containerName);
+            return true;
+        } catch (Exception e) {
+            logger.error("Cannot claim " + warm.name + " for " + containerName + ", the server is created", e);
+            discard(renamed ? containerName : warm.name);
+            return false;
+        } finally {
+            claiming.remove(warm.name);
+        }
+    }
+
+    @Override
+    public Map<String, Integer> getIdleCounts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        idle.forEach((image, servers) -> counts.put(image, servers.size()));
+        return counts;
+    }
+
+    /**
+     * The container is marked as being claimed before it leaves the idle ones, so that it is always known
+     * by removeOrphans.
+     */
+    private WarmServer take(String imageName) {
+        ConcurrentLinkedDeque<WarmServer> servers = idle.get(imageName);
+        if (servers == null) {
+            return null;
+        }
+        for (WarmServer warm : servers) {
+            if (claiming.add(warm.name)) {
+                servers.remove(warm);
+                return warm;
+            }
+        }
+        return null;
+    }
+
+    private WarmServer create(Image image) {
+        String name = WARM_PREFIX + image.getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        String password = UUID.randomUUID().toString().replace("-", "");
+        String dockerHost = placementScheduler.place().getName();
+        boolean applicationServer = "APPSERVER".equalsIgnoreCase(image.getImageSubType().toString());
+        dockerService.createWarmServer(name, image, dockerHost,
+                applicationServer ? Arrays.asList("run", WARM_USER, password) : null);
+        logger.info("Warm server " + name + " created on " + dockerHost);
+        return new WarmServer(name, password, dockerHost);
+    }
+
+    /**
+     * Remove the warm containers that are not known by this manager. The claimed containers keep the warm
+     * label but not the warm name.
+     */
+    private void removeOrphans() {
+        for (Map.Entry<String, ConcurrentLinkedDeque<WarmServer>> servers : idle.entrySet()) {
+            for (String name : dockerService.listWarmServers(servers.getKey())) {
+                if (name.startsWith(WARM_PREFIX) && servers.getValue().stream().noneMatch(s -> s.name.equals(name))
+                        && !claiming.contains(name)) {
+                    logger.info("Orphan warm server " + name + " removed");
+                    discard(name);
+                }
+            }
+        }
+    }
+
+    private void discard(String containerName) {
+        try {
+            dockerService.removeContainer(containerName, true);
+        } catch (Exception e) {
+            logger.debug("Cannot remove " + containerName, e);
+        }
+    }
+
+    private static class WarmServer {
+
+        private final String name;
+
+        private final String password;
+
+        private final String dockerHost;
+
+        private WarmServer(String name, String password, String dockerHost) {
+            this.name = name;
+            this.password = password;
+            this.dockerHost = dockerHost;
+        }
+    }
+
+}
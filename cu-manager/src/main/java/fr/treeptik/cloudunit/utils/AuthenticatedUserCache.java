@@ -0,0 +1,98 @@
+package fr.treeptik.cloudunit.utils;
+
+import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.http.HttpSession;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import fr.treeptik.cloudunit.exception.ServiceException;
+import fr.treeptik.cloudunit.model.User;
+
+/**
+ * Keep the authenticated user in the current request and in its HTTP session, so that the controllers and the
+ * aspects serving a request share a single lookup. A session entry is dropped as soon as the user is modified
+ * through {@link #invalidate(String)}. Outside of a request, the user is always loaded.
+ */
+@Component
+public class AuthenticatedUserCache {
+
+    private static final String ATTRIBUTE = AuthenticatedUserCache.class.getName();
+
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public User get(String login, UserLoader loader) throws ServiceException {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return loader.load(login);
+        }
+        long generation = generation(login);
+        Entry entry = (Entry) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (entry != null && entry.isValid(login, generation)) {
+            return entry.user;
+        }
+        HttpSession session = attributes instanceof ServletRequestAttributes
+                ? ((ServletRequestAttributes) attributes).getRequest().getSession(false) : null;
+        entry = session == null ? null : (Entry) session.getAttribute(ATTRIBUTE);
+        if (entry == null || !entry.isValid(login, generation)) {
+            User user = loader.load(login);
+            if (user == null) {
+                return null;
+            }
+            entry = new Entry(login, generation, user);
+            if (session != null) {
+                session.setAttribute(ATTRIBUTE, entry);
+            }
+        }
+        attributes.setAttribute(ATTRIBUTE, entry, RequestAttributes.SCOPE_REQUEST);
+        return entry.user;
+    }
+
+    /**
+     * Make the user be loaded again by the next request of each of its sessions.
+     */
+    public void invalidate(String login) {
+        if (login != null) {
+            generations.computeIfAbsent(login, l -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    private long generation(String login) {
+        AtomicLong generation = generations.get(login);
+        return generation == null ? 0 : generation.get();
+    }
+
+    @FunctionalInterface
+    public interface UserLoader {
+        User load(String login) throws ServiceException;
+    }
+
+    private static class Entry implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String login;
+
+        private final long generation;
+
+        private final User user;
+
+        private Entry(String login, long generation, User user) {
+            this.login = login;
+            this.generation = generation;
+            this.user = user;
+        }
+
+        private boolean isValid(String login, long generation) {
+            return this.login.equals(login) && this.generation == generation;
+        }
+
+    }
+
+}
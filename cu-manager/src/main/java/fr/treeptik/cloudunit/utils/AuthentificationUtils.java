@@ -40,9 +40,16 @@ public class AuthentificationUtils {
 	@Inject
 	private MessageSource messageSource;
 
+	@Inject
+	private AuthenticatedUserCache authenticatedUserCache;
+
+	/**
+	 * The authenticated user, loaded once per request and kept in the session
+	 * until it is modified.
+	 */
 	public User getAuthentificatedUser() throws ServiceException {
 		Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-		return userService.findByLogin(auth.getName());
+		return authenticatedUserCache.get(auth.getName(), userService::findByLogin);
 	}
 
 	public void allowUser(User user) throws ServiceException {
@@ -0,0 +1,104 @@
+package fr.treeptik.cloudunit.audit;
+
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import fr.treeptik.cloudunit.dao.MessageDAO;
+import fr.treeptik.cloudunit.dao.UserDAO;
+import fr.treeptik.cloudunit.initializer.CloudUnitApplicationContext;
+import fr.treeptik.cloudunit.model.Message;
+
+/**
+ * Check that the old audit messages are moved to the archive files and still readable.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@WebAppConfiguration
+@ContextConfiguration(classes = {CloudUnitApplicationContext.class, MockServletContext.class})
+@ActiveProfiles("integration")
+public class MessageArchiverTestIT {
+
+    @Inject
+    private MessageArchiver messageArchiver;
+
+    @Inject
+    private MessageDAO messageDAO;
+
+    @Inject
+    private UserDAO userDAO;
+
+    @Value("${cloudunit.instance.name}")
+    private String cuInstanceName;
+
+    @Test
+    public void test_oldMessagesAreArchived() throws Exception {
+        ReflectionTestUtils.setField(messageArchiver, "directory",
+                Files.createTempDirectory("archive").toString());
+        Date old = Date.from(Instant.now().minusSeconds(200 * 86400L));
+        for (int i = 0; i < 3; i++) {
+            Message message = new Message();
+            message.setAuthor(userDAO.findByLogin("johndoe"));
+            message.setDate(old);
+            message.setType(Message.INFO);
+            message.setCuInstanceName(cuInstanceName);
+            message.setApplicationName("archived");
+            message.setEvent("old " + i);
+            messageDAO.save(message);
+        }
+        long count = messageDAO.count();
+
+        Assert.assertTrue(messageArchiver.archive() >= 3);
+        Assert.assertTrue(messageDAO.count() <= count - 3);
+
+        LocalDate day = old.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        List<MessageArchiver.ArchivedMessage> archived = messageArchiver.search("johndoe", "archived", day, day, 2);
+        Assert.assertEquals(2, archived.size());
+        Assert.assertEquals("old 2", archived.get(0).event);
+        Assert.assertEquals("old 1", archived.get(1).event);
+    }
+
+    @Test
+    public void test_messagesArchivedTwiceAreFoundOnce() throws Exception {
+        ReflectionTestUtils.setField(messageArchiver, "directory",
+                Files.createTempDirectory("archive").toString());
+        Date old = Date.from(Instant.now().minusSeconds(200 * 86400L));
+        List<Message> batch = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Message message = new Message();
+            message.setId(i + 1);
+            message.setAuthor(userDAO.findByLogin("johndoe"));
+            message.setDate(old);
+            message.setType(Message.INFO);
+            message.setCuInstanceName(cuInstanceName);
+            message.setApplicationName("archived");
+            message.setEvent("old " + i);
+            batch.add(message);
+        }
+        // the delete of the batch failed, the next run archives it again
+        ReflectionTestUtils.invokeMethod(messageArchiver, "append", batch);
+        ReflectionTestUtils.invokeMethod(messageArchiver, "append", batch);
+
+        LocalDate day = old.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        List<MessageArchiver.ArchivedMessage> archived = messageArchiver.search("johndoe", "archived", day, day, 10);
+        Assert.assertEquals(3, archived.size());
+        Assert.assertEquals("old 2", archived.get(0).event);
+    }
+
+}
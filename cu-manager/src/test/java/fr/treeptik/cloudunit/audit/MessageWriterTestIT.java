@@ -0,0 +1,64 @@
+package fr.treeptik.cloudunit.audit;
+
+import javax.inject.Inject;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+
+import fr.treeptik.cloudunit.dao.MessageDAO;
+import fr.treeptik.cloudunit.dao.UserDAO;
+import fr.treeptik.cloudunit.initializer.CloudUnitApplicationContext;
+import fr.treeptik.cloudunit.model.Message;
+import fr.treeptik.cloudunit.service.MessageService;
+
+/**
+ * Check that the audit messages are saved in the background.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@WebAppConfiguration
+@ContextConfiguration(classes = {CloudUnitApplicationContext.class, MockServletContext.class})
+@ActiveProfiles("integration")
+public class MessageWriterTestIT {
+
+    @Inject
+    private MessageService messageService;
+
+    @Inject
+    private MessageDAO messageDAO;
+
+    @Inject
+    private UserDAO userDAO;
+
+    @Inject
+    private MessageWriter messageWriter;
+
+    @Test
+    public void test_messagesAreSavedInTheBackground() throws Exception {
+        long count = messageDAO.count();
+        long written = messageWriter.getStatistics().getWritten();
+        for (int i = 0; i < 10; i++) {
+            Message message = new Message();
+            message.setAuthor(userDAO.findByLogin("johndoe"));
+            message.setType(Message.INFO);
+            message.setEvent("audit " + i);
+            messageService.create(message);
+        }
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (messageDAO.count() < count + 10 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+
+        Assert.assertEquals(count + 10, messageDAO.count());
+        MessageWriter.Statistics statistics = messageWriter.getStatistics();
+        Assert.assertEquals(written + 10, statistics.getWritten());
+        Assert.assertEquals(0, statistics.getFallbacks());
+    }
+
+}
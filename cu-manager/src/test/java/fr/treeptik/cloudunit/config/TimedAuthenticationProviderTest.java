@@ -0,0 +1,72 @@
+package fr.treeptik.cloudunit.config;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.cache.EhCacheBasedUserCache;
+
+import net.sf.ehcache.CacheManager;
+
+/**
+ * Check that the logins are served by the user cache of ehcache.xml and measured.
+ */
+public class TimedAuthenticationProviderTest {
+
+    private CacheManager cacheManager;
+
+    private AtomicLong lookups = new AtomicLong();
+
+    private TimedAuthenticationProvider provider = new TimedAuthenticationProvider(lookups::get);
+
+    private ProviderManager authenticationManager;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheManager = CacheManager.create(getClass().getResource("/ehcache.xml"));
+        EhCacheBasedUserCache userCache = new EhCacheBasedUserCache();
+        userCache.setCache(cacheManager.getCache("userDetails"));
+        provider.setUserCache(userCache);
+        provider.setUserDetailsService(login -> {
+            lookups.incrementAndGet();
+            return new User(login, "secret", AuthorityUtils.createAuthorityList("ROLE_USER"));
+        });
+        provider.afterPropertiesSet();
+        authenticationManager = new ProviderManager(Collections.singletonList(provider));
+    }
+
+    @After
+    public void tearDown() {
+        cacheManager.shutdown();
+    }
+
+    @Test
+    public void test_secondLoginIsServedByTheCache() throws Exception {
+        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken("johndoe", "secret"));
+        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken("johndoe", "secret"));
+
+        TimedAuthenticationProvider.Statistics statistics = provider.getStatistics();
+        Assert.assertEquals(2, statistics.getAuthentications());
+        Assert.assertEquals(1, statistics.getLookups());
+        Assert.assertEquals(0.5, statistics.getCacheHitRatio(), 0.001);
+    }
+
+    @Test
+    public void test_failuresAreCounted() throws Exception {
+        try {
+            authenticationManager.authenticate(new UsernamePasswordAuthenticationToken("johndoe", "wrong"));
+            Assert.fail();
+        } catch (BadCredentialsException e) {
+            Assert.assertEquals(1, provider.getStatistics().getFailures());
+        }
+    }
+
+}
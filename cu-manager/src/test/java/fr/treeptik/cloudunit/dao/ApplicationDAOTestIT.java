@@ -0,0 +1,132 @@
+package fr.treeptik.cloudunit.dao;
+
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import fr.treeptik.cloudunit.dto.ApplicationSummary;
+import fr.treeptik.cloudunit.initializer.CloudUnitApplicationContext;
+import fr.treeptik.cloudunit.model.Application;
+import fr.treeptik.cloudunit.model.Image;
+import fr.treeptik.cloudunit.model.Module;
+import fr.treeptik.cloudunit.model.Server;
+import fr.treeptik.cloudunit.model.Status;
+import fr.treeptik.cloudunit.model.User;
+import fr.treeptik.cloudunit.service.ApplicationService;
+
+/**
+ * Check that the applications and their containers are loaded in a constant number of queries.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@WebAppConfiguration
+@ContextConfiguration(classes = {CloudUnitApplicationContext.class, MockServletContext.class})
+@ActiveProfiles("integration")
+@Transactional
+public class ApplicationDAOTestIT {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Inject
+    private ApplicationDAO applicationDAO;
+
+    @Inject
+    private ServerDAO serverDAO;
+
+    @Inject
+    private ModuleDAO moduleDAO;
+
+    @Inject
+    private ImageDAO imageDAO;
+
+    @Inject
+    private UserDAO userDAO;
+
+    @Inject
+    private ApplicationService applicationService;
+
+    @Value("${cloudunit.instance.name}")
+    private String cuInstanceName;
+
+    @Test
+    public void test_findAllLoadsTheContainersInOneQuery() throws Exception {
+        createApplications(userDAO.findByLogin("johndoe"));
+        Statistics statistics = startStatistics();
+
+        List<Application> applications = applicationService.findAll();
+        int modules = 0;
+        for (Application application : applications) {
+            Assert.assertNotNull(application.getUser().getRole());
+            if (application.getServer() != null) {
+                Assert.assertNotNull(application.getServer().getImage().getName());
+            }
+            for (Module module : application.getModules()) {
+                Assert.assertNotNull(module.getImage().getName());
+                modules++;
+            }
+        }
+
+        Assert.assertTrue(modules >= 10);
+        Assert.assertEquals(1, statistics.getPrepareStatementCount());
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    public void test_summariesAreReadInTwoQueries() throws Exception {
+        User user = userDAO.findByLogin("johndoe");
+        createApplications(user);
+        Statistics statistics = startStatistics();
+
+        List<ApplicationSummary> summaries = applicationService.findSummariesByUser(user);
+        ApplicationSummary summary = summaries.stream()
+                .filter(s -> s.getName().equals("querycount0"))
+                .findFirst().get();
+
+        Assert.assertEquals(2, summary.getModuleCount());
+        Assert.assertEquals(2, summary.getModules().size());
+        Assert.assertNotNull(summary.getServerDisplayName());
+        Assert.assertNull(summary.getLastDeployment());
+        Assert.assertEquals(2, statistics.getPrepareStatementCount());
+        statistics.setStatisticsEnabled(false);
+    }
+
+    private void createApplications(User user) {
+        Image tomcat = imageDAO.findByName("tomcat-8");
+        Image mysql = imageDAO.findByName("mysql-5-5");
+        Image postgresql = imageDAO.findByName("postgresql-9-3");
+        for (int i = 0; i < 5; i++) {
+            Application application = applicationDAO.save(Application.of("querycount" + i, tomcat)
+                    .withUser(user).withCuInstanceName(cuInstanceName).withStatus(Status.START).build());
+            Server server = application.getServer();
+            server.setApplication(application);
+            serverDAO.save(server);
+            moduleDAO.save(new Module(application, mysql));
+            moduleDAO.save(new Module(application, postgresql));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Statistics startStatistics() {
+        Statistics statistics = entityManager.unwrap(Session.class).getSessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+
+}
@@ -0,0 +1,72 @@
+package fr.treeptik.cloudunit.dao;
+
+import java.util.Date;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import fr.treeptik.cloudunit.initializer.CloudUnitApplicationContext;
+import fr.treeptik.cloudunit.model.Message;
+import fr.treeptik.cloudunit.model.User;
+
+/**
+ * Check the keyset pagination of the messages.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@WebAppConfiguration
+@ContextConfiguration(classes = {CloudUnitApplicationContext.class, MockServletContext.class})
+@ActiveProfiles("integration")
+@Transactional
+public class MessageDAOTestIT {
+
+    @Inject
+    private MessageDAO messageDAO;
+
+    @Inject
+    private UserDAO userDAO;
+
+    @Value("${cloudunit.instance.name}")
+    private String cuInstanceName;
+
+    @Test
+    public void test_pagesAreReadByIdAndNewMessagesSinceTheLastOne() throws Exception {
+        User user = userDAO.findByLogin("johndoe");
+        for (int i = 0; i < 5; i++) {
+            Message message = new Message();
+            message.setAuthor(user);
+            message.setDate(new Date());
+            message.setType(Message.INFO);
+            message.setCuInstanceName(cuInstanceName);
+            message.setEvent("event " + i);
+            messageDAO.save(message);
+        }
+
+        List<Message> first = messageDAO.listByUserBetween(user, cuInstanceName, 0, Integer.MAX_VALUE,
+                new PageRequest(0, 3));
+        Assert.assertEquals(3, first.size());
+        Assert.assertEquals("event 4", first.get(0).getEvent());
+
+        Integer oldest = first.get(2).getId();
+        List<Message> next = messageDAO.listByUserBetween(user, cuInstanceName, 0, oldest, new PageRequest(0, 3));
+        Assert.assertTrue(next.get(0).getId() < oldest);
+
+        Integer newest = first.get(0).getId();
+        Assert.assertEquals(0, (long) messageDAO.countByUserSince(user, cuInstanceName, newest));
+        Assert.assertEquals(2, (long) messageDAO.countByUserSince(user, cuInstanceName, first.get(2).getId()));
+        Assert.assertTrue(messageDAO.listByUserBetween(user, cuInstanceName, newest, Integer.MAX_VALUE,
+                new PageRequest(0, 3)).isEmpty());
+    }
+
+}
@@ -0,0 +1,81 @@
+package fr.treeptik.cloudunit.dao;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+
+import fr.treeptik.cloudunit.initializer.CloudUnitApplicationContext;
+import fr.treeptik.cloudunit.model.Image;
+import fr.treeptik.cloudunit.service.ImageService;
+import fr.treeptik.cloudunit.service.UserService;
+
+/**
+ * Check that the lookups of the reference entities are served by the second-level cache.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@WebAppConfiguration
+@ContextConfiguration(classes = {CloudUnitApplicationContext.class, MockServletContext.class})
+@ActiveProfiles("integration")
+public class ReferenceEntityCacheTestIT {
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Inject
+    private ImageService imageService;
+
+    @Inject
+    private UserService userService;
+
+    @Inject
+    private ReferenceEntityCache referenceEntityCache;
+
+    private Statistics statistics;
+
+    @Before
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    public void test_secondLookupIsCached() throws Exception {
+        imageService.findByName("tomcat-8");
+        userService.findByLogin("johndoe");
+        statistics.clear();
+
+        Image image = imageService.findByName("tomcat-8");
+        userService.findByLogin("johndoe");
+
+        Assert.assertEquals("tomcat-8", image.getName());
+        Assert.assertEquals(0, statistics.getPrepareStatementCount());
+        Assert.assertTrue(referenceEntityCache.getStatistics().get("imageQueries").getHitRatio() > 0);
+    }
+
+    @Test
+    public void test_disableImageEvictsTheImages() throws Exception {
+        imageService.findByName("tomcat-8");
+        try {
+            imageService.disableImage("tomcat-8");
+            statistics.clear();
+
+            Assert.assertFalse(imageService.findByName("tomcat-8").isEnable());
+            Assert.assertTrue(statistics.getPrepareStatementCount() > 0);
+        } finally {
+            imageService.enableImage("tomcat-8");
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package fr.treeptik.cloudunit.docker;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import fr.treeptik.cloudunit.dao.ModuleDAO;
+import fr.treeptik.cloudunit.dao.ServerDAO;
+
+/**
+ * Check the routing of the containers to the host recorded on them.
+ */
+public class DockerHostPoolTest {
+
+    private static final String FULL_ID = "4f66ad9a0b2e2b1fd6a0b3d9f3a9c7e1b2c3d4e5f6a7b8c9d0e1f2a3b4c5d6e7";
+
+    private DockerHostPool dockerHostPool = new DockerHostPool();
+
+    private DockerHost defaultHost = new DockerHost("default", "localhost", null, null, null, null);
+
+    private DockerHost otherHost = new DockerHost("other", "other", null, null, null, null);
+
+    private List<String> lookups = new ArrayList<>();
+
+    private String recordedHost;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        ReflectionTestUtils.setField(dockerHostPool, "defaultHost", defaultHost);
+        Map<String, DockerHost> hosts = (Map<String, DockerHost>) ReflectionTestUtils.getField(dockerHostPool, "hosts");
+        hosts.put("default", defaultHost);
+        hosts.put("other", otherHost);
+        ReflectionTestUtils.setField(dockerHostPool, "serverDAO", proxy(ServerDAO.class, args -> {
+            lookups.add((String) args[0]);
+            return Collections.singletonList(recordedHost);
+        }));
+        ReflectionTestUtils.setField(dockerHostPool, "moduleDAO",
+                proxy(ModuleDAO.class, args -> Collections.emptyList()));
+    }
+
+    @Test
+    public void test_unknownContainerIsNotKept() throws Exception {
+        // the container is not saved yet
+        Assert.assertSame(defaultHost, dockerHostPool.forContainer("dev-johndoe-app-tomcat"));
+
+        recordedHost = "other";
+        Assert.assertSame(otherHost, dockerHostPool.forContainer("dev-johndoe-app-tomcat"));
+        Assert.assertSame(otherHost, dockerHostPool.forContainer("dev-johndoe-app-tomcat"));
+        Assert.assertEquals(2, lookups.size());
+
+        dockerHostPool.release("dev-johndoe-app-tomcat");
+        recordedHost = null;
+        Assert.assertSame(defaultHost, dockerHostPool.forContainer("dev-johndoe-app-tomcat"));
+    }
+
+    @Test
+    public void test_fullIdIsLookedUpByItsShortForm() throws Exception {
+        recordedHost = "other";
+        Assert.assertSame(otherHost, dockerHostPool.forContainer(FULL_ID));
+        Assert.assertSame(otherHost, dockerHostPool.forContainer(FULL_ID.substring(0, 12)));
+        Assert.assertEquals(Collections.singletonList(FULL_ID.substring(0, 12)), lookups);
+    }
+
+    private interface Answer {
+        Object answer(Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, Answer answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> answer.answer(args));
+    }
+
+}
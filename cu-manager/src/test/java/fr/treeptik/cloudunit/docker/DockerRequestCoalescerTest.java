@@ -0,0 +1,90 @@
+package fr.treeptik.cloudunit.docker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DockerRequestCoalescerTest {
+
+    private DockerRequestCoalescer coalescer = new DockerRequestCoalescer();
+
+    private ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void test_identicalCallsShareTheRequestInFlight() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> coalescer.execute("exec:server1:ls", () -> {
+                requests.incrementAndGet();
+                release.await(5, TimeUnit.SECONDS);
+                return "output";
+            })));
+        }
+        while (coalescer.getStatistics().getCoalesced() < 7) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        for (Future<String> result : results) {
+            Assert.assertEquals("output", result.get(5, TimeUnit.SECONDS));
+        }
+        Assert.assertEquals(1, requests.get());
+        Assert.assertEquals(1, coalescer.getStatistics().getExecutions());
+        Assert.assertEquals(0, coalescer.getStatistics().getInFlight());
+
+        // the next call sends a new request
+        Assert.assertEquals("again", coalescer.execute("exec:server1:ls", () -> "again"));
+        Assert.assertEquals(2, coalescer.getStatistics().getExecutions());
+    }
+
+    @Test
+    public void test_failureIsSharedAndNotKept() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> first = executor.submit(() -> coalescer.execute("inspect:server1", () -> {
+            release.await(5, TimeUnit.SECONDS);
+            throw new IllegalStateException("no such container");
+        }));
+        while (coalescer.getStatistics().getInFlight() == 0) {
+            Thread.sleep(5);
+        }
+        Future<String> second = executor.submit(() -> coalescer.execute("inspect:server1", () -> "unused"));
+        while (coalescer.getStatistics().getCoalesced() == 0) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        for (Future<String> result : new Future[] { first, second }) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                Assert.fail("the failure should be shared");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        }
+        Assert.assertEquals("found", coalescer.execute("inspect:server1", () -> "found"));
+    }
+
+    @Test
+    public void test_differentKeysAreNotCoalesced() throws Exception {
+        Assert.assertEquals("a", coalescer.execute("inspect:a", () -> "a"));
+        Assert.assertEquals("b", coalescer.execute("inspect:b", () -> "b"));
+        Assert.assertEquals(2, coalescer.getStatistics().getExecutions());
+        Assert.assertEquals(0, coalescer.getStatistics().getCoalesced());
+    }
+
+}
@@ -0,0 +1,134 @@
+package fr.treeptik.cloudunit.docker;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import fr.treeptik.cloudunit.dao.ModuleDAO;
+import fr.treeptik.cloudunit.dao.ServerDAO;
+import fr.treeptik.cloudunit.metrics.CAdvisorClient;
+import fr.treeptik.cloudunit.metrics.CAdvisorResponse;
+
+/**
+ * Check the best fit placement of the containers over the hosts, from the machines reported by cAdvisor and the
+ * containers already placed. Each container reserves 512 MB and a host holds up to 4 containers per core.
+ */
+public class PlacementSchedulerTest {
+
+    private static final long MB = 1024 * 1024;
+
+    private PlacementScheduler placementScheduler = new PlacementScheduler();
+
+    private Map<String, DockerHost> hosts;
+
+    private Map<String, Long> containers = new HashMap<>();
+
+    private List<String> fetches = new ArrayList<>();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        DockerHostPool dockerHostPool = new DockerHostPool();
+        DockerHost defaultHost = host("default");
+        ReflectionTestUtils.setField(dockerHostPool, "defaultHost", defaultHost);
+        hosts = (Map<String, DockerHost>) ReflectionTestUtils.getField(dockerHostPool, "hosts");
+        hosts.put("default", defaultHost);
+        hosts.put("small", host("small"));
+        hosts.put("busy", host("busy"));
+        // without cAdvisor, the host is never chosen
+        hosts.put("blind", new DockerHost("blind", "blind", null, null, null, null));
+
+        ReflectionTestUtils.setField(placementScheduler, "dockerHostPool", dockerHostPool);
+        ReflectionTestUtils.setField(placementScheduler, "containerMemory", 512 * MB);
+        ReflectionTestUtils.setField(placementScheduler, "containersPerCore", 4);
+        ReflectionTestUtils.setField(placementScheduler, "serverDAO", proxy(ServerDAO.class, () -> {
+            List<Object[]> rows = new ArrayList<>();
+            // the containers created before the hosts were recorded are on the default host
+            containers.forEach((host, count) -> rows.add(new Object[] { host.equals("default") ? null : host, count }));
+            return rows;
+        }));
+        ReflectionTestUtils.setField(placementScheduler, "moduleDAO",
+                proxy(ModuleDAO.class, Collections::emptyList));
+        ReflectionTestUtils.setField(placementScheduler, "cAdvisorClient", new CAdvisorClient() {
+
+            @Override
+            public CAdvisorResponse get(String url) {
+                fetches.add(url);
+                return new CAdvisorResponse(200, "application/json", false,
+                        machine(url.substring("http://".length(), url.indexOf("/api")))
+                                .getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+
+    @Test
+    public void test_containerGoesToTheHostWithTheLeastMemoryLeft() throws Exception {
+        containers.put("default", 10L);
+        containers.put("small", 1L);
+        containers.put("busy", 4L);
+        // busy has the least memory left but no core
+        Assert.assertEquals("small", placementScheduler.place().getName());
+
+        containers.put("small", 3L);
+        Assert.assertEquals("small", placementScheduler.place().getName());
+
+        // small is full
+        containers.put("small", 4L);
+        Assert.assertEquals("default", placementScheduler.place().getName());
+
+        // the machines are read once
+        Assert.assertEquals(3, fetches.size());
+    }
+
+    @Test
+    public void test_fullHostsFallBackToTheLeastLoaded() throws Exception {
+        containers.put("default", 16L);
+        containers.put("small", 5L);
+        containers.put("busy", 7L);
+
+        Assert.assertEquals("busy", placementScheduler.place().getName());
+    }
+
+    @Test
+    public void test_singleHostIsAlwaysChosen() throws Exception {
+        hosts.keySet().retainAll(Collections.singleton("default"));
+
+        Assert.assertEquals("default", placementScheduler.place().getName());
+        Assert.assertTrue(fetches.isEmpty());
+    }
+
+    private DockerHost host(String name) {
+        return new DockerHost(name, name, "http://" + name, null, null, null);
+    }
+
+    private String machine(String host) {
+        switch (host) {
+        case "default":
+            return "{\"memory_capacity\":" + 8192 * MB + ",\"num_cores\":8}";
+        case "small":
+            return "{\"memory_capacity\":" + 2048 * MB + ",\"num_cores\":2}";
+        default:
+            return "{\"memory_capacity\":" + 4096 * MB + ",\"num_cores\":1}";
+        }
+    }
+
+    private interface Answer {
+        Object answer();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, Answer answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> answer.answer());
+    }
+
+}
@@ -0,0 +1,93 @@
+package fr.treeptik.cloudunit.metrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.StreamUtils;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Check that the responses of cAdvisor are kept for a while and stay gzipped.
+ */
+public class CAdvisorClientTest {
+
+    private static final String BODY = "{\"stats\":[]}";
+
+    private HttpServer server;
+
+    private AtomicInteger calls = new AtomicInteger();
+
+    private CAdvisorClient client = new CAdvisorClient();
+
+    private String url;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1.3/machine", exchange -> {
+            calls.incrementAndGet();
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+            try (OutputStream out = new GZIPOutputStream(gzipped)) {
+                out.write(BODY.getBytes(StandardCharsets.UTF_8));
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, gzipped.size());
+            exchange.getResponseBody().write(gzipped.toByteArray());
+            exchange.close();
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/api/v1.3/machine";
+
+        ReflectionTestUtils.setField(client, "timeToLive", 60000L);
+        ReflectionTestUtils.setField(client, "timeout", 2000);
+        ReflectionTestUtils.setField(client, "maxTotal", 10);
+        ReflectionTestUtils.setField(client, "maxPerRoute", 10);
+        client.init();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    public void test_responseIsKeptGzipped() throws Exception {
+        CAdvisorResponse first = client.get(url);
+        CAdvisorResponse second = client.get(url);
+
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, calls.get());
+        Assert.assertTrue(first.isGzip());
+        Assert.assertEquals(BODY, StreamUtils.copyToString(first.openStream(), StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        first.writeTo(plain, false);
+        Assert.assertEquals(BODY, plain.toString("UTF-8"));
+
+        CAdvisorClient.Statistics statistics = client.getStatistics();
+        Assert.assertEquals(2, statistics.getRequests());
+        Assert.assertEquals(1, statistics.getFetches());
+    }
+
+    @Test
+    public void test_expiredResponseIsFetchedAgain() throws Exception {
+        ReflectionTestUtils.setField(client, "timeToLive", -1L);
+        client.get(url);
+        client.get(url);
+
+        Assert.assertEquals(2, calls.get());
+    }
+
+}
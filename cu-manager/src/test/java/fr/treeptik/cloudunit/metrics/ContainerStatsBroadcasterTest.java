@@ -0,0 +1,83 @@
+package fr.treeptik.cloudunit.metrics;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import fr.treeptik.cloudunit.model.Metric;
+import fr.treeptik.cloudunit.service.MonitoringService;
+
+/**
+ * Check that the viewers of a container share its reads of cAdvisor and only get the new stats.
+ */
+public class ContainerStatsBroadcasterTest {
+
+    private ContainerStatsBroadcaster broadcaster = new ContainerStatsBroadcaster();
+
+    private int seconds = 1;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(broadcaster, "timeout", 60000L);
+        ReflectionTestUtils.setField(broadcaster, "monitoringService", new MonitoringService() {
+
+            @Override
+            public CAdvisorResponse getJsonFromCAdvisor(String containerName, String containerId) {
+                StringBuilder json = new StringBuilder("{\"spec\":{},\"stats\":[");
+                for (int i = 0; i < seconds; i++) {
+                    json.append(i == 0 ? "" : ",").append("{\"timestamp\":\"2016-05-01T10:00:0").append(i)
+                            .append(".5Z\"}");
+                }
+                json.append("]}");
+                return new CAdvisorResponse(200, "application/json", false,
+                        json.toString().getBytes(StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public CAdvisorResponse getJsonMachineFromCAdvisor() {
+                return null;
+            }
+
+            @Override
+            public List<Metric> findByServer(String serverName) {
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void test_viewersShareTheReadsOfCAdvisor() throws Exception {
+        broadcaster.subscribe("dev-johndoe-app-tomcat", "id");
+        broadcaster.subscribe("dev-johndoe-app-tomcat", "id");
+        seconds = 3;
+        ReflectionTestUtils.invokeMethod(broadcaster, "broadcast");
+        // nothing new since the last tick
+        ReflectionTestUtils.invokeMethod(broadcaster, "broadcast");
+
+        ContainerStatsBroadcaster.Statistics statistics = broadcaster.getStatistics();
+        Assert.assertEquals(1, statistics.getContainers());
+        Assert.assertEquals(2, statistics.getViewers());
+        Assert.assertEquals(4, statistics.getFetches());
+        Assert.assertEquals(2, statistics.getEvents());
+    }
+
+    @Test
+    public void test_viewerJoiningLaterDoesNotReceiveItsInitStatsAgain() throws Exception {
+        broadcaster.subscribe("dev-johndoe-app-tomcat", "id");
+        seconds = 3;
+        // its init event already holds the 3 stats
+        broadcaster.subscribe("dev-johndoe-app-tomcat", "id");
+        ReflectionTestUtils.invokeMethod(broadcaster, "broadcast");
+
+        Assert.assertEquals(1, broadcaster.getStatistics().getEvents());
+
+        seconds = 4;
+        ReflectionTestUtils.invokeMethod(broadcaster, "broadcast");
+        Assert.assertEquals(3, broadcaster.getStatistics().getEvents());
+    }
+
+}
@@ -0,0 +1,84 @@
+package fr.treeptik.cloudunit.metrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import fr.treeptik.cloudunit.metrics.MetricSeries.Points;
+import fr.treeptik.cloudunit.metrics.MetricSeries.Resolution;
+
+/**
+ * Check the averages of the tiers, the ring and the saved series.
+ */
+public class MetricSeriesTest {
+
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    public void test_samplesAreAveragedByBucket() {
+        MetricSeries series = new MetricSeries();
+        for (int i = 0; i < 10; i++) {
+            series.add(i * 30_000L, i, 100 * i, 0, 0);
+        }
+
+        Points minutes = series.query(Resolution.MINUTE, 0, Long.MAX_VALUE);
+        Assert.assertEquals(5, minutes.getTimestamps().length);
+        Assert.assertEquals(MINUTE, minutes.getTimestamps()[1]);
+        Assert.assertEquals(2.5, minutes.getCpu()[1], 0.001);
+        Assert.assertEquals(250, minutes.getMemory()[1]);
+
+        Points fiveMinutes = series.query(Resolution.FIVE_MINUTES, 0, Long.MAX_VALUE);
+        Assert.assertEquals(1, fiveMinutes.getTimestamps().length);
+        Assert.assertEquals(4.5, fiveMinutes.getCpu()[0], 0.001);
+    }
+
+    @Test
+    public void test_ringKeepsTheLastPoints() {
+        MetricSeries series = new MetricSeries();
+        int capacity = Resolution.MINUTE.getCapacity();
+        for (int i = 0; i < capacity + 10; i++) {
+            series.add(i * MINUTE, i, 0, 0, 0);
+        }
+
+        Points points = series.query(Resolution.MINUTE, 0, Long.MAX_VALUE);
+        // the complete buckets, then the bucket in progress
+        Assert.assertEquals(capacity + 1, points.getTimestamps().length);
+        Assert.assertEquals(9 * MINUTE, points.getTimestamps()[0]);
+        Assert.assertEquals(capacity + 9, points.getCpu()[capacity], 0.001);
+
+        Assert.assertEquals(2, series.query(Resolution.MINUTE, 20 * MINUTE, 21 * MINUTE).getTimestamps().length);
+    }
+
+    @Test
+    public void test_savedSeriesIsReadBack() throws Exception {
+        MetricSeries series = new MetricSeries();
+        series.add(0, 1, 10, 0, 0);
+        series.add(MINUTE, 2, 20, 0, 0);
+        series.add(MINUTE + 1000, 4, 40, 0, 0);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        series.writeTo(new DataOutputStream(bytes));
+        MetricSeries read = MetricSeries.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        Points points = read.query(Resolution.MINUTE, 0, Long.MAX_VALUE);
+        Assert.assertEquals(2, points.getTimestamps().length);
+        Assert.assertEquals(3, points.getCpu()[1], 0.001);
+
+        // the samples of the bucket in progress when saved are averaged with the new ones
+        read.add(MINUTE + 2000, 6, 60, 0, 0);
+        points = read.query(Resolution.MINUTE, 0, Long.MAX_VALUE);
+        Assert.assertEquals(2, points.getTimestamps().length);
+        Assert.assertEquals(4, points.getCpu()[1], 0.001);
+        Assert.assertEquals(40, points.getMemory()[1]);
+
+        read.add(2 * MINUTE, 8, 80, 0, 0);
+        points = read.query(Resolution.MINUTE, 0, Long.MAX_VALUE);
+        Assert.assertEquals(3, points.getTimestamps().length);
+        Assert.assertEquals(4, points.getCpu()[1], 0.001);
+    }
+
+}
@@ -0,0 +1,95 @@
+package fr.treeptik.cloudunit.schedule.readiness;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import fr.treeptik.cloudunit.config.events.ContainerDiedEvent;
+import fr.treeptik.cloudunit.config.events.ContainerStartedEvent;
+import fr.treeptik.cloudunit.docker.model.DockerEvent;
+
+public class ReadinessSchedulerTest {
+
+    private ReadinessScheduler scheduler = new ReadinessScheduler(2, 10, 40, 2000);
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void test_probeIsRetriedUntilReady() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<Boolean> ready = scheduler.schedule("server1", () -> attempts.incrementAndGet() == 4,
+                e -> false);
+        Assert.assertTrue(ready.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(4, attempts.get());
+        Assert.assertEquals(0, scheduler.getPending());
+    }
+
+    @Test
+    public void test_failureEventEndsTheWait() throws Exception {
+        CompletableFuture<Boolean> ready = scheduler.schedule("server1", () -> false,
+                e -> e instanceof ContainerDiedEvent);
+        scheduler.onContainerEvent(new ContainerStartedEvent(dockerEvent("server1", "start")));
+        scheduler.onContainerEvent(new ContainerDiedEvent(dockerEvent("server2", "die")));
+        Assert.assertFalse(ready.isDone());
+
+        scheduler.onContainerEvent(new ContainerDiedEvent(dockerEvent("server1", "die")));
+        Assert.assertFalse(ready.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void test_eventTriggersAProbeBeforeTheBackoff() throws Exception {
+        ReadinessScheduler slow = new ReadinessScheduler(1, 10000, 10000, 60000);
+        try {
+            AtomicBoolean started = new AtomicBoolean();
+            AtomicInteger attempts = new AtomicInteger();
+            CompletableFuture<Boolean> ready = slow.schedule("server1", () -> {
+                attempts.incrementAndGet();
+                return started.get();
+            }, e -> false);
+            while (attempts.get() == 0) {
+                Thread.sleep(5);
+            }
+            started.set(true);
+            slow.onContainerEvent(new ContainerStartedEvent(dockerEvent("server1", "start")));
+            Assert.assertTrue(ready.get(1, TimeUnit.SECONDS));
+        } finally {
+            slow.shutdown();
+        }
+    }
+
+    @Test
+    public void test_timeoutIsNotReady() throws Exception {
+        ReadinessScheduler fast = new ReadinessScheduler(1, 10, 20, 100);
+        try {
+            Assert.assertFalse(fast.schedule("server1", () -> {
+                throw new IllegalStateException("no container");
+            }, e -> false).get(2, TimeUnit.SECONDS));
+        } finally {
+            fast.shutdown();
+        }
+    }
+
+    private DockerEvent dockerEvent(String name, String action) {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("name", name);
+        DockerEvent.Actor actor = new DockerEvent.Actor();
+        actor.setId("id-" + name);
+        actor.setAttributes(attributes);
+        DockerEvent event = new DockerEvent();
+        event.setType("container");
+        event.setAction(action);
+        event.setActor(actor);
+        return event;
+    }
+
+}
@@ -0,0 +1,124 @@
+package fr.treeptik.cloudunit.service.impl;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import fr.treeptik.cloudunit.dao.ApplicationDAO;
+import fr.treeptik.cloudunit.exception.ServiceException;
+import fr.treeptik.cloudunit.model.Application;
+import fr.treeptik.cloudunit.model.Container;
+import fr.treeptik.cloudunit.model.Module;
+import fr.treeptik.cloudunit.model.Server;
+import fr.treeptik.cloudunit.model.Status;
+import fr.treeptik.cloudunit.service.ModuleService;
+import fr.treeptik.cloudunit.service.ServerService;
+
+/**
+ * Check that the modules of an application are started together, that the server is started once they are ready
+ * and that a failed module keeps the server stopped.
+ */
+public class ApplicationServiceImplTest {
+
+    private ApplicationServiceImpl applicationService = new ApplicationServiceImpl();
+
+    private List<String> started = Collections.synchronizedList(new ArrayList<>());
+
+    private Application application = new Application();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(application, "name", "app");
+        application.setServer(container(new Server(), "dev-johndoe-app-tomcat"));
+        application.setModules(Arrays.asList(container(new Module(), "dev-johndoe-app-mysql"),
+                container(new Module(), "dev-johndoe-app-redis"), container(new Module(), "dev-johndoe-app-mongo")));
+
+        // the modules are started and their readiness completed in the calling thread
+        ReflectionTestUtils.setField(applicationService, "lifecycleExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(applicationService, "moduleService",
+                proxy(ModuleService.class, (method, args) -> {
+                    if (args[0].equals("dev-johndoe-app-redis")) {
+                        throw new ServiceException("redis did not start");
+                    }
+                    started.add((String) args[0]);
+                    return CompletableFuture.completedFuture(true);
+                }));
+        ReflectionTestUtils.setField(applicationService, "serverService",
+                proxy(ServerService.class, (method, args) -> {
+                    if (method.equals("findByName")) {
+                        return application.getServer();
+                    }
+                    started.add(((Server) args[0]).getName());
+                    return args[0];
+                }));
+        ReflectionTestUtils.setField(applicationService, "applicationDAO",
+                proxy(ApplicationDAO.class, (method, args) -> method.equals("findOne") ? application : args[0]));
+    }
+
+    @Test
+    public void test_failedModuleKeepsTheServerStopped() throws Exception {
+        application.setStatus(Status.PENDING);
+        applicationService.start(application);
+
+        // the other modules are started anyway
+        Assert.assertEquals(2, started.size());
+        Assert.assertTrue(started.containsAll(Arrays.asList("dev-johndoe-app-mysql", "dev-johndoe-app-mongo")));
+        Assert.assertEquals(Status.FAIL, application.getStatus());
+    }
+
+    @Test
+    public void test_serverWaitsForTheReadinessOfTheModules() throws Exception {
+        application.setModules(Arrays.asList(container(new Module(), "dev-johndoe-app-mysql")));
+        CompletableFuture<Boolean> ready = new CompletableFuture<>();
+        ReflectionTestUtils.setField(applicationService, "moduleService",
+                proxy(ModuleService.class, (method, args) -> {
+                    started.add((String) args[0]);
+                    return ready;
+                }));
+
+        // nothing waits for the module to be ready
+        applicationService.start(application);
+        Assert.assertEquals(Arrays.asList("dev-johndoe-app-mysql"), started);
+
+        ready.complete(true);
+        Assert.assertEquals(Arrays.asList("dev-johndoe-app-mysql", "dev-johndoe-app-tomcat"), started);
+    }
+
+    @Test
+    public void test_serverIsStartedAfterItsModules() throws Exception {
+        application.setModules(Arrays.asList(container(new Module(), "dev-johndoe-app-mysql"),
+                container(new Module(), "dev-johndoe-app-mongo")));
+
+        applicationService.start(application);
+
+        Assert.assertEquals(3, started.size());
+        Assert.assertEquals("dev-johndoe-app-tomcat", started.get(2));
+    }
+
+    private <T extends Container> T container(T container, String name) {
+        // the modules of an application are a set of distinct ids
+        container.setId(name.hashCode());
+        container.setName(name);
+        return container;
+    }
+
+    private interface Answer {
+        Object answer(String method, Object[] args) throws Exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, Answer answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> answer.answer(method.getName(), args));
+    }
+
+}
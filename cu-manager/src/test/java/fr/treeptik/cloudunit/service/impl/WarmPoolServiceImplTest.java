@@ -0,0 +1,154 @@
+package fr.treeptik.cloudunit.service.impl;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import fr.treeptik.cloudunit.docker.DockerHost;
+import fr.treeptik.cloudunit.docker.DockerHostPool;
+import fr.treeptik.cloudunit.docker.ExecResult;
+import fr.treeptik.cloudunit.docker.PlacementScheduler;
+import fr.treeptik.cloudunit.enums.ImageSubType;
+import fr.treeptik.cloudunit.model.Image;
+import fr.treeptik.cloudunit.model.Server;
+import fr.treeptik.cloudunit.model.User;
+import fr.treeptik.cloudunit.service.DockerService;
+import fr.treeptik.cloudunit.service.ImageService;
+import fr.treeptik.cloudunit.utils.CustomPasswordEncoder;
+
+/**
+ * Check the claim of the warm containers, against a docker service keeping the names of the containers.
+ */
+public class WarmPoolServiceImplTest {
+
+    private WarmPoolServiceImpl warmPoolService = new WarmPoolServiceImpl();
+
+    private Image image = new Image();
+
+    private List<String> containers = new ArrayList<>();
+
+    private List<String> removed = new ArrayList<>();
+
+    private String[] claimArguments;
+
+    private Integer claimExitCode = 0;
+
+    private Runnable onRename = () -> {};
+
+    @Before
+    public void setUp() {
+        image.setName("tomcat-8");
+        image.setImageSubType(ImageSubType.APPSERVER);
+        image.setEnable(true);
+
+        DockerHostPool dockerHostPool = new DockerHostPool();
+        ReflectionTestUtils.setField(dockerHostPool, "defaultHost",
+                new DockerHost("default", "localhost", null, null, null, null));
+        PlacementScheduler placementScheduler = new PlacementScheduler();
+        ReflectionTestUtils.setField(placementScheduler, "dockerHostPool", dockerHostPool);
+
+        ReflectionTestUtils.setField(warmPoolService, "pooledImages", "tomcat-8:2");
+        ReflectionTestUtils.setField(warmPoolService, "placementScheduler", placementScheduler);
+        ReflectionTestUtils.setField(warmPoolService, "imageService", proxy(ImageService.class, (method, args) -> image));
+        ReflectionTestUtils.setField(warmPoolService, "dockerService", proxy(DockerService.class, (method, args) -> {
+            switch (method) {
+            case "createWarmServer":
+                containers.add((String) args[0]);
+                return null;
+            case "listWarmServers":
+                return new ArrayList<>(containers);
+            case "renameContainer":
+                onRename.run();
+                containers.set(containers.indexOf(args[0]), (String) args[1]);
+                return null;
+            case "removeContainer":
+                containers.remove(args[0]);
+                removed.add((String) args[0]);
+                return null;
+            case "execCommand":
+                claimArguments = (String[]) args[1];
+                return new ExecResult("exec", claimExitCode, 0);
+            default:
+                throw new UnsupportedOperationException(method);
+            }
+        }));
+        warmPoolService.init();
+    }
+
+    @Test
+    public void test_claimBindsTheWarmServerToTheUser() throws Exception {
+        warmPoolService.replenish();
+        Assert.assertEquals(Integer.valueOf(2), warmPoolService.getIdleCounts().get("tomcat-8"));
+        String warmName = containers.get(0);
+
+        Server server = server();
+        Assert.assertTrue(warmPoolService.claim(server, "dev-johndoe-app", user()));
+
+        Assert.assertEquals(Integer.valueOf(1), warmPoolService.getIdleCounts().get("tomcat-8"));
+        Assert.assertTrue(containers.contains("dev-johndoe-app"));
+        Assert.assertEquals(warmName, server.getMainVolume());
+        Assert.assertEquals("default", server.getDockerHost());
+        // the password is given as a single argument, without a shell
+        Assert.assertEquals(Arrays.asList("johndoe", "pass word;&"),
+                Arrays.asList(claimArguments).subList(3, 5));
+    }
+
+    @Test
+    public void test_failedClaimDiscardsTheWarmServer() throws Exception {
+        warmPoolService.replenish();
+        claimExitCode = 1;
+
+        Server server = server();
+        Assert.assertFalse(warmPoolService.claim(server, "dev-johndoe-app", user()));
+
+        Assert.assertEquals(Arrays.asList("dev-johndoe-app"), removed);
+        Assert.assertNull(server.getMainVolume());
+        Assert.assertEquals(Integer.valueOf(1), warmPoolService.getIdleCounts().get("tomcat-8"));
+    }
+
+    @Test
+    public void test_replenishKeepsTheWarmServerBeingClaimed() throws Exception {
+        containers.add("cu-warm-tomcat-8-orphan");
+        warmPoolService.replenish();
+        Assert.assertEquals(Arrays.asList("cu-warm-tomcat-8-orphan"), removed);
+
+        // the pool is replenished while the container is renamed
+        onRename = () -> warmPoolService.replenish();
+        Assert.assertTrue(warmPoolService.claim(server(), "dev-johndoe-app", user()));
+
+        Assert.assertEquals(1, removed.size());
+        Assert.assertTrue(containers.contains("dev-johndoe-app"));
+        Assert.assertEquals(3, containers.size());
+        Assert.assertEquals(Integer.valueOf(2), warmPoolService.getIdleCounts().get("tomcat-8"));
+    }
+
+    private Server server() {
+        Server server = new Server();
+        server.setImage(image);
+        return server;
+    }
+
+    private User user() {
+        User user = new User();
+        user.setLogin("johndoe");
+        user.setPassword(new CustomPasswordEncoder().encode("pass word;&"));
+        return user;
+    }
+
+    private interface Answer {
+        Object answer(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, Answer answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> answer.answer(method.getName(), args));
+    }
+
+}
@@ -0,0 +1,72 @@
+package fr.treeptik.cloudunit.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import fr.treeptik.cloudunit.model.User;
+
+public class AuthenticatedUserCacheTest {
+
+    private AuthenticatedUserCache cache = new AuthenticatedUserCache();
+
+    private AtomicInteger loads = new AtomicInteger();
+
+    private AuthenticatedUserCache.UserLoader loader = login -> {
+        loads.incrementAndGet();
+        User user = new User();
+        user.setLogin(login);
+        return user;
+    };
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void test_userIsLoadedOncePerRequest() throws Exception {
+        newRequest(null);
+        User user = cache.get("johndoe", loader);
+
+        Assert.assertSame(user, cache.get("johndoe", loader));
+        Assert.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void test_userIsKeptInTheSessionUntilInvalidated() throws Exception {
+        MockHttpSession session = new MockHttpSession();
+        newRequest(session);
+        cache.get("johndoe", loader);
+        newRequest(session);
+        cache.get("johndoe", loader);
+        Assert.assertEquals(1, loads.get());
+
+        cache.invalidate("johndoe");
+        cache.get("johndoe", loader);
+        Assert.assertEquals(2, loads.get());
+        newRequest(session);
+        cache.get("johndoe", loader);
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void test_userIsAlwaysLoadedOutsideOfARequest() throws Exception {
+        cache.get("johndoe", loader);
+        cache.get("johndoe", loader);
+        Assert.assertEquals(2, loads.get());
+    }
+
+    private void newRequest(MockHttpSession session) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(session);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+}
@@ -0,0 +1,36 @@
+#!/bin/bash
+
+# Bind a warm container to its owner : the manager account created for the pool
+# is replaced by the user one, in the running user database and in tomcat-users.xml
+
+WARM_USER=$1
+WARM_PASSWORD=$2
+CU_USER=$3
+CU_PASSWORD=$4
+
+JMX_PROXY="http://localhost:8080/manager/jmxproxy/"
+DATABASE="Users:type=UserDatabase,database=UserDatabase"
+
+jmx() {
+    curl -sfG -u "$WARM_USER:$WARM_PASSWORD" "$JMX_PROXY" "$@" | grep -q "^OK"
+}
+
+jmx --data-urlencode "invoke=$DATABASE" --data-urlencode "op=createUser" \
+    --data-urlencode "ps=$CU_USER,$CU_PASSWORD," || exit 1
+for ROLE in manager-gui manager-script manager-jmx; do
+    jmx --data-urlencode "invoke=Users:type=User,username=\"$CU_USER\",database=UserDatabase" \
+        --data-urlencode "op=addRole" --data-urlencode "ps=$ROLE" || exit 1
+done
+
+# the values are escaped for the xml attributes, then for sed
+escape() {
+    printf '%s' "$1" | sed -e 's/&/\&amp;/g' -e 's/"/\&quot;/g' -e 's/</\&lt;/g' -e 's/>/\&gt;/g' \
+        -e 's/[\\/&]/\\&/g'
+}
+
+sed -i "s/username=\"$(escape "$WARM_USER")\" password=\"$(escape "$WARM_PASSWORD")\"/username=\"$(escape "$CU_USER")\" password=\"$(escape "$CU_PASSWORD")\"/" \
+    "$CU_SOFTWARE/conf/tomcat-users.xml"
+
+curl -sfG -u "$CU_USER:$CU_PASSWORD" "$JMX_PROXY" --data-urlencode "invoke=$DATABASE" \
+    --data-urlencode "op=removeUser" --data-urlencode "ps=$WARM_USER" > /dev/null
+exit 0